@@ -0,0 +1,413 @@
+package concurrency;
+
+import concurrency.counters.StripedCounter;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * AsyncPipeline.java - Pipeline Assíncrono sobre CompletableFuture
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Executor nomeado por etapa - nada roda no ForkJoinPool.commonPool()
+ *   (trabalho bloqueante ali atrasa os parallel streams de toda a JVM)
+ * - Limite de concorrência por etapa - quem passa do limite espera numa fila
+ *   da etapa, sem ocupar thread nenhuma
+ * - Timeout por etapa - conta a partir do momento em que a entrada ficou pronta
+ * - Cancelamento propaga para trás - cancelar (ou estourar o timeout de) uma
+ *   etapa cancela as anteriores e interrompe a tarefa que estiver rodando
+ * - Métricas por etapa - espera (entrada pronta até começar) e execução mostram
+ *   onde o pipeline está parado
+ *
+ * Uso:
+ *   try (AsyncPipeline<Integer, String> p = AsyncPipeline.<Integer>inicio()
+ *           .etapa("baixar", 8, Duration.ofSeconds(5), Loja::baixar)
+ *           .etapa("salvar", 2, null, Loja::salvar)) {
+ *       p.executar(42).thenAccept(...);
+ *   }
+ */
+public final class AsyncPipeline<I, O> implements AutoCloseable {
+
+    private final Function<I, CompletableFuture<O>> execucao;
+    private final List<Etapa<?, ?>> etapas;
+
+    private AsyncPipeline(Function<I, CompletableFuture<O>> execucao, List<Etapa<?, ?>> etapas) {
+        this.execucao = execucao;
+        this.etapas = etapas;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== ASYNC PIPELINE ===\n");
+
+        // 1. GARGALO: "salvar" tem 1 thread; a espera dele denuncia onde o pipeline trava
+        System.out.println("--- 20 ITENS, GARGALO EM 'salvar' ---");
+        try (AsyncPipeline<Integer, String> pipeline = AsyncPipeline.<Integer>inicio()
+                .etapa("baixar", 8, Duration.ofSeconds(5), n -> {
+                    dormir(100);
+                    return "arquivo-" + n;
+                })
+                .etapa("processar", 2, Duration.ofSeconds(5), String::toUpperCase)
+                .etapa("salvar", 1, null, arquivo -> {
+                    dormir(50);
+                    return arquivo + " salvo";
+                })) {
+            List<CompletableFuture<String>> futuros = IntStream.rangeClosed(1, 20)
+                    .mapToObj(pipeline::executar)
+                    .collect(Collectors.toList());
+            CompletableFuture.allOf(futuros.toArray(new CompletableFuture<?>[0])).join();
+            System.out.println("✅ " + futuros.get(19).join());
+            pipeline.metricas().forEach(System.out::println);
+        }
+
+        // 2. TIMEOUT E CANCELAMENTO: upstream é cancelado e a tarefa interrompida
+        System.out.println("\n--- TIMEOUT E CANCELAMENTO ---");
+        try (AsyncPipeline<Integer, Integer> pipeline = AsyncPipeline.<Integer>inicio()
+                .etapa("lenta", 2, Duration.ofMillis(200), n -> {
+                    dormir(n);
+                    return n;
+                })
+                .etapa("dobrar", 2, null, n -> n * 2)) {
+            CompletableFuture<Integer> rapido = pipeline.executar(10);
+            CompletableFuture<Integer> estourado = pipeline.executar(5_000);
+            CompletableFuture<Integer> cancelado = pipeline.executar(5_000);
+            dormir(50);
+            cancelado.cancel(true);
+
+            System.out.println("⚡ rápido: " + rapido.join());
+            System.out.println("⏰ estourado: " + descrever(estourado));
+            System.out.println("🛑 cancelado: " + descrever(cancelado));
+            dormir(50);
+            pipeline.metricas().forEach(System.out::println);
+        }
+    }
+
+    // =============================================
+    // MONTAGEM
+    // =============================================
+
+    public static <T> AsyncPipeline<T, T> inicio() {
+        return new AsyncPipeline<>(CompletableFuture::completedFuture, List.of());
+    }
+
+    /**
+     * Etapa com pool próprio de 'threads' threads (nome das threads = nome da
+     * etapa), fechado junto com o pipeline. Concorrência = threads.
+     *
+     * @param timeout null = sem timeout
+     */
+    public <R> AsyncPipeline<I, R> etapa(String nome, int threads, Duration timeout,
+                                         Function<? super O, ? extends R> funcao) {
+        InstrumentedExecutor executor = new InstrumentedExecutor(nome, threads,
+                InstrumentedExecutor.CAPACIDADE_FILA_PADRAO,
+                InstrumentedExecutor.Politica.bloquearAte(Duration.ofMinutes(1)), null);
+        return adicionar(new Etapa<>(nome, executor, executor, threads, timeout, funcao));
+    }
+
+    /**
+     * Etapa num executor de fora (pode ser compartilhado), com no máximo
+     * 'concorrencia' itens desta etapa rodando ao mesmo tempo. O executor não é fechado.
+     *
+     * @param timeout null = sem timeout
+     */
+    public <R> AsyncPipeline<I, R> etapa(String nome, Executor executor, int concorrencia, Duration timeout,
+                                         Function<? super O, ? extends R> funcao) {
+        return adicionar(new Etapa<>(nome, executor, null, concorrencia, timeout, funcao));
+    }
+
+    private <R> AsyncPipeline<I, R> adicionar(Etapa<O, R> etapa) {
+        List<Etapa<?, ?>> novas = new ArrayList<>(etapas);
+        novas.add(etapa);
+        Function<I, CompletableFuture<O>> anterior = execucao;
+        return new AsyncPipeline<>(entrada -> etapa.aplicar(anterior.apply(entrada)),
+                Collections.unmodifiableList(novas));
+    }
+
+    // =============================================
+    // EXECUÇÃO
+    // =============================================
+
+    /**
+     * Passa 'entrada' por todas as etapas. Cancelar o future devolvido cancela
+     * as etapas que ainda não terminaram.
+     */
+    public CompletableFuture<O> executar(I entrada) {
+        return execucao.apply(entrada);
+    }
+
+    public List<MetricasEtapa> metricas() {
+        return etapas.stream().map(Etapa::metricas).collect(Collectors.toList());
+    }
+
+    /**
+     * Fecha os pools criados pelo pipeline, esperando as tarefas em andamento.
+     */
+    @Override
+    public void close() {
+        for (Etapa<?, ?> etapa : etapas) {
+            if (etapa.proprio != null) {
+                etapa.proprio.shutdown();
+            }
+        }
+        try {
+            for (Etapa<?, ?> etapa : etapas) {
+                if (etapa.proprio != null && !etapa.proprio.awaitTermination(30, TimeUnit.SECONDS)) {
+                    etapa.proprio.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            etapas.stream().filter(etapa -> etapa.proprio != null).forEach(etapa -> etapa.proprio.shutdownNow());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // =============================================
+    // MÉTRICAS
+    // =============================================
+
+    public record MetricasEtapa(String nome, int concorrencia, int ativos, int aguardando, long concluidos,
+                                long falhas, long timeouts, long cancelados, LatencyHistogram.Resumo espera,
+                                LatencyHistogram.Resumo execucao) {
+
+        @Override
+        public String toString() {
+            return "📊 Etapa '" + nome + "' (ativos " + ativos + "/" + concorrencia + ", aguardando " + aguardando + ")\n"
+                    + "  ✅ Concluídos: " + concluidos + ", ❌ falhas: " + falhas + ", ⏰ timeouts: " + timeouts
+                    + ", 🛑 cancelados: " + cancelados + "\n"
+                    + "  ⏳ Espera: " + espera + "\n"
+                    + "  ⚙️ Execução: " + execucao;
+        }
+    }
+
+    // =============================================
+    // ETAPA
+    // =============================================
+
+    @FunctionalInterface
+    private interface Inicio {
+        boolean tentar();
+    }
+
+    /**
+     * Thread que está rodando um item. Registrar, sair e interromper acontecem sob
+     * o mesmo monitor (como no FutureTask): um cancelamento atrasado nunca
+     * interrompe a thread depois que ela saiu - nem a próxima tarefa do executor.
+     */
+    private static final class Execucao {
+        private Thread thread;
+        private boolean cancelada;
+
+        /**
+         * @return false se o item já foi cancelado (não precisa rodar)
+         */
+        synchronized boolean entrar() {
+            if (cancelada) {
+                return false;
+            }
+            thread = Thread.currentThread();
+            return true;
+        }
+
+        synchronized void sair() {
+            thread = null;
+            if (cancelada) {
+                // A interrupção foi nossa: não vaza para a próxima tarefa da thread
+                Thread.interrupted();
+            }
+        }
+
+        synchronized void cancelar() {
+            cancelada = true;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    private static final class Etapa<E, S> {
+        private final String nome;
+        private final Executor executor;
+        private final ExecutorService proprio;
+        private final int concorrencia;
+        private final Duration timeout;
+        private final Function<? super E, ? extends S> funcao;
+
+        // Limite de concorrência: vagas ocupadas + fila de quem espera (sem thread bloqueada)
+        private final Deque<Inicio> aguardando = new ArrayDeque<>();
+        private int ativos;
+
+        private final LatencyHistogram espera = new LatencyHistogram();
+        private final LatencyHistogram execucao = new LatencyHistogram();
+        private final StripedCounter concluidos = new StripedCounter();
+        private final StripedCounter falhas = new StripedCounter();
+        private final StripedCounter timeouts = new StripedCounter();
+        private final StripedCounter cancelados = new StripedCounter();
+
+        Etapa(String nome, Executor executor, ExecutorService proprio, int concorrencia, Duration timeout,
+              Function<? super E, ? extends S> funcao) {
+            if (concorrencia < 1) {
+                throw new IllegalArgumentException("Concorrência da etapa '" + nome + "' precisa ser >= 1");
+            }
+            this.nome = nome;
+            this.executor = executor;
+            this.proprio = proprio;
+            this.concorrencia = concorrencia;
+            this.timeout = timeout;
+            this.funcao = funcao;
+        }
+
+        CompletableFuture<S> aplicar(CompletableFuture<E> anterior) {
+            CompletableFuture<S> saida = new CompletableFuture<>();
+            Execucao executando = new Execucao();
+
+            anterior.whenComplete((valor, erro) -> {
+                if (erro != null) {
+                    // Falha de etapa anterior: embrulhada para não contar de novo aqui
+                    saida.completeExceptionally(erro instanceof CompletionException ? erro : new CompletionException(erro));
+                    return;
+                }
+                if (timeout != null) {
+                    saida.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+                }
+                long pronto = System.nanoTime();
+                adquirir(() -> iniciar(valor, pronto, saida, executando));
+            });
+
+            saida.whenComplete((valor, erro) -> {
+                if (erro == null) {
+                    return;
+                }
+                if (erro instanceof TimeoutException) {
+                    timeouts.incrementar();
+                } else if (saida.isCancelled()) {
+                    cancelados.incrementar();
+                }
+                // Ninguém mais quer o resultado: para quem está rodando e o que vem antes
+                executando.cancelar();
+                anterior.cancel(true);
+            });
+            return saida;
+        }
+
+        /**
+         * @return false se a vaga não foi usada (saída já resolvida ou executor recusou)
+         */
+        private boolean iniciar(E valor, long pronto, CompletableFuture<S> saida, Execucao executando) {
+            if (saida.isDone()) {
+                return false;
+            }
+            try {
+                executor.execute(() -> {
+                    long inicio = System.nanoTime();
+                    espera.registrar(inicio - pronto);
+                    S resultado = null;
+                    Throwable erro = null;
+                    try {
+                        if (executando.entrar() && !saida.isDone()) {
+                            resultado = funcao.apply(valor);
+                        }
+                    } catch (RuntimeException | Error e) {
+                        erro = e;
+                    } finally {
+                        executando.sair();
+                        execucao.registrar(System.nanoTime() - inicio);
+                        liberar();
+                    }
+                    // Completa só depois das métricas: quem espera o future já as vê atualizadas
+                    if (!saida.isDone()) {
+                        (erro == null ? concluidos : falhas).incrementar();
+                    }
+                    if (erro == null) {
+                        saida.complete(resultado);
+                    } else {
+                        saida.completeExceptionally(erro);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                saida.completeExceptionally(e);
+                return false;
+            }
+            return true;
+        }
+
+        private void adquirir(Inicio inicio) {
+            synchronized (this) {
+                if (ativos >= concorrencia) {
+                    aguardando.add(inicio);
+                    return;
+                }
+                ativos++;
+            }
+            if (!inicio.tentar()) {
+                liberar();
+            }
+        }
+
+        /**
+         * A vaga passa direto para o próximo da fila; itens já cancelados são
+         * pulados num laço (e não por recursão).
+         */
+        private void liberar() {
+            while (true) {
+                Inicio proximo;
+                synchronized (this) {
+                    proximo = aguardando.poll();
+                    if (proximo == null) {
+                        ativos--;
+                        return;
+                    }
+                }
+                if (proximo.tentar()) {
+                    return;
+                }
+            }
+        }
+
+        MetricasEtapa metricas() {
+            int ativosAgora;
+            int aguardandoAgora;
+            synchronized (this) {
+                ativosAgora = ativos;
+                aguardandoAgora = aguardando.size();
+            }
+            return new MetricasEtapa(nome, concorrencia, ativosAgora, aguardandoAgora, concluidos.soma(),
+                    falhas.soma(), timeouts.soma(), cancelados.soma(), espera.resumo(), execucao.resumo());
+        }
+    }
+
+    // =============================================
+    // MÉTODOS AUXILIARES
+    // =============================================
+
+    private static String descrever(CompletableFuture<?> futuro) {
+        try {
+            return String.valueOf(futuro.join());
+        } catch (CancellationException e) {
+            return "cancelado";
+        } catch (CompletionException e) {
+            return e.getCause().getClass().getSimpleName();
+        }
+    }
+
+    private static void dormir(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
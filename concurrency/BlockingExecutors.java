@@ -0,0 +1,162 @@
+package concurrency;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BlockingExecutors.java - Modo de Execução Plugável para Tarefas Bloqueantes
+ *
+ * CONCEITOS IMPORTANTES:
+ * - POOL_FIXO - N threads de plataforma; no máximo N tarefas bloqueadas ao mesmo tempo
+ *   (InstrumentedExecutor: fila limitada, quem submete espera quando ela enche)
+ * - THREAD_POR_TAREFA - uma thread de plataforma por tarefa (~1 MB de stack reservado cada)
+ * - VIRTUAL - uma virtual thread por tarefa (Java 21+): bloquear libera a
+ *   carrier thread, então milhares de sleeps/I/O custam só alguns KB cada
+ * - Reflexão - o código compila no Java 17; no 21+ as virtual threads são
+ *   encontradas em tempo de execução (no Java 17, VIRTUAL vira THREAD_POR_TAREFA)
+ * - -Dtoolbox.execucao=POOL_FIXO|THREAD_POR_TAREFA|VIRTUAL escolhe o modo dos exemplos
+ *
+ * O pom.xml tem o profile "jdk21", ativado sozinho por um JDK 21+, que sobe o
+ * release do compilador.
+ */
+public final class BlockingExecutors {
+
+    public enum Modo { POOL_FIXO, THREAD_POR_TAREFA, VIRTUAL }
+
+    public static final String PROPRIEDADE_MODO = "toolbox.execucao";
+
+    // Métodos do Java 21, procurados uma vez só (null no Java 17)
+    private static final Method NOVO_EXECUTOR_VIRTUAL;
+    private static final Method THREAD_OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_UNSTARTED;
+
+    static {
+        Method executor = null, ofVirtual = null, name = null, unstarted = null;
+        // Nos Java 19/20 os métodos existem, mas só funcionam com --enable-preview
+        if (Runtime.version().feature() >= 21) {
+            try {
+                executor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                ofVirtual = Thread.class.getMethod("ofVirtual");
+                Class<?> builder = Class.forName("java.lang.Thread$Builder");
+                name = builder.getMethod("name", String.class);
+                unstarted = builder.getMethod("unstarted", Runnable.class);
+            } catch (ReflectiveOperationException e) {
+                executor = null;
+            }
+        }
+        NOVO_EXECUTOR_VIRTUAL = executor;
+        THREAD_OF_VIRTUAL = executor != null ? ofVirtual : null;
+        BUILDER_NAME = executor != null ? name : null;
+        BUILDER_UNSTARTED = executor != null ? unstarted : null;
+    }
+
+    private BlockingExecutors() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== BLOCKING EXECUTORS ===\n");
+        System.out.println("☕ Java " + Runtime.version().feature() + ", virtual threads disponíveis: "
+                + virtuaisDisponiveis());
+
+        for (Modo modo : Modo.values()) {
+            ExecutorService executor = criar(modo, 4);
+            long inicio = System.nanoTime();
+            for (int i = 0; i < 100; i++) {
+                executor.execute(() -> dormir(100));
+            }
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            System.out.printf("⏱️ %-18s (efetivo: %-18s) 100 sleeps de 100 ms em %d ms%n", modo, efetivo(modo),
+                    (System.nanoTime() - inicio) / 1_000_000);
+        }
+    }
+
+    public static boolean virtuaisDisponiveis() {
+        return NOVO_EXECUTOR_VIRTUAL != null;
+    }
+
+    /**
+     * Modo que realmente roda: VIRTUAL sem suporte da JVM vira THREAD_POR_TAREFA.
+     */
+    public static Modo efetivo(Modo modo) {
+        return modo == Modo.VIRTUAL && !virtuaisDisponiveis() ? Modo.THREAD_POR_TAREFA : modo;
+    }
+
+    /**
+     * Modo pedido em -Dtoolbox.execucao; sem a propriedade, VIRTUAL quando a JVM
+     * suporta e POOL_FIXO caso contrário.
+     */
+    public static Modo doSistema() {
+        String valor = System.getProperty(PROPRIEDADE_MODO);
+        if (valor != null) {
+            return Modo.valueOf(valor.trim().toUpperCase());
+        }
+        return virtuaisDisponiveis() ? Modo.VIRTUAL : Modo.POOL_FIXO;
+    }
+
+    /**
+     * @param threadsPool usado só no POOL_FIXO
+     */
+    public static ExecutorService criar(Modo modo, int threadsPool) {
+        return switch (efetivo(modo)) {
+            case POOL_FIXO -> new InstrumentedExecutor("pool-fixo", threadsPool,
+                    InstrumentedExecutor.CAPACIDADE_FILA_PADRAO,
+                    InstrumentedExecutor.Politica.bloquearAte(Duration.ofMinutes(1)), null);
+            case THREAD_POR_TAREFA -> Executors.newCachedThreadPool(fabricaDeThreads("thread-por-tarefa"));
+            case VIRTUAL -> (ExecutorService) invocar(NOVO_EXECUTOR_VIRTUAL, null);
+        };
+    }
+
+    /**
+     * Thread (ainda não iniciada) para uma tarefa: virtual ou de plataforma.
+     * POOL_FIXO não faz sentido para uma thread avulsa e devolve uma de plataforma.
+     */
+    public static Thread novaThread(Modo modo, String nome, Runnable tarefa) {
+        if (efetivo(modo) == Modo.VIRTUAL) {
+            Object builder = invocar(BUILDER_NAME, invocar(THREAD_OF_VIRTUAL, null), nome);
+            return (Thread) invocar(BUILDER_UNSTARTED, builder, tarefa);
+        }
+        return new Thread(tarefa, nome);
+    }
+
+    // =============================================
+    // MÉTODOS AUXILIARES
+    // =============================================
+
+    private static ThreadFactory fabricaDeThreads(String prefixo) {
+        AtomicInteger contador = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefixo + "-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private static Object invocar(Method metodo, Object alvo, Object... argumentos) {
+        try {
+            return metodo.invoke(alvo, argumentos);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Sem acesso a " + metodo, e);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException erro) {
+                throw erro;
+            }
+            throw new IllegalStateException("Falha em " + metodo, e.getCause());
+        }
+    }
+
+    private static void dormir(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package concurrency;
 
+import concurrency.ratelimit.TokenBucketLimiter;
+
+import java.time.Duration;
 import java.util.concurrent.*;
 import java.util.Arrays;
 import java.util.List;
@@ -39,7 +42,9 @@ public class ExecutorsAndFutures {
         System.out.println("--- EXECUTOR SERVICE ---");
 
         // SINTAXE: Criar pool de threads
-        ExecutorService executor = Executors.newFixedThreadPool(3);
+        // Fila limitada + métricas (Executors.newFixedThreadPool tem fila infinita)
+        InstrumentedExecutor executor = InstrumentedExecutor.criar("executor-demo", 3, 16,
+                InstrumentedExecutor.Politica.bloquearAte(Duration.ofSeconds(1)));
 
         try {
             // EXECUTE - Fire and forget (não retorna nada)
@@ -63,6 +68,9 @@ public class ExecutorsAndFutures {
             System.out.println("Tasks submetidas, main thread continua...");
             dormir(2000);
 
+            // MÉTRICAS - consultáveis a qualquer momento (e impressas de novo no término)
+            System.out.println(executor.metricas());
+
         } finally {
             // IMPORTANTE: Sempre fechar o executor
             executor.shutdown();
@@ -183,28 +191,36 @@ public class ExecutorsAndFutures {
         // Lista simulada
         List<Integer> numeros = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
 
-        ExecutorService executor = Executors.newFixedThreadPool(4);
+        // Tarefas bloqueantes (dormir): em modo VIRTUAL não há teto de 4 sleeps simultâneos
+        BlockingExecutors.Modo modo = BlockingExecutors.doSistema();
+        System.out.println("Modo de execução: " + BlockingExecutors.efetivo(modo));
+        ExecutorService executor = BlockingExecutors.criar(modo, 4);
 
         try {
-            // PROCESSAR todos em paralelo
-            List<Future<String>> futures = numeros.stream()
-                    .map(numero -> executor.submit(() -> processarNumero(numero)))
-                    .collect(Collectors.toList());
-
-            // COLETAR resultados
+            // PROCESSAR em paralelo com janela limitada (sem List<Future>): cada resultado é
+            // entregue assim que possível - ParallelMap.Ordem.CONCLUSAO nem espera pelos anteriores
             System.out.println("Processando " + numeros.size() + " itens em paralelo...");
 
-            for (int i = 0; i < futures.size(); i++) {
-                try {
-                    String resultado = futures.get(i).get();
-                    System.out.println("Item " + (i+1) + ": " + resultado);
-                } catch (InterruptedException | ExecutionException e) {
-                    System.out.println("Erro no item " + (i+1) + ": " + e.getMessage());
-                }
-            }
+            // Backend real: no máximo 20 requisições/s (rajada de 4), sem bloquear quem envia
+            Executor limitado = new TokenBucketLimiter(20, 4).limitar(executor);
+
+            ParallelMap.mapear(numeros, ExecutorsAndFutures::processarNumero, limitado, 8,
+                    ParallelMap.Ordem.CONCLUSAO, resultado -> {
+                        long item = resultado.indice() + 1;
+                        if (resultado.sucesso()) {
+                            System.out.println("Item " + item + ": " + resultado.valor());
+                        } else {
+                            System.out.println("Erro no item " + item + ": " + resultado.erro().getMessage());
+                        }
+                    });
 
             System.out.println("Processamento paralelo concluído!");
+            if (executor instanceof InstrumentedExecutor instrumentado) {
+                System.out.println(instrumentado.metricas());
+            }
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } finally {
             executor.shutdown();
         }
@@ -212,32 +228,40 @@ public class ExecutorsAndFutures {
         // VERSÃO COMPLETABLE FUTURE
         System.out.println("\n--- VERSÃO COM COMPLETABLE FUTURE ---");
 
-        List<CompletableFuture<String>> completableFutures = numeros.stream()
-                .map(numero -> CompletableFuture.supplyAsync(() -> processarNumero(numero)))
-                .collect(Collectors.toList());
+        // Pipeline com executor próprio: supplyAsync() sem executor usaria o commonPool,
+        // e os sleeps daqui atrasariam os parallel streams da JVM inteira
+        try (AsyncPipeline<Integer, String> pipeline = AsyncPipeline.<Integer>inicio()
+                .etapa("pipeline-processar", 4, Duration.ofSeconds(10), ExecutorsAndFutures::processarNumero)) {
 
-        // ESPERAR TODOS
-        CompletableFuture<Void> todosCombinados = CompletableFuture.allOf(
-                completableFutures.toArray(new CompletableFuture[0])
-        );
+            List<CompletableFuture<String>> completableFutures = numeros.stream()
+                    .map(pipeline::executar)
+                    .collect(Collectors.toList());
 
-        // QUANDO TODOS TERMINAREM
-        todosCombinados.thenRun(() -> {
-            System.out.println("Todos os CompletableFutures terminaram!");
-            completableFutures.forEach(cf -> {
-                try {
-                    System.out.println("Resultado CF: " + cf.get());
-                } catch (InterruptedException | ExecutionException e) {
-                    e.printStackTrace();
-                }
+            // ESPERAR TODOS
+            CompletableFuture<Void> todosCombinados = CompletableFuture.allOf(
+                    completableFutures.toArray(new CompletableFuture<?>[0])
+            );
+
+            // QUANDO TODOS TERMINAREM
+            todosCombinados.thenRun(() -> {
+                System.out.println("Todos os CompletableFutures terminaram!");
+                completableFutures.forEach(cf -> {
+                    try {
+                        System.out.println("Resultado CF: " + cf.get());
+                    } catch (InterruptedException | ExecutionException e) {
+                        e.printStackTrace();
+                    }
+                });
             });
-        });
 
-        // ESPERAR
-        try {
-            todosCombinados.get(10, TimeUnit.SECONDS);
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            e.printStackTrace();
+            // ESPERAR
+            try {
+                todosCombinados.get(10, TimeUnit.SECONDS);
+            } catch (InterruptedException | ExecutionException | TimeoutException e) {
+                e.printStackTrace();
+            }
+
+            pipeline.metricas().forEach(System.out::println);
         }
     }
 
@@ -0,0 +1,308 @@
+package concurrency;
+
+import concurrency.counters.StripedCounter;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * InstrumentedExecutor.java - Pool com Fila Limitada, Backpressure e Métricas
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Fila limitada (ArrayBlockingQueue) - um pico de carga não enche o heap de tarefas
+ * - Política de rejeição escolhida na criação:
+ *   CALLER_RUNS (quem submete executa), BLOQUEAR com timeout (backpressure)
+ *   ou DESCARTAR_MAIS_ANTIGA (a tarefa mais velha da fila é cancelada)
+ * - Métricas por pool - profundidade da fila, threads ativas, histogramas de
+ *   espera na fila e de execução, rejeições e descartes
+ * - Consulta a qualquer momento (metricas()) e relatório no término do pool
+ *
+ * Substitui o Executors.newFixedThreadPool(), cuja LinkedBlockingQueue não tem limite.
+ */
+public class InstrumentedExecutor extends ThreadPoolExecutor {
+
+    public static final int CAPACIDADE_FILA_PADRAO = 1024;
+
+    private final String nome;
+    private final int capacidadeFila;
+    private final Politica politica;
+    private final Consumer<Metricas> aoTerminar;
+
+    private final LatencyHistogram espera = new LatencyHistogram();
+    private final LatencyHistogram execucao = new LatencyHistogram();
+    private final StripedCounter rejeitadas = new StripedCounter();
+    private final StripedCounter descartadas = new StripedCounter();
+    private final StripedCounter executadasNoChamador = new StripedCounter();
+    private final StripedCounter falhas = new StripedCounter();
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== INSTRUMENTED EXECUTOR ===\n");
+
+        // Pico de 200 tarefas num pool de 4 threads com fila de 16: cada política reage de um jeito
+        for (Politica politica : new Politica[]{Politica.callerRuns(),
+                Politica.bloquearAte(Duration.ofMillis(50)), Politica.descartarMaisAntiga()}) {
+            InstrumentedExecutor executor = criar("demo-" + politica.tipo().name().toLowerCase(), 4, 16, politica);
+            for (int i = 0; i < 200; i++) {
+                try {
+                    executor.execute(() -> dormir(10));
+                } catch (RejectedExecutionException e) {
+                    // BLOQUEAR: a fila não abriu espaço dentro do timeout
+                }
+            }
+            System.out.println("📈 Durante o pico: fila=" + executor.getQueue().size()
+                    + ", ativas=" + executor.getActiveCount());
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            System.out.println();
+        }
+    }
+
+    // =============================================
+    // POLÍTICAS DE REJEIÇÃO
+    // =============================================
+
+    public enum TipoPolitica { CALLER_RUNS, BLOQUEAR, DESCARTAR_MAIS_ANTIGA }
+
+    /**
+     * @param timeout usado só em BLOQUEAR
+     */
+    public record Politica(TipoPolitica tipo, Duration timeout) {
+
+        public static Politica callerRuns() {
+            return new Politica(TipoPolitica.CALLER_RUNS, Duration.ZERO);
+        }
+
+        /**
+         * Quem submete espera até 'timeout' por espaço na fila; depois disso,
+         * RejectedExecutionException.
+         */
+        public static Politica bloquearAte(Duration timeout) {
+            if (timeout.isNegative()) {
+                throw new IllegalArgumentException("Timeout não pode ser negativo");
+            }
+            return new Politica(TipoPolitica.BLOQUEAR, timeout);
+        }
+
+        /**
+         * A tarefa mais antiga da fila dá lugar à nova. Se ela veio de submit(),
+         * o Future é cancelado (quem espera no get() não fica preso).
+         */
+        public static Politica descartarMaisAntiga() {
+            return new Politica(TipoPolitica.DESCARTAR_MAIS_ANTIGA, Duration.ZERO);
+        }
+    }
+
+    // =============================================
+    // MÉTRICAS
+    // =============================================
+
+    public record Metricas(String nome, int profundidadeFila, int capacidadeFila, int threadsAtivas,
+                           int tamanhoPool, long concluidas, long rejeitadas, long descartadas,
+                           long executadasNoChamador, long falhas, LatencyHistogram.Resumo espera,
+                           LatencyHistogram.Resumo execucao) {
+
+        @Override
+        public String toString() {
+            return "📊 Pool '" + nome + "'\n"
+                    + "  📥 Fila: " + profundidadeFila + "/" + capacidadeFila
+                    + ", 🧵 ativas: " + threadsAtivas + "/" + tamanhoPool + "\n"
+                    + "  ✅ Concluídas: " + concluidas + ", ❌ falhas: " + falhas
+                    + ", 🚫 rejeitadas: " + rejeitadas + ", 🗑️ descartadas: " + descartadas
+                    + ", 🙋 no chamador: " + executadasNoChamador + "\n"
+                    + "  ⏳ Espera na fila: " + espera + "\n"
+                    + "  ⚙️ Execução: " + execucao;
+        }
+    }
+
+    /**
+     * Pool que imprime as métricas em System.out quando termina.
+     */
+    public static InstrumentedExecutor criar(String nome, int threads, int capacidadeFila, Politica politica) {
+        return new InstrumentedExecutor(nome, threads, capacidadeFila, politica, System.out::println);
+    }
+
+    /**
+     * @param aoTerminar recebe as métricas finais quando o pool termina (null = nada)
+     */
+    public InstrumentedExecutor(String nome, int threads, int capacidadeFila, Politica politica,
+                                Consumer<Metricas> aoTerminar) {
+        super(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(capacidadeFila));
+        this.nome = nome;
+        this.capacidadeFila = capacidadeFila;
+        this.politica = politica;
+        this.aoTerminar = aoTerminar;
+
+        AtomicInteger contador = new AtomicInteger();
+        setThreadFactory(r -> {
+            Thread t = new Thread(r, nome + "-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        setRejectedExecutionHandler(new Rejeicao());
+    }
+
+    public Metricas metricas() {
+        return new Metricas(nome, getQueue().size(), capacidadeFila, getActiveCount(), getPoolSize(),
+                getCompletedTaskCount(), rejeitadas.soma(), descartadas.soma(), executadasNoChamador.soma(),
+                falhas.soma(), espera.resumo(), execucao.resumo());
+    }
+
+    public String nome() {
+        return nome;
+    }
+
+    // =============================================
+    // INSTRUMENTAÇÃO
+    // =============================================
+
+    /**
+     * Toda tarefa entra embrulhada: o momento do execute() vai junto para
+     * medir quanto tempo ela ficou na fila.
+     */
+    @Override
+    public void execute(Runnable tarefa) {
+        super.execute(new Cronometrada(tarefa, System.nanoTime()));
+    }
+
+    private void reenviar(Runnable cronometrada) {
+        super.execute(cronometrada);
+    }
+
+    /**
+     * execute(): a exceção chega em 'erro'. submit(): o FutureTask guarda a exceção
+     * e 'erro' vem null - ela é lida do Future (como no javadoc do ThreadPoolExecutor).
+     */
+    @Override
+    protected void afterExecute(Runnable tarefa, Throwable erro) {
+        super.afterExecute(tarefa, erro);
+        contarFalha(tarefa, erro);
+    }
+
+    /**
+     * Usado pelo afterExecute() e pelo CALLER_RUNS, que roda a tarefa sem passar por ele.
+     */
+    private void contarFalha(Runnable tarefa, Throwable erro) {
+        Throwable falha = erro;
+        Runnable original = tarefa instanceof Cronometrada cronometrada ? cronometrada.tarefa : tarefa;
+        if (falha == null && original instanceof Future<?> future && future.isDone()) {
+            try {
+                future.get();
+            } catch (CancellationException e) {
+                // Cancelada não é falha
+            } catch (ExecutionException e) {
+                falha = e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (falha != null) {
+            falhas.incrementar();
+        }
+    }
+
+    @Override
+    protected void terminated() {
+        super.terminated();
+        if (aoTerminar != null) {
+            aoTerminar.accept(metricas());
+        }
+    }
+
+    private final class Cronometrada implements Runnable {
+        private final Runnable tarefa;
+        private final long enfileiradaEm;
+
+        Cronometrada(Runnable tarefa, long enfileiradaEm) {
+            this.tarefa = tarefa;
+            this.enfileiradaEm = enfileiradaEm;
+        }
+
+        @Override
+        public void run() {
+            long inicio = System.nanoTime();
+            espera.registrar(inicio - enfileiradaEm);
+            try {
+                tarefa.run();
+            } finally {
+                execucao.registrar(System.nanoTime() - inicio);
+            }
+        }
+    }
+
+    private final class Rejeicao implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable tarefa, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                rejeitadas.incrementar();
+                throw new RejectedExecutionException("Pool '" + nome + "' já foi encerrado");
+            }
+
+            switch (politica.tipo()) {
+                case CALLER_RUNS -> {
+                    executadasNoChamador.incrementar();
+                    Throwable erro = null;
+                    try {
+                        tarefa.run();
+                    } catch (RuntimeException | Error e) {
+                        erro = e;
+                        throw e;
+                    } finally {
+                        contarFalha(tarefa, erro);
+                    }
+                }
+                case BLOQUEAR -> {
+                    try {
+                        if (!executor.getQueue().offer(tarefa, politica.timeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                            rejeitadas.incrementar();
+                            throw new RejectedExecutionException("Fila do pool '" + nome + "' cheia por "
+                                    + politica.timeout().toMillis() + " ms");
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        rejeitadas.incrementar();
+                        throw new RejectedExecutionException("Interrompido aguardando a fila do pool '" + nome + "'", e);
+                    }
+                    // Encerrado enquanto esperava: a tarefa não pode ficar órfã na fila
+                    if (executor.isShutdown() && executor.remove(tarefa)) {
+                        rejeitadas.incrementar();
+                        throw new RejectedExecutionException("Pool '" + nome + "' já foi encerrado");
+                    }
+                }
+                case DESCARTAR_MAIS_ANTIGA -> {
+                    Runnable maisAntiga = executor.getQueue().poll();
+                    if (maisAntiga != null) {
+                        descartadas.incrementar();
+                        cancelar(maisAntiga);
+                    }
+                    // Já está embrulhada: não passa de novo pelo execute() cronometrado
+                    reenviar(tarefa);
+                }
+            }
+        }
+
+        private void cancelar(Runnable descartada) {
+            Runnable original = descartada instanceof Cronometrada cronometrada ? cronometrada.tarefa : descartada;
+            if (original instanceof Future<?> future) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    private static void dormir(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
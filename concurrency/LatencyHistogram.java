@@ -0,0 +1,111 @@
+package concurrency;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram.java - Histograma de Latências sem Lock
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Faixas em potências de 2 (em microssegundos) - 1 µs até 2^31 µs (~36 min) em
+ *   32 posições; a última começa em 2^30 µs (~18 min) e recebe tudo que passar disso
+ * - AtomicLongArray - várias threads registram ao mesmo tempo, sem synchronized
+ * - Percentis aproximados - o valor devolvido é o limite superior da faixa
+ *   (erro de no máximo 2x, suficiente para achar onde o tempo está indo)
+ * - Memória fixa - o histograma não cresce com o número de amostras
+ */
+public class LatencyHistogram {
+
+    private static final int FAIXAS = 32;
+
+    private final AtomicLongArray contagens = new AtomicLongArray(FAIXAS);
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maximoNanos = new AtomicLong();
+
+    /**
+     * Fotografia do histograma. Percentis e máximo em nanos.
+     */
+    public record Resumo(long contagem, long mediaNanos, long p50Nanos, long p90Nanos, long p99Nanos,
+                         long maximoNanos) {
+
+        @Override
+        public String toString() {
+            return String.format("n=%d média=%s p50≤%s p90≤%s p99≤%s máx=%s", contagem, formatar(mediaNanos),
+                    formatar(p50Nanos), formatar(p90Nanos), formatar(p99Nanos), formatar(maximoNanos));
+        }
+
+        private static String formatar(long nanos) {
+            if (nanos < 1_000_000) {
+                return String.format("%.0fµs", nanos / 1_000.0);
+            }
+            if (nanos < 1_000_000_000) {
+                return String.format("%.1fms", nanos / 1_000_000.0);
+            }
+            return String.format("%.2fs", nanos / 1_000_000_000.0);
+        }
+    }
+
+    public void registrar(long nanos) {
+        long valor = Math.max(0, nanos);
+        contagens.incrementAndGet(faixa(valor));
+        totalNanos.addAndGet(valor);
+        maximoNanos.accumulateAndGet(valor, Math::max);
+    }
+
+    public long contagem() {
+        long total = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            total += contagens.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Leitura sem parar quem registra: amostras concorrentes podem ou não entrar.
+     */
+    public Resumo resumo() {
+        long[] copia = new long[FAIXAS];
+        long contagem = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            copia[i] = contagens.get(i);
+            contagem += copia[i];
+        }
+        long maximo = maximoNanos.get();
+        return new Resumo(contagem, contagem == 0 ? 0 : totalNanos.get() / contagem,
+                percentil(copia, contagem, 0.50, maximo), percentil(copia, contagem, 0.90, maximo),
+                percentil(copia, contagem, 0.99, maximo), maximo);
+    }
+
+    @Override
+    public String toString() {
+        return resumo().toString();
+    }
+
+    // =============================================
+    // MÉTODOS AUXILIARES
+    // =============================================
+
+    /**
+     * Faixa 0: < 1 µs; faixa i: [2^(i-1), 2^i) µs.
+     */
+    private static int faixa(long nanos) {
+        long micros = nanos / 1_000;
+        return Math.min(FAIXAS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    private static long percentil(long[] contagens, long total, double fracao, long maximo) {
+        if (total == 0) {
+            return 0;
+        }
+        long alvo = (long) Math.ceil(total * fracao);
+        long acumulado = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= alvo) {
+                // Limite superior da faixa, sem passar do máximo observado
+                return Math.min(maximo, (1L << i) * 1_000);
+            }
+        }
+        return maximo;
+    }
+}
@@ -0,0 +1,228 @@
+package concurrency;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * ParallelMap.java - Map Paralelo com Janela Limitada e Resultados em Fluxo
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Janela limitada - no máximo N itens entre "enviado" e "entregue"; o Iterator
+ *   só é lido quando abre espaço, então milhões de itens cabem em memória constante
+ * - Ordem.ENTRADA - resultados saem na ordem dos itens (os adiantados esperam num
+ *   buffer que também conta na janela)
+ * - Ordem.CONCLUSAO - resultados saem assim que ficam prontos: um item lento não
+ *   segura os rápidos
+ * - O consumidor roda na thread que chamou mapear() - não precisa ser thread-safe
+ * - Erro num item vira Resultado com erro; os demais seguem
+ * - Cada item é um FutureTask: se o executor rejeitar ou cancelar o item (ex.:
+ *   InstrumentedExecutor com DESCARTAR_MAIS_ANTIGA), ele também vira Resultado com erro
+ *
+ * Substitui o padrão "submit de tudo, List<Future>, get() em ordem".
+ */
+public final class ParallelMap {
+
+    public enum Ordem { ENTRADA, CONCLUSAO }
+
+    /**
+     * @param indice posição do item na entrada (a partir de 0)
+     * @param erro   exceção lançada pela função, ou RejectedExecutionException /
+     *               CancellationException se o executor não rodou o item (valor fica null)
+     */
+    public record Resultado<T, R>(long indice, T item, R valor, Throwable erro) {
+
+        public boolean sucesso() {
+            return erro == null;
+        }
+    }
+
+    /**
+     * @param maximoPendentes maior número de itens simultaneamente enviados e não entregues
+     */
+    public record Relatorio(long itens, long falhas, int maximoPendentes, long duracaoNanos) {
+    }
+
+    private ParallelMap() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== PARALLEL MAP ===\n");
+
+        ExecutorService executor = BlockingExecutors.criar(BlockingExecutors.Modo.POOL_FIXO, 4);
+        try {
+            // 1. Item 0 lento: em ENTRADA ele segura a fila; em CONCLUSAO os outros passam
+            for (Ordem ordem : Ordem.values()) {
+                System.out.println("--- " + ordem + " ---");
+                long inicio = System.nanoTime();
+                mapear(IntStream.range(0, 8).boxed().iterator(), n -> {
+                    dormir(n == 0 ? 800 : 100);
+                    return n * n;
+                }, executor, 4, ordem, r -> System.out.printf("  item %d -> %d (%d ms)%n",
+                        r.indice(), r.valor(), (System.nanoTime() - inicio) / 1_000_000));
+            }
+
+            // 2. Um milhão de itens sem montar lista nenhuma
+            System.out.println("\n--- 1.000.000 ITENS, JANELA 256 ---");
+            long[] soma = {0};
+            Relatorio relatorio = mapear(IntStream.range(0, 1_000_000).boxed().iterator(),
+                    n -> n % 1_000 == 999 ? falhar(n) : (long) n * 2,
+                    executor, 256, Ordem.CONCLUSAO, r -> soma[0] += r.sucesso() ? r.valor() : 0);
+            System.out.printf("✅ %d itens, %d falhas, soma=%d, pico de pendentes=%d, %d ms%n", relatorio.itens(),
+                    relatorio.falhas(), soma[0], relatorio.maximoPendentes(), relatorio.duracaoNanos() / 1_000_000);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    public static <T, R> Relatorio mapear(Iterable<? extends T> itens, Function<? super T, ? extends R> funcao,
+                                          Executor executor, int janela, Ordem ordem,
+                                          Consumer<? super Resultado<T, R>> consumidor) throws InterruptedException {
+        return mapear(itens.iterator(), funcao, executor, janela, ordem, consumidor);
+    }
+
+    /**
+     * Aplica 'funcao' a cada item no 'executor' e entrega os resultados ao
+     * 'consumidor' conforme ficam prontos. Retorna quando todos foram entregues.
+     *
+     * Se a thread for interrompida, para de enviar e lança InterruptedException;
+     * os itens já enviados terminam no executor, mas não são entregues.
+     */
+    public static <T, R> Relatorio mapear(Iterator<? extends T> itens, Function<? super T, ? extends R> funcao,
+                                          Executor executor, int janela, Ordem ordem,
+                                          Consumer<? super Resultado<T, R>> consumidor) throws InterruptedException {
+        if (janela < 1) {
+            throw new IllegalArgumentException("Janela precisa ser >= 1: " + janela);
+        }
+        long inicio = System.nanoTime();
+
+        // Nunca passa de 'janela' elementos: cada envio reserva uma vaga até a entrega
+        BlockingQueue<Resultado<T, R>> prontos = new LinkedBlockingQueue<>();
+        Map<Long, Resultado<T, R>> adiantados = new HashMap<>();
+
+        long enviados = 0;
+        long entregues = 0;
+        long proximoEmOrdem = 0;
+        long falhas = 0;
+        int maximoPendentes = 0;
+
+        while (true) {
+            // ENCHER A JANELA
+            while (enviados - entregues < janela && itens.hasNext()) {
+                T item = itens.next();
+                long indice = enviados;
+                try {
+                    executor.execute(new Envio<>(indice, item, funcao, prontos));
+                } catch (RejectedExecutionException e) {
+                    prontos.add(new Resultado<>(indice, item, null, e));
+                }
+                enviados++;
+            }
+            maximoPendentes = (int) Math.max(maximoPendentes, enviados - entregues);
+            if (enviados == entregues) {
+                break;
+            }
+
+            // ESPERAR UM RESULTADO E ENTREGAR O QUE FOR POSSÍVEL
+            Resultado<T, R> pronto = prontos.take();
+            if (ordem == Ordem.CONCLUSAO) {
+                falhas += entregar(pronto, consumidor);
+                entregues++;
+                continue;
+            }
+            adiantados.put(pronto.indice(), pronto);
+            Resultado<T, R> proximo;
+            while ((proximo = adiantados.remove(proximoEmOrdem)) != null) {
+                falhas += entregar(proximo, consumidor);
+                entregues++;
+                proximoEmOrdem++;
+            }
+        }
+        return new Relatorio(entregues, falhas, maximoPendentes, System.nanoTime() - inicio);
+    }
+
+    // =============================================
+    // ENVIO DE UM ITEM
+    // =============================================
+
+    /**
+     * done() roda uma única vez, tenha o item terminado ou sido cancelado na fila
+     * do executor: todo item enviado chega em 'prontos'. Um executor que descarta
+     * sem cancelar o Future (ou que embrulha a tarefa antes) ainda prende mapear().
+     */
+    private static final class Envio<T, R> extends FutureTask<Resultado<T, R>> {
+        private final long indice;
+        private final T item;
+        private final BlockingQueue<Resultado<T, R>> prontos;
+
+        Envio(long indice, T item, Function<? super T, ? extends R> funcao, BlockingQueue<Resultado<T, R>> prontos) {
+            super(() -> aplicar(indice, item, funcao));
+            this.indice = indice;
+            this.item = item;
+            this.prontos = prontos;
+        }
+
+        @Override
+        protected void done() {
+            Resultado<T, R> resultado;
+            try {
+                resultado = get();
+            } catch (CancellationException e) {
+                resultado = new Resultado<>(indice, item, null, e);
+            } catch (ExecutionException e) {
+                resultado = new Resultado<>(indice, item, null, e.getCause());
+            } catch (InterruptedException e) {
+                // Impossível: em done() o get() não espera
+                Thread.currentThread().interrupt();
+                resultado = new Resultado<>(indice, item, null, e);
+            }
+            prontos.add(resultado);
+        }
+    }
+
+    // =============================================
+    // MÉTODOS AUXILIARES
+    // =============================================
+
+    /**
+     * Error também vira Resultado: se escapasse, o item nunca chegaria em 'prontos'
+     * e mapear() ficaria esperando para sempre.
+     */
+    private static <T, R> Resultado<T, R> aplicar(long indice, T item, Function<? super T, ? extends R> funcao) {
+        try {
+            return new Resultado<>(indice, item, funcao.apply(item), null);
+        } catch (RuntimeException | Error e) {
+            return new Resultado<>(indice, item, null, e);
+        }
+    }
+
+    private static <T, R> int entregar(Resultado<T, R> resultado, Consumer<? super Resultado<T, R>> consumidor) {
+        consumidor.accept(resultado);
+        return resultado.sucesso() ? 0 : 1;
+    }
+
+    private static long falhar(int n) {
+        throw new IllegalStateException("Item " + n + " falhou");
+    }
+
+    private static void dormir(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
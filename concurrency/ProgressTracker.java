@@ -0,0 +1,308 @@
+package concurrency;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ProgressTracker.java - Progresso de Muitas Transferências sem Travar os Workers
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Um slot atômico por transferência - o worker só faz um addAndGet no próprio
+ *   AtomicLong (sem disputa: cada slot tem um único escritor)
+ * - Uma única thread de relatório - amostra os slots numa taxa fixa e é a única
+ *   que escreve no console (o lock do PrintStream não serializa mais os workers)
+ * - Agregado por amostra - bytes totais, vazão, ETA e as transferências mais lentas
+ * - Registro sem lock - ConcurrentLinkedQueue; memória proporcional ao número de
+ *   transferências, não ao número de atualizações
+ *
+ * Uso:
+ *   try (ProgressTracker progresso = new ProgressTracker(Duration.ofMillis(500), System.out, 3)) {
+ *       ProgressTracker.Transferencia t = progresso.registrar("video.mp4", tamanho);
+ *       t.avancar(bytesLidos);   // no worker, quantas vezes quiser
+ *       t.concluir();
+ *   }
+ */
+public final class ProgressTracker implements AutoCloseable {
+
+    private final Duration intervalo;
+    private final PrintStream saida;
+    private final int quantidadeLentas;
+    private final long inicioNanos = System.nanoTime();
+    private final ConcurrentLinkedQueue<Transferencia> transferencias = new ConcurrentLinkedQueue<>();
+    private final Thread relator;
+
+    private volatile boolean encerrado;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== PROGRESS TRACKER ===\n");
+
+        // 2.000 downloads simultâneos; os workers nunca tocam no System.out
+        int downloads = 2_000;
+        ExecutorService executor = BlockingExecutors.criar(BlockingExecutors.doSistema(), 200);
+        try (ProgressTracker progresso = new ProgressTracker(Duration.ofMillis(500), System.out, 3)) {
+            for (int i = 0; i < downloads; i++) {
+                long tamanho = ThreadLocalRandom.current().nextLong(1, 20) * 1024 * 1024;
+                Transferencia transferencia = progresso.registrar("arquivo-" + i + ".bin", tamanho);
+                long pausaMs = ThreadLocalRandom.current().nextLong(1, 10);
+                executor.execute(() -> {
+                    for (long baixado = 0; baixado < tamanho; baixado += 512 * 1024) {
+                        dormir(pausaMs);
+                        transferencia.avancar(Math.min(512 * 1024, tamanho - baixado));
+                    }
+                    transferencia.concluir();
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * @param intervalo        período entre amostras
+     * @param saida            onde o relatório é impresso (só pela thread de relatório)
+     * @param quantidadeLentas quantas transferências lentas mostrar em cada linha
+     */
+    public ProgressTracker(Duration intervalo, PrintStream saida, int quantidadeLentas) {
+        this.intervalo = intervalo;
+        this.saida = saida;
+        this.quantidadeLentas = quantidadeLentas;
+        this.relator = new Thread(this::relatar, "progresso");
+        this.relator.setDaemon(true);
+        this.relator.start();
+    }
+
+    // =============================================
+    // TRANSFERÊNCIA (lado do worker)
+    // =============================================
+
+    /**
+     * Slot de uma transferência. Cada uma deve ser atualizada por um worker só.
+     */
+    public static final class Transferencia {
+        private final String nome;
+        private final long totalBytes;
+        private final AtomicLong bytes = new AtomicLong();
+        // Marcado no primeiro avancar(): tempo parado numa fila de executor não conta como lentidão
+        private volatile long inicioNanos;
+        private volatile long fimNanos;
+
+        // Só a thread de relatório lê e escreve
+        private boolean anunciada;
+
+        private Transferencia(String nome, long totalBytes) {
+            this.nome = nome;
+            this.totalBytes = totalBytes;
+        }
+
+        public void avancar(long bytesLidos) {
+            if (inicioNanos == 0) {
+                inicioNanos = System.nanoTime();
+            }
+            bytes.addAndGet(bytesLidos);
+        }
+
+        public void concluir() {
+            fimNanos = System.nanoTime();
+        }
+
+        public String nome() {
+            return nome;
+        }
+
+        public long bytes() {
+            return bytes.get();
+        }
+
+        public long totalBytes() {
+            return totalBytes;
+        }
+
+        public boolean concluida() {
+            return fimNanos != 0;
+        }
+
+        boolean iniciada() {
+            return inicioNanos != 0;
+        }
+
+        double bytesPorSegundo(long agora) {
+            long fim = fimNanos != 0 ? fimNanos : agora;
+            return bytes.get() / Math.max(1e-9, (fim - inicioNanos) / 1e9);
+        }
+    }
+
+    public Transferencia registrar(String nome, long totalBytes) {
+        Transferencia transferencia = new Transferencia(nome, totalBytes);
+        transferencias.add(transferencia);
+        return transferencia;
+    }
+
+    // =============================================
+    // AMOSTRA (lado do relatório)
+    // =============================================
+
+    public record Lenta(String nome, long bytes, long totalBytes, double bytesPorSegundo) {
+    }
+
+    /**
+     * @param etaNanos -1 enquanto nada foi transferido
+     */
+    public record Amostra(int transferencias, int concluidas, long bytes, long totalBytes,
+                          double bytesPorSegundo, long etaNanos, List<Lenta> maisLentas) {
+
+        @Override
+        public String toString() {
+            StringBuilder linha = new StringBuilder(String.format("📦 %d/%d | %s / %s (%.0f%%) | %s/s | ETA %s",
+                    concluidas, transferencias, formatarBytes(bytes), formatarBytes(totalBytes),
+                    totalBytes == 0 ? 100.0 : 100.0 * bytes / totalBytes, formatarBytes((long) bytesPorSegundo),
+                    etaNanos < 0 ? "?" : formatarDuracao(etaNanos)));
+            if (!maisLentas.isEmpty()) {
+                linha.append(" | 🐢");
+                for (Lenta lenta : maisLentas) {
+                    linha.append(String.format(" %s %.0f%% %s/s", lenta.nome(),
+                            lenta.totalBytes() == 0 ? 100.0 : 100.0 * lenta.bytes() / lenta.totalBytes(),
+                            formatarBytes((long) lenta.bytesPorSegundo())));
+                }
+            }
+            return linha.toString();
+        }
+    }
+
+    /**
+     * Lê todos os slots sem parar os workers (cada valor é consistente por si,
+     * o conjunto é aproximado). Vazão e ETA usam a média desde a criação.
+     */
+    public Amostra amostrar() {
+        long agora = System.nanoTime();
+        int total = 0;
+        int concluidas = 0;
+        long bytes = 0;
+        long totalBytes = 0;
+        // Heap de máximo pela vazão (congelada na leitura): guarda só as 'quantidadeLentas' menores
+        PriorityQueue<Lenta> lentas = new PriorityQueue<>(
+                Comparator.comparingDouble(Lenta::bytesPorSegundo).reversed());
+
+        for (Transferencia transferencia : transferencias) {
+            total++;
+            bytes += transferencia.bytes();
+            totalBytes += transferencia.totalBytes;
+            if (transferencia.concluida()) {
+                concluidas++;
+            } else if (quantidadeLentas > 0 && transferencia.iniciada()) {
+                double vazao = transferencia.bytesPorSegundo(agora);
+                if (lentas.size() < quantidadeLentas || vazao < lentas.peek().bytesPorSegundo()) {
+                    lentas.add(new Lenta(transferencia.nome, transferencia.bytes(), transferencia.totalBytes, vazao));
+                    if (lentas.size() > quantidadeLentas) {
+                        lentas.poll();
+                    }
+                }
+            }
+        }
+
+        List<Lenta> maisLentas = new ArrayList<>();
+        while (!lentas.isEmpty()) {
+            maisLentas.add(0, lentas.poll());
+        }
+
+        double segundos = Math.max(1e-9, (agora - inicioNanos) / 1e9);
+        double vazao = bytes / segundos;
+        long eta = bytes == 0 ? -1 : (long) (Math.max(0, totalBytes - bytes) / vazao * 1e9);
+        return new Amostra(total, concluidas, bytes, totalBytes, vazao, eta, maisLentas);
+    }
+
+    /**
+     * Para a thread de relatório e imprime a amostra final.
+     */
+    @Override
+    public void close() {
+        encerrado = true;
+        relator.interrupt();
+        try {
+            relator.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        anunciarConcluidas();
+        saida.println(amostrar() + " | ⏱️ " + formatarDuracao(System.nanoTime() - inicioNanos));
+    }
+
+    // =============================================
+    // THREAD DE RELATÓRIO
+    // =============================================
+
+    private void relatar() {
+        while (!encerrado) {
+            try {
+                Thread.sleep(intervalo.toMillis());
+            } catch (InterruptedException e) {
+                return;
+            }
+            anunciarConcluidas();
+            saida.println(amostrar());
+        }
+    }
+
+    /**
+     * Só roda na thread de relatório (ou no close(), depois do join()).
+     */
+    private void anunciarConcluidas() {
+        int novas = 0;
+        String ultima = null;
+        for (Transferencia transferencia : transferencias) {
+            if (transferencia.concluida() && !transferencia.anunciada) {
+                transferencia.anunciada = true;
+                novas++;
+                ultima = transferencia.nome;
+            }
+        }
+        // Com milhares de transferências, uma linha por conclusão viraria o novo gargalo
+        if (novas == 1) {
+            saida.println("✅ " + ultima + " concluído");
+        } else if (novas > 1) {
+            saida.println("✅ " + novas + " concluídos (último: " + ultima + ")");
+        }
+    }
+
+    // =============================================
+    // MÉTODOS AUXILIARES
+    // =============================================
+
+    private static String formatarBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        String[] unidades = {"KB", "MB", "GB", "TB"};
+        double valor = bytes;
+        int i = -1;
+        do {
+            valor /= 1024;
+            i++;
+        } while (valor >= 1024 && i < unidades.length - 1);
+        return String.format("%.1f %s", valor, unidades[i]);
+    }
+
+    private static String formatarDuracao(long nanos) {
+        long segundos = TimeUnit.NANOSECONDS.toSeconds(nanos);
+        if (segundos < 60) {
+            return String.format("%.1fs", nanos / 1e9);
+        }
+        return String.format("%dm%02ds", segundos / 60, segundos % 60);
+    }
+
+    private static void dormir(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
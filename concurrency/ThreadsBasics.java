@@ -1,5 +1,10 @@
 package concurrency;
 
+import concurrency.counters.StripedCounter;
+import concurrency.ratelimit.ConcurrencyLimiter;
+
+import java.time.Duration;
+
 /**
  * ThreadsBasics.java - Sintaxe de Threads em Java
  *
@@ -7,9 +12,8 @@ package concurrency;
  */
 public class ThreadsBasics {
 
-    // Variável compartilhada para demonstrar sincronização
-    private static int contador = 0;
-    private static final Object lock = new Object();
+    // Contador compartilhado: faixas por thread em vez de um único monitor
+    private static final StripedCounter contador = new StripedCounter();
 
     public static void main(String[] args) {
         System.out.println("=== THREADS BASICS - SINTAXE ===\n");
@@ -17,7 +21,7 @@ public class ThreadsBasics {
         // 1. CRIANDO THREADS - 3 formas
         demonstrarCriacaoThreads();
 
-        // 2. SINCRONIZAÇÃO - synchronized
+        // 2. SINCRONIZAÇÃO - contador compartilhado entre threads
         demonstrarSincronizacao();
 
         // 3. JOIN - Esperar thread terminar
@@ -55,7 +59,7 @@ public class ThreadsBasics {
     }
 
     /**
-     * --- SINCRONIZAÇÃO COM SYNCHRONIZED ---
+     * --- SINCRONIZAÇÃO: CONTADOR COMPARTILHADO SEM LOCK ---
      */
     private static void demonstrarSincronizacao() {
         System.out.println("\n--- SINCRONIZAÇÃO ---");
@@ -87,7 +91,7 @@ public class ThreadsBasics {
             }
         }
 
-        System.out.println("Contador final: " + contador + " (esperado: 5000)");
+        System.out.println("Contador final: " + contador.soma() + " (esperado: 5000)");
     }
 
     /**
@@ -122,28 +126,48 @@ public class ThreadsBasics {
         String[] arquivos = {"video.mp4", "musica.mp3", "documento.pdf", "imagem.jpg"};
         Thread[] downloads = new Thread[arquivos.length];
 
-        // Criar thread para cada download
-        for (int i = 0; i < arquivos.length; i++) {
-            final String arquivo = arquivos[i];
-            final int tamanho = (i + 1) * 500; // Tamanhos diferentes
-
-            downloads[i] = new Thread(() -> {
-                downloadArquivo(arquivo, tamanho);
-            });
-        }
+        // Servidor aceita no máximo 3 downloads simultâneos: o 4º espera uma vaga
+        ConcurrencyLimiter limitador = new ConcurrencyLimiter(3);
+
+        // Workers só publicam bytes; uma thread de relatório imprime a cada 250 ms
+        try (ProgressTracker progresso = new ProgressTracker(Duration.ofMillis(250), System.out, 2)) {
+
+            // Uma thread por download: virtual quando a JVM suporta (ver BlockingExecutors)
+            BlockingExecutors.Modo modo = BlockingExecutors.doSistema();
+            for (int i = 0; i < arquivos.length; i++) {
+                final String arquivo = arquivos[i];
+                final int tamanho = (i + 1) * 500; // Tamanhos diferentes
+                final ProgressTracker.Transferencia transferencia =
+                        progresso.registrar(arquivo, tamanho * 1024L * 1024L);
+
+                downloads[i] = BlockingExecutors.novaThread(modo, "download-" + arquivo, () -> {
+                    try {
+                        limitador.adquirir();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    try {
+                        downloadArquivo(transferencia);
+                    } finally {
+                        limitador.liberar();
+                    }
+                });
+            }
 
-        // Iniciar todos os downloads
-        System.out.println("Iniciando downloads...");
-        for (Thread download : downloads) {
-            download.start();
-        }
+            // Iniciar todos os downloads
+            System.out.println("Iniciando downloads...");
+            for (Thread download : downloads) {
+                download.start();
+            }
 
-        // Esperar todos terminarem
-        for (Thread download : downloads) {
-            try {
-                download.join();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+            // Esperar todos terminarem
+            for (Thread download : downloads) {
+                try {
+                    download.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
             }
         }
 
@@ -156,26 +180,30 @@ public class ThreadsBasics {
 
     /**
      * Incrementa contador de forma thread-safe
+     *
+     * Antes: synchronized (lock) { contador++; } - as 5 threads disputavam o
+     * mesmo monitor. O StripedCounter não usa lock (ver concurrency.counters.CounterBenchmark).
      */
     private static void incrementarContador() {
-        synchronized (lock) { // SINTAXE: synchronized(objeto)
-            contador++;
-        }
+        contador.incrementar();
     }
 
     /**
      * Simula download de arquivo
+     *
+     * Antes: um System.out.println por passo em cada worker - o lock do PrintStream
+     * serializava todos. Agora o worker só avança o próprio slot no ProgressTracker.
      */
-    private static void downloadArquivo(String nome, int tamanhoMB) {
-        System.out.println("Baixando " + nome + " (" + tamanhoMB + "MB)");
+    private static void downloadArquivo(ProgressTracker.Transferencia transferencia) {
+        long passo = transferencia.totalBytes() / 10;
 
         // Simular progresso
         for (int progresso = 10; progresso <= 100; progresso += 10) {
             dormir(100); // Simular tempo de download
-            System.out.println(nome + ": " + progresso + "%");
+            transferencia.avancar(progresso < 100 ? passo : transferencia.totalBytes() - 9 * passo);
         }
 
-        System.out.println("✅ " + nome + " baixado com sucesso!");
+        transferencia.concluir();
     }
 
     /**
@@ -0,0 +1,138 @@
+package concurrency;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * VirtualThreadBenchmark.java - Downloads Simulados: Pool Fixo x Thread por Tarefa x Virtual
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Carga bloqueante - cada "download" é um sleep, como esperar a rede
+ * - Latência por tarefa - do submit ao fim; p50/p99 mostram a fila do pool fixo
+ * - Memória - pico de heap usado (amostrado) e pico de threads de plataforma
+ * - Escala de 10 a 100.000 downloads simultâneos
+ *
+ * Combinações que levariam tempo demais (pool fixo com muita carga) ou que
+ * estourariam o limite de threads do SO (thread por tarefa acima de 10.000)
+ * são puladas e aparecem como "-". VIRTUAL precisa de Java 21+ (ver BlockingExecutors).
+ *
+ * Uso: java concurrency.VirtualThreadBenchmark [threadsPoolFixo] [duracaoDownloadMs]
+ */
+public class VirtualThreadBenchmark {
+
+    private static final int[] DOWNLOADS = {10, 100, 1_000, 10_000, 100_000};
+    private static final int MAXIMO_THREADS_PLATAFORMA = 10_000;
+    private static final long TEMPO_MAXIMO_ESTIMADO_MS = 20_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int threadsPool = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        long duracaoMs = args.length > 1 ? Long.parseLong(args[1]) : 100;
+
+        System.out.println("=== VIRTUAL THREAD BENCHMARK ===");
+        System.out.println("☕ Java " + Runtime.version().feature() + ", virtual threads: "
+                + (BlockingExecutors.virtuaisDisponiveis() ? "sim" : "não (precisa de Java 21+)"));
+        System.out.println("📥 Download simulado: " + duracaoMs + " ms, pool fixo: " + threadsPool + " threads\n");
+
+        System.out.printf("%-18s %9s %10s %10s %10s %12s %10s%n",
+                "modo", "downloads", "total ms", "p50 ms", "p99 ms", "heap pico MB", "threads");
+        for (int downloads : DOWNLOADS) {
+            for (BlockingExecutors.Modo modo : BlockingExecutors.Modo.values()) {
+                String motivo = motivoParaPular(modo, downloads, threadsPool, duracaoMs);
+                if (motivo != null) {
+                    System.out.printf("%-18s %9d %10s   (%s)%n", modo, downloads, "-", motivo);
+                    continue;
+                }
+                Medicao m = medir(modo, downloads, threadsPool, duracaoMs);
+                System.out.printf("%-18s %9d %10d %10d %10d %12.1f %10d%n", modo, downloads, m.totalMs(),
+                        m.p50Ms(), m.p99Ms(), m.heapPicoBytes() / (1024.0 * 1024.0), m.threadsPico());
+            }
+        }
+    }
+
+    private record Medicao(long totalMs, long p50Ms, long p99Ms, long heapPicoBytes, int threadsPico) {
+    }
+
+    private static String motivoParaPular(BlockingExecutors.Modo modo, int downloads, int threadsPool, long duracaoMs) {
+        if (modo == BlockingExecutors.Modo.VIRTUAL && !BlockingExecutors.virtuaisDisponiveis()) {
+            return "indisponível nesta JVM";
+        }
+        if (modo == BlockingExecutors.Modo.POOL_FIXO) {
+            long estimadoMs = (long) Math.ceil((double) downloads / threadsPool) * duracaoMs;
+            if (estimadoMs > TEMPO_MAXIMO_ESTIMADO_MS) {
+                return "estimado " + estimadoMs / 1000 + " s";
+            }
+        }
+        if (modo == BlockingExecutors.Modo.THREAD_POR_TAREFA && downloads > MAXIMO_THREADS_PLATAFORMA) {
+            return "threads de plataforma demais";
+        }
+        return null;
+    }
+
+    private static Medicao medir(BlockingExecutors.Modo modo, int downloads, int threadsPool, long duracaoMs)
+            throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.gc();
+        long heapBase = heapUsado();
+        threads.resetPeakThreadCount();
+
+        // Amostrador de heap: pico durante a execução
+        AtomicLong heapPico = new AtomicLong();
+        Thread amostrador = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                heapPico.accumulateAndGet(heapUsado(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "amostrador-heap");
+        amostrador.setDaemon(true);
+        amostrador.start();
+
+        long[] latencias = new long[downloads];
+        CountDownLatch concluidos = new CountDownLatch(downloads);
+        ExecutorService executor = BlockingExecutors.criar(modo, threadsPool);
+        long inicio = System.nanoTime();
+        try {
+            for (int i = 0; i < downloads; i++) {
+                final int id = i;
+                final long submetido = System.nanoTime();
+                executor.execute(() -> {
+                    try {
+                        Thread.sleep(duracaoMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    latencias[id] = System.nanoTime() - submetido;
+                    concluidos.countDown();
+                });
+            }
+            concluidos.await();
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        long totalMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        amostrador.interrupt();
+        amostrador.join();
+
+        Arrays.sort(latencias);
+        return new Medicao(totalMs,
+                latencias[(int) (downloads * 0.50)] / 1_000_000,
+                latencias[Math.min(downloads - 1, (int) (downloads * 0.99))] / 1_000_000,
+                Math.max(0, heapPico.get() - heapBase),
+                threads.getPeakThreadCount());
+    }
+
+    private static long heapUsado() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
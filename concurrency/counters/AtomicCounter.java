@@ -0,0 +1,39 @@
+package concurrency.counters;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AtomicCounter.java - Contador com Leitura Exata (AtomicLong)
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Sem lock - um getAndAdd (LOCK XADD no x86) por incremento
+ * - Leitura linearizável - soma() é sempre o valor exato naquele instante
+ * - Custo sob contenção - a linha de cache do valor passa de núcleo em núcleo
+ *
+ * Use quando a leitura precisa ser exata (ex.: limites, sequências);
+ * para contadores muito disputados, prefira StripedCounter.
+ */
+public class AtomicCounter implements Counter {
+
+    private final AtomicLong valor = new AtomicLong();
+
+    @Override
+    public void adicionar(long delta) {
+        valor.getAndAdd(delta);
+    }
+
+    @Override
+    public long soma() {
+        return valor.get();
+    }
+
+    @Override
+    public long somaEZerar() {
+        return valor.getAndSet(0);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(soma());
+    }
+}
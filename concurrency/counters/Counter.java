@@ -0,0 +1,31 @@
+package concurrency.counters;
+
+/**
+ * Counter.java - Contrato Comum dos Contadores Concorrentes
+ *
+ * Implementações:
+ * - AtomicCounter - um AtomicLong: leitura exata, mas todas as threads
+ *   disputam a mesma linha de cache
+ * - StripedCounter - faixas separadas por thread: escala com o número de
+ *   threads, leitura é um snapshot (soma das faixas)
+ */
+public interface Counter {
+
+    void adicionar(long delta);
+
+    default void incrementar() {
+        adicionar(1);
+    }
+
+    /**
+     * Valor atual. No StripedCounter, incrementos concorrentes à soma podem ou
+     * não entrar nela; com as threads paradas, o valor é exato.
+     */
+    long soma();
+
+    /**
+     * Lê e zera. Nenhum incremento se perde: cada um aparece em exatamente uma
+     * chamada (útil para exportar métricas por intervalo).
+     */
+    long somaEZerar();
+}
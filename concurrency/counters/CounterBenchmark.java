@@ -0,0 +1,203 @@
+package concurrency.counters;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * CounterBenchmark.java - Benchmark de Contenção: synchronized x AtomicLong x Faixas
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Mesmo total de incrementos, dividido entre 1, 2, 4, ... 64 threads
+ * - Largada simultânea (CountDownLatch) - todas as threads disputam ao mesmo tempo
+ * - Aquecimento antes de medir - o JIT compila todos os caminhos
+ * - Conferência - o total final precisa bater, senão o número não vale
+ *
+ * Benchmark simples com System.nanoTime(), sem JMH: serve para comparar ordens
+ * de grandeza na mesma máquina. Com poucos núcleos, as curvas quase não se separam.
+ *
+ * Uso: java concurrency.counters.CounterBenchmark [incrementosTotais]
+ */
+public class CounterBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+    private static final String[] ENDPOINTS = {"/api/pedidos", "/api/clientes", "/api/produtos", "/health"};
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== COUNTER BENCHMARK ===");
+        long total = args.length > 0 ? Long.parseLong(args[0]) : 8_000_000;
+        System.out.println("Processadores: " + Runtime.getRuntime().availableProcessors()
+                + ", incrementos por medição: " + total + "\n");
+
+        Map<String, Supplier<Counter>> contadores = new LinkedHashMap<>();
+        contadores.put("synchronized", SynchronizedCounter::new);
+        contadores.put("AtomicLong", AtomicCounter::new);
+        contadores.put("LongAdder", LongAdderCounter::new);
+        contadores.put("StripedCounter", StripedCounter::new);
+
+        // Aquecimento
+        for (Supplier<Counter> fabrica : contadores.values()) {
+            medirContador(fabrica.get(), 4, total / 4);
+        }
+
+        System.out.println("--- CONTADOR ÚNICO (milhões de incrementos/s) ---");
+        System.out.printf("%8s", "threads");
+        contadores.keySet().forEach(nome -> System.out.printf("%16s", nome));
+        System.out.println();
+        for (int threads : THREADS) {
+            System.out.printf("%8d", threads);
+            for (Supplier<Counter> fabrica : contadores.values()) {
+                System.out.printf("%16.1f", medirContador(fabrica.get(), threads, total));
+            }
+            System.out.println();
+        }
+
+        System.out.println("\n--- CONTADOR POR CHAVE (" + ENDPOINTS.length + " endpoints, milhões/s) ---");
+        System.out.printf("%8s%16s%16s%16s%n", "threads", "sync HashMap", "KCM exata", "KCM snapshot");
+        for (int threads : THREADS) {
+            System.out.printf("%8d%16.1f%16.1f%16.1f%n", threads,
+                    medirChaves(new SynchronizedKeyed(), threads, total),
+                    medirChaves(new KeyedCounterMap<String>(KeyedCounterMap.Leitura.EXATA)::incrementar, threads, total),
+                    medirChaves(new KeyedCounterMap<String>(KeyedCounterMap.Leitura.SNAPSHOT)::incrementar, threads, total));
+        }
+    }
+
+    // =============================================
+    // MEDIÇÃO
+    // =============================================
+
+    private interface IncrementoPorChave {
+        void incrementar(String chave);
+    }
+
+    private static double medirContador(Counter contador, int threads, long total) throws InterruptedException {
+        long porThread = total / threads;
+        double milhoesPorSegundo = medir(threads, porThread, id -> {
+            for (long i = 0; i < porThread; i++) {
+                contador.incrementar();
+            }
+        });
+        conferir(contador.soma(), porThread * threads);
+        return milhoesPorSegundo;
+    }
+
+    private static double medirChaves(IncrementoPorChave mapa, int threads, long total) throws InterruptedException {
+        long porThread = total / threads;
+        return medir(threads, porThread, id -> {
+            for (long i = 0; i < porThread; i++) {
+                mapa.incrementar(ENDPOINTS[(int) ((id + i) & (ENDPOINTS.length - 1))]);
+            }
+        });
+    }
+
+    private interface Trabalho {
+        void executar(int id);
+    }
+
+    private static double medir(int threads, long porThread, Trabalho trabalho) throws InterruptedException {
+        CountDownLatch largada = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            final int id = i;
+            workers[i] = new Thread(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                trabalho.executar(id);
+            }, "bench-" + i);
+            workers[i].start();
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long duracao = System.nanoTime() - inicio;
+        return porThread * threads * 1000.0 / duracao;
+    }
+
+    private static void conferir(long obtido, long esperado) {
+        if (obtido != esperado) {
+            throw new IllegalStateException("Contagem errada: " + obtido + " (esperado: " + esperado + ")");
+        }
+    }
+
+    // =============================================
+    // BASES DE COMPARAÇÃO
+    // =============================================
+
+    /**
+     * O incrementarContador() original do ThreadsBasics.
+     */
+    private static final class SynchronizedCounter implements Counter {
+        private final Object lock = new Object();
+        private long valor;
+
+        @Override
+        public void adicionar(long delta) {
+            synchronized (lock) {
+                valor += delta;
+            }
+        }
+
+        @Override
+        public long soma() {
+            synchronized (lock) {
+                return valor;
+            }
+        }
+
+        @Override
+        public long somaEZerar() {
+            synchronized (lock) {
+                long atual = valor;
+                valor = 0;
+                return atual;
+            }
+        }
+    }
+
+    private static final class LongAdderCounter implements Counter {
+        private final LongAdder valor = new LongAdder();
+
+        @Override
+        public void adicionar(long delta) {
+            valor.add(delta);
+        }
+
+        @Override
+        public long soma() {
+            return valor.sum();
+        }
+
+        /**
+         * sumThenReset() perderia incrementos concorrentes (zera célula por célula
+         * depois de ler); subtrair o que foi lido deixa os que chegaram no meio para a próxima.
+         */
+        @Override
+        public long somaEZerar() {
+            long total = valor.sum();
+            valor.add(-total);
+            return total;
+        }
+    }
+
+    /**
+     * Um lock para o mapa inteiro: o jeito que contamos requisições por endpoint hoje.
+     */
+    private static final class SynchronizedKeyed implements IncrementoPorChave {
+        private final Map<String, Long> mapa = new HashMap<>();
+
+        @Override
+        public synchronized void incrementar(String chave) {
+            mapa.merge(chave, 1L, Long::sum);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package concurrency.counters;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * KeyedCounterMap.java - Contadores por Chave sem Lock Global
+ *
+ * CONCEITOS IMPORTANTES:
+ * - ConcurrentHashMap de contadores - o mapa só é alterado quando aparece
+ *   uma chave nova; incrementos mexem apenas no contador da chave
+ * - get() antes de computeIfAbsent() - chave existente não trava o bin
+ * - Leitura EXATA (AtomicCounter) ou SNAPSHOT (StripedCounter) por chave
+ * - drenar() - lê e zera cada chave, sem perder incrementos entre exportações
+ *
+ * Uso típico: requisições por endpoint, erros por tipo, bytes por cliente.
+ */
+public class KeyedCounterMap<K> {
+
+    public enum Leitura { EXATA, SNAPSHOT }
+
+    private final ConcurrentHashMap<K, Counter> contadores = new ConcurrentHashMap<>();
+    private final Leitura leitura;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== KEYED COUNTER MAP ===\n");
+
+        KeyedCounterMap<String> requisicoes = new KeyedCounterMap<>();
+        String[] endpoints = {"/api/pedidos", "/api/clientes", "/api/produtos", "/health"};
+
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            final int id = i;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 100_000; j++) {
+                    requisicoes.incrementar(endpoints[(id + j) % endpoints.length]);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        requisicoes.snapshot().forEach((endpoint, total) -> System.out.println("📊 " + endpoint + ": " + total));
+        System.out.println("🔄 Drenado: " + requisicoes.drenar().values().stream().mapToLong(Long::longValue).sum()
+                + " requisições (esperado: 800000), depois: " + requisicoes.valor("/health"));
+    }
+
+    public KeyedCounterMap() {
+        this(Leitura.SNAPSHOT);
+    }
+
+    public KeyedCounterMap(Leitura leitura) {
+        this.leitura = leitura;
+    }
+
+    public void incrementar(K chave) {
+        contador(chave).adicionar(1);
+    }
+
+    public void adicionar(K chave, long delta) {
+        contador(chave).adicionar(delta);
+    }
+
+    /**
+     * Valor da chave (0 se ela nunca foi contada).
+     */
+    public long valor(K chave) {
+        Counter contador = contadores.get(chave);
+        return contador != null ? contador.soma() : 0;
+    }
+
+    /**
+     * Cópia dos valores atuais. Em modo SNAPSHOT, cada chave é lida sem parar os escritores.
+     */
+    public Map<K, Long> snapshot() {
+        Map<K, Long> copia = new HashMap<>();
+        contadores.forEach((chave, contador) -> copia.put(chave, contador.soma()));
+        return copia;
+    }
+
+    /**
+     * Lê e zera todas as chaves (as chaves continuam no mapa).
+     */
+    public Map<K, Long> drenar() {
+        Map<K, Long> copia = new HashMap<>();
+        contadores.forEach((chave, contador) -> copia.put(chave, contador.somaEZerar()));
+        return copia;
+    }
+
+    public int tamanho() {
+        return contadores.size();
+    }
+
+    private Counter contador(K chave) {
+        Counter contador = contadores.get(chave);
+        if (contador == null) {
+            contador = contadores.computeIfAbsent(chave,
+                    k -> leitura == Leitura.EXATA ? new AtomicCounter() : new StripedCounter());
+        }
+        return contador;
+    }
+}
@@ -0,0 +1,153 @@
+package concurrency.counters;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * StripedCounter.java - Contador em Faixas (Estilo LongAdder)
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Base + faixas - sem disputa, só o 'base' é usado (8 bytes por contador);
+ *   na primeira falha de CAS, as faixas são criadas
+ * - Faixa por thread - escolhida por uma sonda aleatória da thread; se o CAS na
+ *   faixa falha, a thread sorteia outra sonda (rehash, como o LongAdder) e duas
+ *   threads que caíram na mesma faixa não ficam disputando para sempre
+ * - Espaçamento de 128 bytes - evita false sharing entre faixas vizinhas
+ *   (inclusive com o prefetch de linhas adjacentes)
+ * - Leitura é snapshot - soma() percorre as faixas sem parar os escritores
+ *
+ * Substitui o synchronized(lock) { contador++ } do ThreadsBasics: o incremento
+ * nunca bloqueia, e o custo da contenção é pago só na leitura.
+ */
+public class StripedCounter implements Counter {
+
+    /** Longs entre uma faixa e a próxima: 16 * 8 = 128 bytes. */
+    private static final int ESPACAMENTO = 16;
+
+    // Sonda da thread, comum a todos os contadores (o LongAdder usa a do ThreadLocalRandom,
+    // que não é acessível fora do JDK). Nunca é zero: o xorshift de zero daria sempre zero
+    private static final ThreadLocal<int[]> SONDA =
+            ThreadLocal.withInitial(() -> new int[]{ThreadLocalRandom.current().nextInt() | 1});
+
+    private final AtomicLong base = new AtomicLong();
+    private final int mascara;
+    private volatile AtomicLongArray faixas;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== STRIPED COUNTER ===\n");
+
+        StripedCounter contador = new StripedCounter();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1_000_000; j++) {
+                    contador.incrementar();
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        System.out.println("🔢 Soma: " + contador.soma() + " (esperado: 8000000)");
+        System.out.println("🧩 Faixas criadas: " + (contador.faixas != null ? contador.numeroFaixas() : 0));
+        System.out.println("🔄 somaEZerar: " + contador.somaEZerar() + ", depois: " + contador.soma());
+    }
+
+    /**
+     * Quatro faixas por processador: colisões de hash ficam raras.
+     */
+    public StripedCounter() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * @param faixas número de faixas (arredondado para potência de 2)
+     */
+    public StripedCounter(int faixas) {
+        if (faixas <= 0) {
+            throw new IllegalArgumentException("Número de faixas deve ser positivo");
+        }
+        int potencia = faixas == 1 ? 1 : Integer.highestOneBit(faixas - 1) << 1;
+        this.mascara = potencia - 1;
+    }
+
+    @Override
+    public void adicionar(long delta) {
+        AtomicLongArray atuais = faixas;
+        if (atuais == null) {
+            // Caminho sem disputa: um CAS no base. Falhou = há contenção, cria as faixas
+            long valor = base.get();
+            if (base.compareAndSet(valor, valor + delta)) {
+                return;
+            }
+            atuais = criarFaixas();
+        }
+
+        int[] sonda = SONDA.get();
+        int indice = (sonda[0] & mascara) * ESPACAMENTO;
+        long valor = atuais.get(indice);
+        if (!atuais.compareAndSet(indice, valor, valor + delta)) {
+            // Outra thread na mesma faixa: muda de faixa e soma lá (getAndAdd não falha)
+            sonda[0] = proximaSonda(sonda[0]);
+            atuais.getAndAdd((sonda[0] & mascara) * ESPACAMENTO, delta);
+        }
+    }
+
+    @Override
+    public long soma() {
+        long total = base.get();
+        AtomicLongArray atuais = faixas;
+        if (atuais != null) {
+            for (int i = 0; i < atuais.length(); i += ESPACAMENTO) {
+                total += atuais.get(i);
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public long somaEZerar() {
+        long total = base.getAndSet(0);
+        AtomicLongArray atuais = faixas;
+        if (atuais != null) {
+            for (int i = 0; i < atuais.length(); i += ESPACAMENTO) {
+                total += atuais.getAndSet(i, 0);
+            }
+        }
+        return total;
+    }
+
+    public int numeroFaixas() {
+        return mascara + 1;
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(soma());
+    }
+
+    // =============================================
+    // MÉTODOS AUXILIARES
+    // =============================================
+
+    private synchronized AtomicLongArray criarFaixas() {
+        // Executado no máximo uma vez por contador
+        if (faixas == null) {
+            faixas = new AtomicLongArray(numeroFaixas() * ESPACAMENTO);
+        }
+        return faixas;
+    }
+
+    /**
+     * Xorshift (o mesmo passo do advanceProbe do LongAdder).
+     */
+    private static int proximaSonda(int sonda) {
+        sonda ^= sonda << 13;
+        sonda ^= sonda >>> 17;
+        sonda ^= sonda << 5;
+        return sonda;
+    }
+}
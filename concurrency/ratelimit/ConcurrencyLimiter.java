@@ -0,0 +1,161 @@
+package concurrency.ratelimit;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ConcurrencyLimiter.java - No Máximo N em Andamento (Semáforo sem Lock)
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Vagas num AtomicInteger - tentarAdquirir() é um laço de CAS
+ * - Espera assíncrona - quem não conseguiu vaga vira um CompletableFuture numa
+ *   ConcurrentLinkedQueue; nenhuma thread fica parada esperando
+ * - Passagem de vaga - liberar() devolve a vaga e drena a fila; quem entra na
+ *   fila também drena, então nenhuma vaga se perde entre os dois
+ * - Concessão no executor de concessões - quem chama liberar() é um worker; se
+ *   ele concluísse a espera, os callbacks (ex.: limitar() repassando para um pool
+ *   com BLOQUEAR e fila cheia) o prenderiam até o timeout
+ * - Esperas canceladas são puladas e a vaga segue para o próximo
+ *
+ * Sem ordem estrita: um tentarAdquirir() pode passar na frente da fila.
+ */
+public class ConcurrencyLimiter implements Limiter {
+
+    private final int maximo;
+    private final AtomicInteger disponiveis;
+    private final ConcurrentLinkedQueue<CompletableFuture<Void>> aguardando = new ConcurrentLinkedQueue<>();
+    private final Executor concessoes;
+
+    // Padrão: threads daemon sob demanda - um callback que bloqueia prende só a própria thread
+    private static final ExecutorService CONCESSOES_PADRAO = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "concurrency-limiter-concessao");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== CONCURRENCY LIMITER ===\n");
+
+        // Pool de 16 threads, mas o "backend" só aceita 3 chamadas simultâneas
+        ConcurrencyLimiter limitador = new ConcurrencyLimiter(3);
+        AtomicInteger emAndamento = new AtomicInteger();
+        AtomicInteger pico = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            CompletableFuture<?>[] chamadas = new CompletableFuture<?>[30];
+            for (int i = 0; i < chamadas.length; i++) {
+                chamadas[i] = limitador.executarAsync(() -> {
+                    pico.accumulateAndGet(emAndamento.incrementAndGet(), Math::max);
+                    dormir(50);
+                    return emAndamento.decrementAndGet();
+                }, pool);
+            }
+            System.out.println("⏳ Aguardando vaga: " + limitador.aguardando());
+            CompletableFuture.allOf(chamadas).join();
+            System.out.println("✅ 30 chamadas, pico simultâneo: " + pico.get() + " (limite 3), em uso agora: "
+                    + limitador.emUso());
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    public ConcurrencyLimiter(int maximo) {
+        this(maximo, CONCESSOES_PADRAO);
+    }
+
+    /**
+     * @param concessoes onde as esperas são concluídas (e seus callbacks síncronos rodam)
+     */
+    public ConcurrencyLimiter(int maximo, Executor concessoes) {
+        if (maximo < 1) {
+            throw new IllegalArgumentException("Máximo precisa ser >= 1: " + maximo);
+        }
+        this.maximo = maximo;
+        this.disponiveis = new AtomicInteger(maximo);
+        this.concessoes = Objects.requireNonNull(concessoes, "Executor de concessões não pode ser null");
+    }
+
+    @Override
+    public boolean tentarAdquirir() {
+        int atual;
+        do {
+            atual = disponiveis.get();
+            if (atual == 0) {
+                return false;
+            }
+        } while (!disponiveis.compareAndSet(atual, atual - 1));
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Void> adquirirAsync() {
+        if (tentarAdquirir()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> vaga = new CompletableFuture<>();
+        aguardando.add(vaga);
+        // Uma vaga pode ter sido liberada entre o tentarAdquirir() e o add()
+        drenar();
+        return vaga;
+    }
+
+    @Override
+    public void liberar() {
+        disponiveis.incrementAndGet();
+        drenar();
+    }
+
+    public int emUso() {
+        return maximo - disponiveis.get();
+    }
+
+    /**
+     * Esperas na fila (inclui canceladas ainda não puladas).
+     */
+    public int aguardando() {
+        return aguardando.size();
+    }
+
+    /**
+     * Enquanto houver fila e vaga, reserva a vaga para o próximo e agenda a
+     * conclusão no executor de concessões: os callbacks síncronos do future
+     * nunca rodam na thread que chamou liberar().
+     */
+    private void drenar() {
+        while (!aguardando.isEmpty() && tentarAdquirir()) {
+            CompletableFuture<Void> proximo = aguardando.poll();
+            // Outra thread esvaziou a fila, ou a espera foi cancelada: a vaga volta
+            if (proximo == null || proximo.isDone()) {
+                disponiveis.incrementAndGet();
+                continue;
+            }
+            try {
+                concessoes.execute(() -> {
+                    // Cancelada depois de sair da fila: devolve (e passa adiante) a vaga
+                    if (!proximo.complete(null)) {
+                        liberar();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                proximo.completeExceptionally(e);
+                disponiveis.incrementAndGet();
+            }
+        }
+    }
+
+    private static void dormir(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
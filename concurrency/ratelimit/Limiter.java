@@ -0,0 +1,171 @@
+package concurrency.ratelimit;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Limiter.java - Contrato Comum dos Limitadores
+ *
+ * Implementações:
+ * - TokenBucketLimiter - N requisições por segundo, com rajada (estado = um AtomicLong)
+ * - ConcurrencyLimiter - no máximo N em andamento ao mesmo tempo (semáforo sem lock)
+ *
+ * Toda vaga obtida (tentarAdquirir() true, adquirir(), adquirirAsync() concluído)
+ * deve ser devolvida com liberar(); os métodos limitar()/executarAsync() já fazem isso.
+ */
+public interface Limiter {
+
+    /**
+     * Não bloqueia: true se conseguiu a vaga agora.
+     */
+    boolean tentarAdquirir();
+
+    /**
+     * Future concluído quando a vaga for concedida. Cancelar o future desiste
+     * da espera. Callbacks síncronos (thenRun...) rodam na thread que concedeu
+     * a vaga - para trabalho de verdade, use as variantes *Async com um executor.
+     */
+    CompletableFuture<Void> adquirirAsync();
+
+    void liberar();
+
+    /**
+     * Bloqueia até conseguir a vaga.
+     */
+    default void adquirir() throws InterruptedException {
+        CompletableFuture<Void> vaga = adquirirAsync();
+        try {
+            vaga.get();
+        } catch (InterruptedException e) {
+            // Se a vaga chegou junto com a interrupção, ela volta para o limitador
+            // (uma concessão que falhou não ocupou vaga nenhuma)
+            if (!vaga.cancel(false) && !vaga.isCompletedExceptionally()) {
+                liberar();
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao adquirir vaga", e.getCause());
+        }
+    }
+
+    // =============================================
+    // EMBRULHOS
+    // =============================================
+
+    /**
+     * Callable que espera a vaga (bloqueando), executa e devolve a vaga.
+     */
+    default <T> Callable<T> limitar(Callable<T> tarefa) {
+        return () -> {
+            adquirir();
+            try {
+                return tarefa.call();
+            } finally {
+                liberar();
+            }
+        };
+    }
+
+    /**
+     * Executor que só repassa a tarefa para 'executor' depois de obter a vaga,
+     * sem bloquear quem chama execute(). Com vaga livre, a rejeição do executor
+     * chega a quem chamou. Depois de uma espera, quem chamou já voltou: se a
+     * tarefa for um Future (submit(), FutureTask) ela é cancelada, e quem espera
+     * por ela vê o cancelamento; senão a rejeição vai para o UncaughtExceptionHandler.
+     */
+    default Executor limitar(Executor executor) {
+        return limitar(executor, (tarefa, rejeicao) -> {
+            if (tarefa instanceof Future<?> future) {
+                future.cancel(false);
+            } else {
+                Thread atual = Thread.currentThread();
+                atual.getUncaughtExceptionHandler().uncaughtException(atual, rejeicao);
+            }
+        });
+    }
+
+    /**
+     * Como limitar(Executor), mas 'aoRejeitar' recebe a tarefa e a rejeição
+     * quando o executor a recusa depois da espera pela vaga (ou a vaga falha).
+     */
+    default Executor limitar(Executor executor,
+                             BiConsumer<? super Runnable, ? super RejectedExecutionException> aoRejeitar) {
+        return tarefa -> {
+            CompletableFuture<Void> vaga = adquirirAsync();
+            if (vaga.isDone() && !vaga.isCompletedExceptionally()) {
+                repassar(executor, tarefa);
+                return;
+            }
+            vaga.whenComplete((v, erroVaga) -> {
+                if (erroVaga != null) {
+                    RejectedExecutionException rejeicao = new RejectedExecutionException("Vaga não concedida", erroVaga);
+                    aoRejeitar.accept(tarefa, rejeicao);
+                    return;
+                }
+                try {
+                    repassar(executor, tarefa);
+                } catch (RejectedExecutionException e) {
+                    aoRejeitar.accept(tarefa, e);
+                }
+            });
+        };
+    }
+
+    /**
+     * Para pipelines de CompletableFuture: espera a vaga sem ocupar thread,
+     * roda 'tarefa' em 'executor' e devolve a vaga. Cancelar o resultado
+     * antes da vaga chegar desiste da espera.
+     */
+    default <T> CompletableFuture<T> executarAsync(Supplier<? extends T> tarefa, Executor executor) {
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        CompletableFuture<Void> vaga = adquirirAsync();
+        resultado.whenComplete((valor, erro) -> vaga.cancel(false));
+
+        vaga.whenComplete((v, erroVaga) -> {
+            if (erroVaga != null) {
+                resultado.completeExceptionally(erroVaga);
+                return;
+            }
+            if (resultado.isDone()) {
+                liberar();
+                return;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        resultado.complete(tarefa.get());
+                    } catch (RuntimeException | Error e) {
+                        resultado.completeExceptionally(e);
+                    } finally {
+                        liberar();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                liberar();
+                resultado.completeExceptionally(e);
+            }
+        });
+        return resultado;
+    }
+
+    private void repassar(Executor executor, Runnable tarefa) {
+        try {
+            executor.execute(() -> {
+                try {
+                    tarefa.run();
+                } finally {
+                    liberar();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            liberar();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package concurrency.ratelimit;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TokenBucketLimiter.java - Requisições por Segundo com Rajada
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Token bucket guardado como um único instante (GCRA) - em vez de "tokens"
+ *   + "último refill", o estado é o momento em que o balde estará cheio de novo
+ * - Um CAS por aquisição - sem lock e sem thread de refill
+ * - Rajada - até 'rajada' requisições passam de uma vez depois de um período parado
+ * - Reserva - adquirirAsync() já reserva o token e agenda a conclusão
+ *   (CompletableFuture.delayedExecutor), sem ocupar thread esperando
+ * - Concessão fora do agendador do JDK - a vaga é concluída no executor de
+ *   concessões; os callbacks (ex.: limitar() repassando para um pool que bloqueia)
+ *   nunca param a thread única que serve todos os orTimeout()/delayedExecutor() da JVM
+ *
+ * Cada vaga é consumida ao ser concedida: liberar() não devolve nada aqui, e
+ * um adquirirAsync() cancelado perde o token reservado.
+ */
+public class TokenBucketLimiter implements Limiter {
+
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final Executor concessoes;
+
+    // Padrão: threads daemon sob demanda - um callback que bloqueia prende só a própria thread
+    private static final ExecutorService CONCESSOES_PADRAO = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "token-bucket-concessao");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Instante teórico (nanoTime) em que a próxima requisição seria "pontual"
+    private final AtomicLong proximaChegada = new AtomicLong(System.nanoTime());
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== TOKEN BUCKET LIMITER ===\n");
+
+        // 20 req/s com rajada de 5: as 5 primeiras passam juntas, o resto a cada 50 ms
+        TokenBucketLimiter limitador = new TokenBucketLimiter(20, 5);
+        int passaram = 0;
+        for (int i = 0; i < 10; i++) {
+            if (limitador.tentarAdquirir()) {
+                passaram++;
+            }
+        }
+        System.out.println("⚡ tentarAdquirir() x10 seguidos: " + passaram + " passaram (rajada)");
+
+        // 40 requisições assíncronas: nenhuma thread fica esperando o token
+        long inicio = System.nanoTime();
+        CountDownLatch concluidas = new CountDownLatch(40);
+        AtomicInteger noPrimeiroSegundo = new AtomicInteger();
+        for (int i = 0; i < 40; i++) {
+            limitador.adquirirAsync().thenRun(() -> {
+                if (System.nanoTime() - inicio < 1_000_000_000L) {
+                    noPrimeiroSegundo.incrementAndGet();
+                }
+                concluidas.countDown();
+            });
+        }
+        concluidas.await();
+        System.out.printf("🪣 40 adquirirAsync(): %d no primeiro segundo, todas em %d ms (esperado ~2000)%n",
+                noPrimeiroSegundo.get(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * @param porSegundo taxa sustentada
+     * @param rajada     quantas requisições podem passar de uma vez (tamanho do balde)
+     */
+    public TokenBucketLimiter(double porSegundo, int rajada) {
+        this(porSegundo, rajada, CONCESSOES_PADRAO);
+    }
+
+    /**
+     * @param concessoes onde as vagas adiadas são concluídas (e seus callbacks síncronos rodam)
+     */
+    public TokenBucketLimiter(double porSegundo, int rajada, Executor concessoes) {
+        if (porSegundo <= 0 || rajada < 1) {
+            throw new IllegalArgumentException("Taxa precisa ser > 0 e rajada >= 1");
+        }
+        this.intervaloNanos = Math.max(1, (long) (1_000_000_000L / porSegundo));
+        this.toleranciaNanos = intervaloNanos * (rajada - 1);
+        this.concessoes = Objects.requireNonNull(concessoes, "Executor de concessões não pode ser null");
+    }
+
+    @Override
+    public boolean tentarAdquirir() {
+        while (true) {
+            long agora = System.nanoTime();
+            long atual = proximaChegada.get();
+            long base = Math.max(atual, agora);
+            // Mais de 'rajada - 1' intervalos adiantados: balde vazio
+            if (base - agora > toleranciaNanos) {
+                return false;
+            }
+            if (proximaChegada.compareAndSet(atual, base + intervaloNanos)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> adquirirAsync() {
+        long esperaNanos = reservar();
+        if (esperaNanos <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> vaga = new CompletableFuture<>();
+        // O agendador do JDK só dispara; a conclusão (e os callbacks) roda em 'concessoes'
+        Executor conceder = tarefa -> {
+            try {
+                concessoes.execute(tarefa);
+            } catch (RejectedExecutionException e) {
+                vaga.completeExceptionally(e);
+            }
+        };
+        CompletableFuture.delayedExecutor(esperaNanos, TimeUnit.NANOSECONDS, conceder)
+                .execute(() -> vaga.complete(null));
+        return vaga;
+    }
+
+    /**
+     * Sem efeito: o token foi consumido na aquisição.
+     */
+    @Override
+    public void liberar() {
+    }
+
+    /**
+     * Tokens disponíveis agora (aproximado: outras threads podem estar consumindo).
+     */
+    public int disponiveis() {
+        long adiantado = Math.max(0, proximaChegada.get() - System.nanoTime());
+        if (adiantado > toleranciaNanos) {
+            return 0;
+        }
+        return (int) ((toleranciaNanos - adiantado) / intervaloNanos + 1);
+    }
+
+    /**
+     * Reserva o próximo token, mesmo que ainda não exista.
+     *
+     * @return quanto esperar até ele valer (<= 0: já vale)
+     */
+    private long reservar() {
+        while (true) {
+            long agora = System.nanoTime();
+            long atual = proximaChegada.get();
+            long base = Math.max(atual, agora);
+            if (proximaChegada.compareAndSet(atual, base + intervaloNanos)) {
+                return base - agora - toleranciaNanos;
+            }
+        }
+    }
+}
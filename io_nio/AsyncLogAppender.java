@@ -0,0 +1,481 @@
+package io_nio;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AsyncLogAppender.java - Appender de Log Assíncrono com Buffer
+ *
+ * CONCEITOS IMPORTANTES:
+ * - FileChannel aberto uma única vez - sem open/close por linha
+ * - BlockingQueue limitada - várias threads produzem, uma thread escreve
+ * - ByteBuffer direto - as entradas são agrupadas antes de ir para o disco
+ * - CachedTimestampFormatter - timestamp formatado uma vez por segundo, em bytes
+ * - Políticas de flush - a cada N entradas, a cada T ms ou só no fechamento
+ * - AutoCloseable - use com try-with-resources para não perder entradas
+ * - Rotação opcional (LogRotator) - feita pela própria thread escritora
+ * - Índice opcional (LogTimestampIndex) - offsets registrados enquanto escreve
+ *
+ * - Formato binário opcional (BinaryLogFormat) - registros com prefixo de tamanho
+ *
+ * Formato de saída igual ao escreverLog(): "yyyy-MM-dd HH:mm:ss [NIVEL] mensagem"
+ */
+public class AsyncLogAppender implements AutoCloseable {
+
+    private static final byte[] QUEBRA_LINHA = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ABRE_NIVEL = " [".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FECHA_NIVEL = "] ".getBytes(StandardCharsets.US_ASCII);
+    private static final LogLevel[] NIVEIS = LogLevel.values();
+
+    public static final int CAPACIDADE_FILA_PADRAO = 8192;
+    public static final int TAMANHO_BUFFER_PADRAO = 64 * 1024;
+
+    private final Path arquivo;
+    private final ByteBuffer buffer;
+    private final BlockingQueue<Entrada> fila;
+    private final PoliticaFlush politica;
+    private final Thread escritor;
+    private final LogRotator rotator;
+    private final LogTimestampIndex indice;
+    private final Formato formato;
+
+    private volatile boolean fechado = false;
+    private volatile IOException erro;
+    private volatile long entradasEscritas = 0;
+
+    // Estado usado apenas pela thread escritora
+    private FileChannel canal;
+    private int entradasDesdeFlush = 0;
+    private long ultimoFlush = System.currentTimeMillis();
+    private long tamanhoSegmento;
+    private long segmentoAbertoEm;
+    private long ultimoTimestamp = Long.MIN_VALUE;
+    private final CachedTimestampFormatter timestamps = new CachedTimestampFormatter();
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== ASYNC LOG APPENDER ===\n");
+
+        Path logFile = Paths.get("teste-appender.log");
+
+        // Várias threads escrevendo ao mesmo tempo no MESMO arquivo
+        try (AsyncLogAppender appender = new AsyncLogAppender(logFile, CAPACIDADE_FILA_PADRAO,
+                TAMANHO_BUFFER_PADRAO, PoliticaFlush.aCadaEntradasOuMillis(1000, 200))) {
+
+            Thread[] produtores = new Thread[4];
+            for (int i = 0; i < produtores.length; i++) {
+                final int id = i;
+                produtores[i] = new Thread(() -> {
+                    try {
+                        for (int j = 0; j < 25_000; j++) {
+                            appender.append("INFO", "Produtor " + id + " - evento " + j);
+                        }
+                    } catch (IOException e) {
+                        System.out.println("❌ Erro: " + e.getMessage());
+                    }
+                });
+            }
+
+            long inicio = System.nanoTime();
+            for (Thread t : produtores) t.start();
+            for (Thread t : produtores) t.join();
+            appender.flush();
+            long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+            System.out.println("📝 Entradas escritas: " + appender.entradasEscritas());
+            System.out.println("⏱️ Tempo: " + duracaoMs + " ms");
+        }
+
+        System.out.println("📊 Tamanho do arquivo: " + Files.size(logFile) + " bytes");
+        Files.delete(logFile);
+    }
+
+    /**
+     * TEXTO: linhas iguais às do escreverLog(). BINARIO: registros do
+     * BinaryLogFormat, lidos com o BinaryLogReader (só níveis do LogLevel).
+     */
+    public enum Formato { TEXTO, BINARIO }
+
+    /**
+     * Política de flush do buffer para o canal.
+     * Zero em um dos campos significa "critério desligado";
+     * o fechamento do appender sempre faz flush.
+     */
+    public record PoliticaFlush(int aCadaEntradas, long aCadaMillis) {
+
+        public PoliticaFlush {
+            if (aCadaEntradas < 0 || aCadaMillis < 0) {
+                throw new IllegalArgumentException("Critérios de flush não podem ser negativos");
+            }
+        }
+
+        public static PoliticaFlush aCadaEntradas(int entradas) {
+            return new PoliticaFlush(entradas, 0);
+        }
+
+        public static PoliticaFlush aCadaMillis(long millis) {
+            return new PoliticaFlush(0, millis);
+        }
+
+        public static PoliticaFlush aCadaEntradasOuMillis(int entradas, long millis) {
+            return new PoliticaFlush(entradas, millis);
+        }
+
+        public static PoliticaFlush apenasNoFechamento() {
+            return new PoliticaFlush(0, 0);
+        }
+    }
+
+    /**
+     * Entrada na fila. Quando 'sinal' não é null, é um pedido de flush
+     * (e 'nivel' é null); o escritor libera o sinal depois de esvaziar o buffer.
+     */
+    private record Entrada(long timestampMillis, String nivel, String mensagem, CountDownLatch sinal) {
+    }
+
+    /** Marcador de fim: o escritor drena tudo que veio antes dele e termina. */
+    private static final Entrada FIM = new Entrada(0, null, null, null);
+
+    public AsyncLogAppender(Path arquivo) throws IOException {
+        this(arquivo, CAPACIDADE_FILA_PADRAO, TAMANHO_BUFFER_PADRAO, PoliticaFlush.aCadaMillis(1000));
+    }
+
+    public AsyncLogAppender(Path arquivo, int capacidadeFila, int tamanhoBuffer,
+                            PoliticaFlush politica) throws IOException {
+        this(arquivo, capacidadeFila, tamanhoBuffer, politica, null);
+    }
+
+    public AsyncLogAppender(Path arquivo, int capacidadeFila, int tamanhoBuffer,
+                            PoliticaFlush politica, LogRotator.PoliticaRotacao rotacao) throws IOException {
+        this(arquivo, capacidadeFila, tamanhoBuffer, politica, rotacao, false);
+    }
+
+    /**
+     * @param rotacao política de rotação, ou null para nunca rotacionar
+     * @param indexar mantém o sidecar ".idx" de timestamps para consultas por intervalo
+     */
+    public AsyncLogAppender(Path arquivo, int capacidadeFila, int tamanhoBuffer, PoliticaFlush politica,
+                            LogRotator.PoliticaRotacao rotacao, boolean indexar) throws IOException {
+        this(arquivo, capacidadeFila, tamanhoBuffer, politica, rotacao, indexar, Formato.TEXTO);
+    }
+
+    /**
+     * @param formato TEXTO ou BINARIO; um arquivo existente precisa estar no mesmo formato.
+     *                BINARIO não aceita indexar = true
+     */
+    public AsyncLogAppender(Path arquivo, int capacidadeFila, int tamanhoBuffer, PoliticaFlush politica,
+                            LogRotator.PoliticaRotacao rotacao, boolean indexar, Formato formato) throws IOException {
+        if (capacidadeFila <= 0 || tamanhoBuffer <= 0) {
+            throw new IllegalArgumentException("Capacidade da fila e tamanho do buffer devem ser positivos");
+        }
+        if (indexar && formato == Formato.BINARIO) {
+            // O LogTimestampIndex lê timestamps de texto; no binário, o BinaryLogReader filtra por tempo
+            throw new IllegalArgumentException("Índice de timestamps só existe para o formato TEXTO");
+        }
+        this.arquivo = arquivo;
+        this.politica = Objects.requireNonNull(politica, "Política de flush não pode ser null");
+        this.formato = Objects.requireNonNull(formato, "Formato não pode ser null");
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        this.buffer = ByteBuffer.allocateDirect(tamanhoBuffer);
+        this.canal = abrirCanal();
+        this.rotator = rotacao != null ? new LogRotator(arquivo, rotacao) : null;
+        this.indice = indexar ? LogTimestampIndex.abrir(arquivo) : null;
+
+        this.escritor = new Thread(this::loopEscritor, "log-appender-" + arquivo.getFileName());
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    /**
+     * Enfileira uma entrada. Bloqueia se a fila estiver cheia (backpressure).
+     */
+    public void append(String nivel, String mensagem) throws IOException {
+        verificarEstado();
+        if (formato == Formato.BINARIO && nivelConhecido(nivel) == null) {
+            throw new IllegalArgumentException("Log binário só aceita níveis do LogLevel: " + nivel);
+        }
+        colocarNaFila(new Entrada(System.currentTimeMillis(), nivel, mensagem, null));
+    }
+
+    /**
+     * Espera até que todas as entradas enfileiradas antes desta chamada
+     * tenham sido escritas no canal.
+     */
+    public void flush() throws IOException {
+        verificarEstado();
+        CountDownLatch sinal = new CountDownLatch(1);
+        colocarNaFila(new Entrada(0, null, null, sinal));
+        try {
+            while (!sinal.await(100, TimeUnit.MILLISECONDS)) {
+                if (!escritor.isAlive()) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido aguardando flush do log");
+        }
+        lancarErroSeHouver();
+    }
+
+    public long entradasEscritas() {
+        return entradasEscritas;
+    }
+
+    public Path arquivo() {
+        return arquivo;
+    }
+
+    /**
+     * Índice de timestamps do arquivo ativo, ou null se o appender não indexa.
+     */
+    public LogTimestampIndex indice() {
+        return indice;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (fechado) {
+            return;
+        }
+        fechado = true;
+        try {
+            colocarNaFila(FIM);
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            canal.close();
+            if (indice != null) {
+                indice.close();
+            }
+            if (rotator != null) {
+                rotator.close();
+            }
+        }
+        lancarErroSeHouver();
+    }
+
+    // =============================================
+    // THREAD ESCRITORA
+    // =============================================
+
+    private void loopEscritor() {
+        List<Entrada> lote = new ArrayList<>(256);
+        try {
+            boolean terminar = false;
+            while (!terminar) {
+                Entrada primeira;
+                try {
+                    primeira = fila.poll(tempoAteProximoFlush(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    // Nunca interrompemos o escritor: uma interrupção fecharia o FileChannel
+                    continue;
+                }
+
+                if (primeira != null) {
+                    lote.add(primeira);
+                    fila.drainTo(lote, 255);
+                    for (Entrada entrada : lote) {
+                        if (entrada == FIM) {
+                            terminar = true;
+                            break;
+                        }
+                        processar(entrada);
+                    }
+                    lote.clear();
+                }
+
+                if (deveFazerFlush()) {
+                    esvaziarBuffer();
+                }
+            }
+            esvaziarBuffer();
+        } catch (IOException e) {
+            erro = e;
+        } catch (RuntimeException e) {
+            // Sem isso a thread morreria com 'erro' null: flush() daria sucesso sem
+            // ter escrito nada e append() ficaria preso na fila cheia para sempre
+            erro = new IOException("Thread escritora falhou", e);
+        } catch (Error e) {
+            erro = new IOException("Thread escritora falhou", e);
+            throw e;
+        } finally {
+            // Ninguém pode ficar preso esperando um flush que nunca vai acontecer
+            Entrada pendente;
+            while ((pendente = fila.poll()) != null) {
+                if (pendente.sinal() != null) {
+                    pendente.sinal().countDown();
+                }
+            }
+        }
+    }
+
+    private void processar(Entrada entrada) throws IOException {
+        if (entrada.sinal() != null) {
+            esvaziarBuffer();
+            entrada.sinal().countDown();
+            return;
+        }
+
+        // Timestamps nunca voltam no arquivo: entradas de threads diferentes podem
+        // chegar à fila fora de ordem por alguns microssegundos
+        ultimoTimestamp = Math.max(ultimoTimestamp, entrada.timestampMillis());
+        // null vira "null", como no println() que o appender substituiu
+        byte[] mensagem = String.valueOf(entrada.mensagem()).getBytes(StandardCharsets.UTF_8);
+        byte[] nivel = formato == Formato.TEXTO ? bytesNivel(entrada.nivel()) : null;
+        int tamanhoEntrada = formato == Formato.BINARIO
+                ? BinaryLogFormat.tamanhoRegistro(mensagem.length)
+                : CachedTimestampFormatter.TAMANHO + ABRE_NIVEL.length + nivel.length + FECHA_NIVEL.length
+                        + mensagem.length + QUEBRA_LINHA.length;
+        if (rotator != null && rotator.deveRotacionar(tamanhoSegmento, segmentoAbertoEm, tamanhoEntrada)) {
+            rotacionarSegmento();
+        }
+        if (indice != null) {
+            indice.registrar(LogTimestampIndex.chave(timestamps.momento(ultimoTimestamp)), tamanhoSegmento);
+        }
+
+        // Montada direto no buffer ("timestamp [NIVEL] mensagem\n" ou registro binário), sem String intermediária
+        if (tamanhoEntrada > buffer.remaining()) {
+            esvaziarBuffer();
+        }
+        ByteBuffer destino = tamanhoEntrada <= buffer.capacity() ? buffer : ByteBuffer.allocate(tamanhoEntrada);
+        if (formato == Formato.BINARIO) {
+            BinaryLogFormat.escreverRegistro(destino, ultimoTimestamp, nivelConhecido(entrada.nivel()), mensagem);
+        } else {
+            destino.put(timestamps.bytes(ultimoTimestamp)).put(ABRE_NIVEL).put(nivel).put(FECHA_NIVEL)
+                    .put(mensagem).put(QUEBRA_LINHA);
+        }
+        if (destino != buffer) {
+            // Entrada maior que o buffer inteiro: vai direto para o canal
+            destino.flip();
+            while (destino.hasRemaining()) {
+                canal.write(destino);
+            }
+        }
+        tamanhoSegmento += tamanhoEntrada;
+        entradasDesdeFlush++;
+        entradasEscritas++;
+    }
+
+    /**
+     * Grava o que está no buffer, fecha o canal, deixa o rotator renomear o
+     * arquivo e reabre um arquivo ativo vazio. A compressão fica em segundo plano.
+     */
+    private void rotacionarSegmento() throws IOException {
+        esvaziarBuffer();
+        canal.close();
+        rotator.rotacionar();
+        canal = abrirCanal();
+        if (indice != null) {
+            indice.reiniciar();
+        }
+    }
+
+    /**
+     * Níveis conhecidos já têm os bytes prontos; qualquer outro texto é codificado.
+     */
+    private static byte[] bytesNivel(String nivel) {
+        LogLevel conhecido = nivelConhecido(nivel);
+        return conhecido != null ? conhecido.bytes() : String.valueOf(nivel).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static LogLevel nivelConhecido(String nivel) {
+        for (LogLevel conhecido : NIVEIS) {
+            if (conhecido.name().equals(nivel)) {
+                return conhecido;
+            }
+        }
+        return null;
+    }
+
+    private boolean deveFazerFlush() {
+        if (buffer.position() == 0) {
+            return false;
+        }
+        if (politica.aCadaEntradas() > 0 && entradasDesdeFlush >= politica.aCadaEntradas()) {
+            return true;
+        }
+        return politica.aCadaMillis() > 0
+                && System.currentTimeMillis() - ultimoFlush >= politica.aCadaMillis();
+    }
+
+    private long tempoAteProximoFlush() {
+        if (politica.aCadaMillis() == 0 || buffer.position() == 0) {
+            return Long.MAX_VALUE;
+        }
+        long restante = politica.aCadaMillis() - (System.currentTimeMillis() - ultimoFlush);
+        return Math.max(restante, 1);
+    }
+
+    private void esvaziarBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+        entradasDesdeFlush = 0;
+        ultimoFlush = System.currentTimeMillis();
+    }
+
+    // =============================================
+    // MÉTODOS AUXILIARES
+    // =============================================
+
+    private FileChannel abrirCanal() throws IOException {
+        FileChannel novo = FileChannel.open(arquivo,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (formato == Formato.BINARIO) {
+            // Arquivo novo ganha cabeçalho; um existente precisa ser log binário
+            try {
+                BinaryLogFormat.prepararCanal(novo, arquivo);
+            } catch (IOException e) {
+                novo.close();
+                throw e;
+            }
+        }
+        tamanhoSegmento = novo.size();
+        segmentoAbertoEm = System.currentTimeMillis();
+        return novo;
+    }
+
+    private void colocarNaFila(Entrada entrada) throws IOException {
+        try {
+            // offer com timeout em vez de put: se o escritor morrer, a fila cheia
+            // não pode prender os produtores para sempre
+            while (!fila.offer(entrada, 100, TimeUnit.MILLISECONDS)) {
+                lancarErroSeHouver();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido ao enfileirar entrada de log");
+        }
+    }
+
+    private void verificarEstado() throws IOException {
+        if (fechado) {
+            throw new IllegalStateException("Appender já foi fechado: " + arquivo);
+        }
+        lancarErroSeHouver();
+    }
+
+    private void lancarErroSeHouver() throws IOException {
+        IOException falha = erro;
+        if (falha != null) {
+            throw new IOException("Falha na escrita do log " + arquivo, falha);
+        }
+    }
+}
@@ -0,0 +1,700 @@
+package io_nio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * BackupArchiveWriter.java - Backup Direto para um Único Arquivo (ZIP ou TAR)
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Um arquivo só - uma escrita sequencial grande, em vez de milhares de
+ *   arquivos pequenos (e milhares de inodes) no destino
+ * - ZIP com compressão paralela - cada entrada é comprimida (Deflater) por
+ *   uma thread do pool; a escrita no arquivo é sequencial e na ordem
+ * - Janela limitada - no máximo 'threads * 2' entradas (ou blocos) comprimidos em memória
+ * - Arquivos grandes - cortados em blocos de 1 MB comprimidos em paralelo (como
+ *   o pigz): cada bloco termina com SYNC_FLUSH e usa os 32 KB anteriores como
+ *   dicionário, então a concatenação é um único stream deflate. CRC e tamanhos
+ *   vão num data descriptor, gravado depois dos dados
+ * - TAR sem compressão - cabeçalho de 512 bytes + transferTo (zero-copy)
+ * - Escrita atômica - grava em ".tmp" e troca com ATOMIC_MOVE
+ *
+ * O ZIP é escrito sem ZIP64: até 4 GB por entrada/arquivo e 65535 entradas.
+ * Para backups maiores, use TAR (tamanhos acima de 8 GB usam a codificação
+ * base-256 do GNU tar; caminhos longos usam a extensão "././@LongLink").
+ */
+public class BackupArchiveWriter {
+
+    public enum Formato { ZIP, TAR }
+
+    public static final int NIVEL_PADRAO = Deflater.DEFAULT_COMPRESSION;
+
+    /**
+     * Acima disso, a entrada ZIP é comprimida em blocos, sem ir inteira para a memória.
+     */
+    private static final long LIMITE_EM_MEMORIA = 8L * 1024 * 1024;
+    private static final int TAMANHO_BLOCO = 1024 * 1024;
+    private static final int TAMANHO_DICIONARIO = 32 * 1024;
+    private static final long LIMITE_ZIP = 0xFFFF_FFFFL;
+    private static final int MAXIMO_ENTRADAS_ZIP = 0xFFFF;
+    private static final int BLOCO_TAR = 512;
+
+    private final Formato formato;
+    private final int nivel;
+    private final int threads;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== BACKUP ARCHIVE WRITER ===\n");
+
+        // Árvore de teste: muitos arquivos pequenos e um grande
+        Path origem = Files.createDirectories(Paths.get("teste-arquivo-origem"));
+        for (int i = 0; i < 2000; i++) {
+            Path pasta = Files.createDirectories(origem.resolve("pasta-" + (i % 20)));
+            Files.writeString(pasta.resolve("registro-" + i + ".txt"),
+                    ("Registro " + i + " - cliente, pedido, valor, status\n").repeat(20));
+        }
+        byte[] grande = new byte[12 * 1024 * 1024];
+        for (int i = 0; i < grande.length; i++) {
+            grande[i] = (byte) ("backup".charAt(i % 6) + (i / 4096) % 3);
+        }
+        Files.write(origem.resolve("grande.bin"), grande);
+
+        Path zip = Paths.get("teste-backup.zip");
+        Relatorio relatorioZip = zip(NIVEL_PADRAO, Runtime.getRuntime().availableProcessors()).arquivar(origem, zip);
+        System.out.println("🗜️ ZIP: " + relatorioZip);
+
+        Path tar = Paths.get("teste-backup.tar");
+        Relatorio relatorioTar = tar().arquivar(origem, tar);
+        System.out.println("📦 TAR: " + relatorioTar);
+
+        // Conferência: o ZIP é lido pelo java.util.zip e comparado com a origem
+        int conferidos = 0;
+        try (ZipFile leitor = new ZipFile(zip.toFile())) {
+            Enumeration<? extends ZipEntry> entradas = leitor.entries();
+            while (entradas.hasMoreElements()) {
+                ZipEntry entrada = entradas.nextElement();
+                try (InputStream conteudo = leitor.getInputStream(entrada)) {
+                    if (!Arrays.equals(conteudo.readAllBytes(), Files.readAllBytes(origem.resolve(entrada.getName())))) {
+                        throw new IOException("Conteúdo diferente: " + entrada.getName());
+                    }
+                }
+                conferidos++;
+            }
+        }
+        System.out.println("🔍 ZIP conferido: " + conferidos + " entradas idênticas à origem");
+
+        Files.delete(zip);
+        Files.delete(tar);
+        new ParallelTreeDeleter().apagar(origem);
+    }
+
+    /**
+     * @param arquivos               entradas gravadas
+     * @param bytesOriginais         soma dos tamanhos dos arquivos de origem
+     * @param bytesArquivo           tamanho final do .zip/.tar
+     * @param alteradosDuranteLeitura arquivos que encolheram enquanto eram lidos
+     *                               (TAR: completados com zeros)
+     */
+    public record Relatorio(int arquivos, long bytesOriginais, long bytesArquivo, int alteradosDuranteLeitura,
+                            long duracaoNanos) {
+
+        public double mbPorSegundo() {
+            return duracaoNanos == 0 ? 0 : bytesOriginais / (1024.0 * 1024.0) / (duracaoNanos / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("📄 %d arquivos, %d → %d bytes (%.1f%%), ⚡ %.0f MB/s%s", arquivos, bytesOriginais,
+                    bytesArquivo, bytesOriginais == 0 ? 100.0 : bytesArquivo * 100.0 / bytesOriginais,
+                    mbPorSegundo(), alteradosDuranteLeitura == 0 ? "" : ", ⚠️ " + alteradosDuranteLeitura + " alterados");
+        }
+    }
+
+    /**
+     * @param nivel   0 (sem compressão) a 9, ou NIVEL_PADRAO
+     * @param threads threads de compressão
+     */
+    public static BackupArchiveWriter zip(int nivel, int threads) {
+        if (nivel != Deflater.DEFAULT_COMPRESSION && (nivel < 0 || nivel > 9)) {
+            throw new IllegalArgumentException("Nível de compressão deve estar entre 0 e 9");
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Threads deve ser positivo");
+        }
+        return new BackupArchiveWriter(Formato.ZIP, nivel, threads);
+    }
+
+    public static BackupArchiveWriter tar() {
+        return new BackupArchiveWriter(Formato.TAR, 0, 1);
+    }
+
+    private BackupArchiveWriter(Formato formato, int nivel, int threads) {
+        this.formato = formato;
+        this.nivel = nivel;
+        this.threads = threads;
+    }
+
+    public Formato formato() {
+        return formato;
+    }
+
+    /**
+     * Grava todos os arquivos de 'origem' (recursivamente, em ordem de caminho)
+     * dentro de 'destino'. O destino só aparece completo: é escrito num .tmp ao lado.
+     */
+    public Relatorio arquivar(Path origem, Path destino) throws IOException {
+        long inicio = System.nanoTime();
+        List<ParallelDirectoryWalker.Entrada> arquivos = new ArrayList<>();
+        for (ParallelDirectoryWalker.Entrada entrada : new ParallelDirectoryWalker().listar(origem)) {
+            if (entrada.atributos().isRegularFile()) {
+                arquivos.add(entrada);
+            }
+        }
+
+        Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+        Relatorio relatorio;
+        try (FileChannel saida = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Gravacao gravacao = formato == Formato.ZIP
+                    ? new GravacaoZip(origem, saida)
+                    : new GravacaoTar(origem, saida);
+            gravacao.gravar(arquivos);
+            relatorio = new Relatorio(arquivos.size(), gravacao.bytesOriginais, saida.size(),
+                    gravacao.alteradosDuranteLeitura, System.nanoTime() - inicio);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporario);
+            throw e;
+        }
+
+        try {
+            Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return relatorio;
+    }
+
+    // =============================================
+    // GRAVAÇÃO (COMUM)
+    // =============================================
+
+    private abstract static class Gravacao {
+        final Path origem;
+        final FileChannel saida;
+        long bytesOriginais;
+        int alteradosDuranteLeitura;
+
+        Gravacao(Path origem, FileChannel saida) {
+            this.origem = origem;
+            this.saida = saida;
+        }
+
+        abstract void gravar(List<ParallelDirectoryWalker.Entrada> arquivos) throws IOException;
+
+        void escrever(ByteBuffer bytes) throws IOException {
+            while (bytes.hasRemaining()) {
+                saida.write(bytes);
+            }
+        }
+
+        String nome(Path arquivo) {
+            return BackupManifest.caminhoRelativo(origem, arquivo);
+        }
+    }
+
+    // =============================================
+    // ZIP
+    // =============================================
+
+    /**
+     * Uma entrada pronta para ir ao disco: dados já comprimidos (ou STORED).
+     */
+    private record Comprimida(String nome, long mtimeMillis, int metodo, long crc, long tamanhoOriginal,
+                              byte[] dados, int tamanhoDados) {
+    }
+
+    /**
+     * Um pedaço de uma entrada grande: os bytes originais vão junto para o CRC,
+     * que é calculado na ordem pela thread escritora.
+     */
+    private record Bloco(byte[] original, int inicioOriginal, int tamanhoOriginal, byte[] dados, int tamanhoDados) {
+    }
+
+    /**
+     * Estado de uma entrada grande enquanto seus blocos são gravados (só a thread escritora mexe).
+     */
+    private static final class EntradaEmBlocos {
+        final byte[] nome;
+        final long mtime;
+        final CRC32 crc = new CRC32();
+        long offset;
+        long inicioDados;
+        long tamanhoOriginal;
+
+        EntradaEmBlocos(byte[] nome, long mtime) {
+            this.nome = nome;
+            this.mtime = mtime;
+        }
+    }
+
+    /**
+     * Próxima escrita na ordem do arquivo; espera a compressão correspondente, se houver.
+     */
+    @FunctionalInterface
+    private interface Pendente {
+        void gravar() throws IOException;
+    }
+
+    /**
+     * O que o diretório central precisa de cada entrada já gravada.
+     */
+    private record EntradaCentral(byte[] nome, int flags, int metodo, int horaDos, int dataDos, long crc,
+                                  long tamanhoComprimido, long tamanhoOriginal, long offsetCabecalho) {
+    }
+
+    private final class GravacaoZip extends Gravacao {
+        private static final int FLAG_UTF8 = 0x0800;
+        private static final int FLAG_DATA_DESCRIPTOR = 0x0008;
+        private static final int STORED = 0;
+        private static final int DEFLATED = 8;
+
+        private final List<EntradaCentral> central = new ArrayList<>();
+        private final ByteBuffer cabecalho = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+
+        GravacaoZip(Path origem, FileChannel saida) {
+            super(origem, saida);
+        }
+
+        @Override
+        void gravar(List<ParallelDirectoryWalker.Entrada> arquivos) throws IOException {
+            if (arquivos.size() > MAXIMO_ENTRADAS_ZIP) {
+                throw new IOException("ZIP sem ZIP64 aceita até " + MAXIMO_ENTRADAS_ZIP + " entradas; use TAR");
+            }
+
+            AtomicInteger contador = new AtomicInteger();
+            ExecutorService compressores = Executors.newFixedThreadPool(threads, r -> {
+                Thread t = new Thread(r, "zip-compressor-" + contador.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            // Um Deflater por thread, reaproveitado entre entradas (reset em vez de recriar);
+            // todos guardados para o end(): a memória nativa do zlib não espera o GC
+            Queue<Deflater> criados = new ConcurrentLinkedQueue<>();
+            ThreadLocal<Deflater> deflaters = ThreadLocal.withInitial(() -> {
+                Deflater deflater = new Deflater(nivel, true);
+                criados.add(deflater);
+                return deflater;
+            });
+
+            // Entradas pequenas e blocos de entradas grandes dividem a mesma janela:
+            // os arquivos seguintes a um grande já são comprimidos enquanto ele é gravado
+            Deque<Pendente> janela = new ArrayDeque<>();
+            try {
+                for (ParallelDirectoryWalker.Entrada entrada : arquivos) {
+                    Path arquivo = entrada.caminho();
+                    long mtime = entrada.atributos().lastModifiedTime().toMillis();
+                    long tamanho = entrada.atributos().size();
+                    if (tamanho <= LIMITE_EM_MEMORIA) {
+                        Future<Comprimida> futuro = compressores.submit(() -> comprimir(arquivo, mtime, deflaters.get()));
+                        enfileirar(janela, () -> gravarComprimida(aguardar(futuro)));
+                        continue;
+                    }
+
+                    EntradaEmBlocos emBlocos = new EntradaEmBlocos(nome(arquivo).getBytes(StandardCharsets.UTF_8), mtime);
+                    enfileirar(janela, () -> iniciarEmBlocos(emBlocos));
+                    for (long inicio = 0; inicio < tamanho; inicio += TAMANHO_BLOCO) {
+                        long posicao = inicio;
+                        boolean ultimo = inicio + TAMANHO_BLOCO >= tamanho;
+                        Future<Bloco> futuro = compressores.submit(
+                                () -> comprimirBloco(arquivo, posicao, ultimo, deflaters.get()));
+                        enfileirar(janela, () -> gravarBloco(emBlocos, aguardar(futuro)));
+                    }
+                    enfileirar(janela, () -> concluirEmBlocos(emBlocos));
+                }
+                while (!janela.isEmpty()) {
+                    janela.removeFirst().gravar();
+                }
+                gravarDiretorioCentral();
+            } finally {
+                compressores.shutdownNow();
+                // Uma compressão ainda rodando (caminho de erro) falha ao usar o Deflater encerrado
+                for (Deflater deflater : criados) {
+                    deflater.end();
+                }
+            }
+        }
+
+        private void enfileirar(Deque<Pendente> janela, Pendente pendente) throws IOException {
+            janela.addLast(pendente);
+            if (janela.size() >= threads * 2) {
+                janela.removeFirst().gravar();
+            }
+        }
+
+        /**
+         * Roda nas threads do pool: lê o arquivo inteiro e comprime em memória.
+         */
+        private Comprimida comprimir(Path arquivo, long mtime, Deflater deflater) throws IOException {
+            byte[] original = Files.readAllBytes(arquivo);
+            CRC32 crc = new CRC32();
+            crc.update(original);
+
+            if (nivel != 0) {
+                deflater.reset();
+                deflater.setInput(original);
+                deflater.finish();
+                byte[] saida = new byte[original.length + original.length / 1000 + 64];
+                int tamanho = 0;
+                while (!deflater.finished() && tamanho < saida.length) {
+                    tamanho += deflater.deflate(saida, tamanho, saida.length - tamanho);
+                }
+                // Só compensa se ficou menor; senão a entrada vai sem compressão
+                if (deflater.finished() && tamanho < original.length) {
+                    return new Comprimida(nome(arquivo), mtime, DEFLATED, crc.getValue(), original.length, saida, tamanho);
+                }
+            }
+            return new Comprimida(nome(arquivo), mtime, STORED, crc.getValue(), original.length, original,
+                    original.length);
+        }
+
+        /**
+         * Roda nas threads do pool: comprime um bloco de uma entrada grande. Blocos
+         * intermediários terminam com SYNC_FLUSH (alinhados em byte, sem fim de
+         * stream), só o último com finish().
+         */
+        private Bloco comprimirBloco(Path arquivo, long inicio, boolean ultimo, Deflater deflater) throws IOException {
+            long inicioLeitura = Math.max(0, inicio - TAMANHO_DICIONARIO);
+            int tamanhoDicionario = (int) (inicio - inicioLeitura);
+            ByteBuffer lido = ByteBuffer.allocate(tamanhoDicionario + TAMANHO_BLOCO);
+            try (FileChannel leitura = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+                while (lido.hasRemaining()) {
+                    // Menos bytes que o esperado: o arquivo encolheu depois da listagem
+                    if (leitura.read(lido, inicioLeitura + lido.position()) <= 0) {
+                        break;
+                    }
+                }
+            }
+            byte[] bytes = lido.array();
+            int tamanhoOriginal = Math.max(0, lido.position() - tamanhoDicionario);
+
+            deflater.reset();
+            if (tamanhoDicionario > 0 && lido.position() >= tamanhoDicionario) {
+                deflater.setDictionary(bytes, 0, tamanhoDicionario);
+            }
+            deflater.setInput(bytes, tamanhoDicionario, tamanhoOriginal);
+            byte[] saida = new byte[tamanhoOriginal + tamanhoOriginal / 1000 + 64];
+            int tamanho = 0;
+            if (ultimo) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    if (tamanho == saida.length) {
+                        saida = Arrays.copyOf(saida, saida.length * 2);
+                    }
+                    tamanho += deflater.deflate(saida, tamanho, saida.length - tamanho);
+                }
+            } else {
+                // Com SYNC_FLUSH, sobrar espaço na saída significa que tudo foi entregue
+                int n;
+                do {
+                    if (tamanho == saida.length) {
+                        saida = Arrays.copyOf(saida, saida.length * 2);
+                    }
+                    n = deflater.deflate(saida, tamanho, saida.length - tamanho, Deflater.SYNC_FLUSH);
+                    tamanho += n;
+                } while (tamanho == saida.length);
+            }
+            return new Bloco(bytes, tamanhoDicionario, tamanhoOriginal, saida, tamanho);
+        }
+
+        private <T> T aguardar(Future<T> futuro) throws IOException {
+            try {
+                return futuro.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrompido aguardando compressão", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException erro) {
+                    throw erro;
+                }
+                throw new IOException("Falha comprimindo entrada", e.getCause());
+            }
+        }
+
+        private void gravarComprimida(Comprimida entrada) throws IOException {
+            long offset = verificarLimite(saida.position());
+            byte[] nome = entrada.nome().getBytes(StandardCharsets.UTF_8);
+            int[] dos = horaDataDos(entrada.mtimeMillis());
+
+            escreverCabecalhoLocal(nome, FLAG_UTF8, entrada.metodo(), dos, entrada.crc(), entrada.tamanhoDados(),
+                    entrada.tamanhoOriginal());
+            escrever(ByteBuffer.wrap(entrada.dados(), 0, entrada.tamanhoDados()));
+
+            bytesOriginais += entrada.tamanhoOriginal();
+            central.add(new EntradaCentral(nome, FLAG_UTF8, entrada.metodo(), dos[0], dos[1], entrada.crc(),
+                    entrada.tamanhoDados(), entrada.tamanhoOriginal(), offset));
+        }
+
+        /**
+         * Arquivo grande: CRC e tamanhos só são conhecidos depois do último
+         * bloco, então o cabeçalho local vai zerado e eles seguem num data descriptor.
+         */
+        private void iniciarEmBlocos(EntradaEmBlocos entrada) throws IOException {
+            entrada.offset = verificarLimite(saida.position());
+            escreverCabecalhoLocal(entrada.nome, FLAG_UTF8 | FLAG_DATA_DESCRIPTOR, DEFLATED,
+                    horaDataDos(entrada.mtime), 0, 0, 0);
+            entrada.inicioDados = saida.position();
+        }
+
+        private void gravarBloco(EntradaEmBlocos entrada, Bloco bloco) throws IOException {
+            entrada.crc.update(bloco.original(), bloco.inicioOriginal(), bloco.tamanhoOriginal());
+            entrada.tamanhoOriginal += bloco.tamanhoOriginal();
+            escrever(ByteBuffer.wrap(bloco.dados(), 0, bloco.tamanhoDados()));
+        }
+
+        private void concluirEmBlocos(EntradaEmBlocos entrada) throws IOException {
+            long tamanhoComprimido = verificarLimite(saida.position() - entrada.inicioDados);
+            verificarLimite(entrada.tamanhoOriginal);
+            long crc = entrada.crc.getValue();
+
+            cabecalho.clear();
+            cabecalho.putInt(0x08074b50).putInt((int) crc)
+                    .putInt((int) tamanhoComprimido).putInt((int) entrada.tamanhoOriginal);
+            cabecalho.flip();
+            escrever(cabecalho);
+
+            int[] dos = horaDataDos(entrada.mtime);
+            bytesOriginais += entrada.tamanhoOriginal;
+            central.add(new EntradaCentral(entrada.nome, FLAG_UTF8 | FLAG_DATA_DESCRIPTOR, DEFLATED, dos[0], dos[1],
+                    crc, tamanhoComprimido, entrada.tamanhoOriginal, entrada.offset));
+        }
+
+        private void escreverCabecalhoLocal(byte[] nome, int flags, int metodo, int[] dos, long crc,
+                                            long tamanhoComprimido, long tamanhoOriginal) throws IOException {
+            cabecalho.clear();
+            cabecalho.putInt(0x04034b50)
+                    .putShort((short) 20)
+                    .putShort((short) flags)
+                    .putShort((short) metodo)
+                    .putShort((short) dos[0])
+                    .putShort((short) dos[1])
+                    .putInt((int) crc)
+                    .putInt((int) tamanhoComprimido)
+                    .putInt((int) tamanhoOriginal)
+                    .putShort((short) nome.length)
+                    .putShort((short) 0)
+                    .put(nome);
+            cabecalho.flip();
+            escrever(cabecalho);
+        }
+
+        private void gravarDiretorioCentral() throws IOException {
+            long inicioCentral = verificarLimite(saida.position());
+            for (EntradaCentral entrada : central) {
+                cabecalho.clear();
+                cabecalho.putInt(0x02014b50)
+                        .putShort((short) 20)
+                        .putShort((short) 20)
+                        .putShort((short) entrada.flags())
+                        .putShort((short) entrada.metodo())
+                        .putShort((short) entrada.horaDos())
+                        .putShort((short) entrada.dataDos())
+                        .putInt((int) entrada.crc())
+                        .putInt((int) entrada.tamanhoComprimido())
+                        .putInt((int) entrada.tamanhoOriginal())
+                        .putShort((short) entrada.nome().length)
+                        .putShort((short) 0)
+                        .putShort((short) 0)
+                        .putShort((short) 0)
+                        .putShort((short) 0)
+                        .putInt(0)
+                        .putInt((int) entrada.offsetCabecalho())
+                        .put(entrada.nome());
+                cabecalho.flip();
+                escrever(cabecalho);
+            }
+            long tamanhoCentral = verificarLimite(saida.position() - inicioCentral);
+
+            cabecalho.clear();
+            cabecalho.putInt(0x06054b50)
+                    .putShort((short) 0)
+                    .putShort((short) 0)
+                    .putShort((short) central.size())
+                    .putShort((short) central.size())
+                    .putInt((int) tamanhoCentral)
+                    .putInt((int) inicioCentral)
+                    .putShort((short) 0);
+            cabecalho.flip();
+            escrever(cabecalho);
+        }
+
+        private long verificarLimite(long valor) throws IOException {
+            if (valor > LIMITE_ZIP) {
+                throw new IOException("ZIP sem ZIP64 é limitado a 4 GB; use TAR");
+            }
+            return valor;
+        }
+
+        /**
+         * Data/hora no formato do MS-DOS usado pelo ZIP (resolução de 2 s, a partir de 1980).
+         */
+        private int[] horaDataDos(long mtimeMillis) {
+            LocalDateTime momento = LocalDateTime.ofInstant(Instant.ofEpochMilli(mtimeMillis), ZoneId.systemDefault());
+            if (momento.getYear() < 1980) {
+                momento = LocalDateTime.of(1980, 1, 1, 0, 0);
+            }
+            int hora = (momento.getHour() << 11) | (momento.getMinute() << 5) | (momento.getSecond() / 2);
+            int data = ((momento.getYear() - 1980) << 9) | (momento.getMonthValue() << 5) | momento.getDayOfMonth();
+            return new int[]{hora, data};
+        }
+    }
+
+    // =============================================
+    // TAR
+    // =============================================
+
+    private static final class GravacaoTar extends Gravacao {
+        private final ByteBuffer bloco = ByteBuffer.allocate(BLOCO_TAR);
+
+        GravacaoTar(Path origem, FileChannel saida) {
+            super(origem, saida);
+        }
+
+        @Override
+        void gravar(List<ParallelDirectoryWalker.Entrada> arquivos) throws IOException {
+            for (ParallelDirectoryWalker.Entrada entrada : arquivos) {
+                Path arquivo = entrada.caminho();
+                long tamanho = entrada.atributos().size();
+                long mtimeSegundos = entrada.atributos().lastModifiedTime().toMillis() / 1000;
+                byte[] nome = nome(arquivo).getBytes(StandardCharsets.UTF_8);
+
+                if (nome.length > 100) {
+                    // Extensão GNU: o nome completo vai como conteúdo de uma entrada 'L'
+                    escreverCabecalho("././@LongLink".getBytes(StandardCharsets.US_ASCII), nome.length + 1, 0, 'L');
+                    escreverDados(ByteBuffer.wrap(Arrays.copyOf(nome, nome.length + 1)));
+                    nome = Arrays.copyOf(nome, 100);
+                }
+                escreverCabecalho(nome, tamanho, mtimeSegundos, '0');
+
+                // Conteúdo: zero-copy do arquivo para o .tar
+                long copiados = 0;
+                try (FileChannel leitura = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+                    while (copiados < tamanho) {
+                        long n = leitura.transferTo(copiados, tamanho - copiados, saida);
+                        if (n <= 0) {
+                            break;
+                        }
+                        copiados += n;
+                    }
+                }
+                if (copiados < tamanho) {
+                    // Encolheu durante a leitura: completa com zeros para o cabeçalho continuar válido
+                    alteradosDuranteLeitura++;
+                    escrever(ByteBuffer.allocate((int) Math.min(Integer.MAX_VALUE, tamanho - copiados)));
+                }
+                preencherBloco(tamanho);
+                bytesOriginais += tamanho;
+            }
+            // Fim do arquivo: dois blocos zerados
+            escrever(ByteBuffer.allocate(2 * BLOCO_TAR));
+        }
+
+        private void escreverDados(ByteBuffer dados) throws IOException {
+            long tamanho = dados.remaining();
+            escrever(dados);
+            preencherBloco(tamanho);
+        }
+
+        private void preencherBloco(long tamanho) throws IOException {
+            int resto = (int) (tamanho % BLOCO_TAR);
+            if (resto != 0) {
+                escrever(ByteBuffer.allocate(BLOCO_TAR - resto));
+            }
+        }
+
+        /**
+         * Cabeçalho ustar de 512 bytes.
+         */
+        private void escreverCabecalho(byte[] nome, long tamanho, long mtimeSegundos, char tipo) throws IOException {
+            byte[] h = new byte[BLOCO_TAR];
+            System.arraycopy(nome, 0, h, 0, Math.min(nome.length, 100));
+            octal(h, 100, 8, 0644);
+            octal(h, 108, 8, 0);
+            octal(h, 116, 8, 0);
+            tamanhoTar(h, tamanho);
+            octal(h, 136, 12, mtimeSegundos);
+            h[156] = (byte) tipo;
+            System.arraycopy("ustar\0".getBytes(StandardCharsets.US_ASCII), 0, h, 257, 6);
+            h[263] = '0';
+            h[264] = '0';
+
+            // Checksum: soma dos bytes com o próprio campo preenchido por espaços
+            Arrays.fill(h, 148, 156, (byte) ' ');
+            long soma = 0;
+            for (byte b : h) {
+                soma += b & 0xFF;
+            }
+            octal(h, 148, 7, soma);
+
+            bloco.clear();
+            bloco.put(h).flip();
+            escrever(bloco);
+        }
+
+        /**
+         * Campo numérico: dígitos octais com zeros à esquerda e '\0' no fim.
+         */
+        private static void octal(byte[] h, int inicio, int tamanhoCampo, long valor) {
+            String digitos = Long.toOctalString(valor);
+            int largura = tamanhoCampo - 1;
+            for (int i = 0; i < largura; i++) {
+                int indice = digitos.length() - largura + i;
+                h[inicio + i] = (byte) (indice >= 0 ? digitos.charAt(indice) : '0');
+            }
+            h[inicio + largura] = 0;
+        }
+
+        /**
+         * Até 8 GB cabe em 11 dígitos octais; acima disso, base-256 (bit alto ligado).
+         */
+        private static void tamanhoTar(byte[] h, long tamanho) {
+            if (tamanho < 077777777777L) {
+                octal(h, 124, 12, tamanho);
+                return;
+            }
+            h[124] = (byte) 0x80;
+            for (int i = 0; i < 8; i++) {
+                h[135 - i] = (byte) (tamanho >>> (8 * i));
+            }
+        }
+    }
+}
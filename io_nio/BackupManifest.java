@@ -0,0 +1,177 @@
+package io_nio;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * BackupManifest.java - Manifesto do Último Backup
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Manifesto - caminho, tamanho, mtime e hash de cada arquivo salvo
+ * - Tombstone - arquivo que sumiu da origem fica marcado como removido
+ * - Escrita atômica - grava em ".tmp" e troca com ATOMIC_MOVE
+ * - MessageDigest - SHA-256 do conteúdo, em hexadecimal
+ *
+ * Formato (texto, uma entrada por linha, separado por TAB):
+ *   caminho  tamanho  mtimeMillis  sha256  A|D
+ * Caminhos são relativos à origem e sempre usam '/'.
+ */
+public class BackupManifest {
+
+    private static final String CABECALHO = "# java-toolbox backup manifest v1";
+    private static final String ATIVO = "A";
+    private static final String REMOVIDO = "D";
+
+    private final Map<String, Entrada> entradas = new TreeMap<>();
+
+    /**
+     * Uma linha do manifesto. Para tombstones, 'mtimeMillis' é o momento em que
+     * a remoção foi detectada; tamanho e hash são os da última versão salva.
+     */
+    public record Entrada(String caminho, long tamanho, long mtimeMillis, String hash, boolean removido) {
+
+        public Entrada comoRemovida(long detectadoEm) {
+            return new Entrada(caminho, tamanho, detectadoEm, hash, true);
+        }
+    }
+
+    /**
+     * Lê o manifesto; se o arquivo não existir, devolve um manifesto vazio.
+     */
+    public static BackupManifest carregar(Path arquivo) throws IOException {
+        BackupManifest manifesto = new BackupManifest();
+        if (Files.notExists(arquivo)) {
+            return manifesto;
+        }
+
+        try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            String linha;
+            int numero = 0;
+            while ((linha = leitor.readLine()) != null) {
+                numero++;
+                if (linha.isEmpty() || linha.startsWith("#")) {
+                    continue;
+                }
+                String[] campos = linha.split("\t", -1);
+                if (campos.length != 5) {
+                    throw new IOException("Manifesto inválido em " + arquivo + ", linha " + numero);
+                }
+                try {
+                    Entrada entrada = new Entrada(desescapar(campos[0]), Long.parseLong(campos[1]),
+                            Long.parseLong(campos[2]), campos[3], REMOVIDO.equals(campos[4]));
+                    manifesto.entradas.put(entrada.caminho(), entrada);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Manifesto inválido em " + arquivo + ", linha " + numero, e);
+                }
+            }
+        }
+        return manifesto;
+    }
+
+    /**
+     * Grava o manifesto de forma atômica: leitores nunca veem um arquivo pela metade.
+     */
+    public void salvar(Path arquivo) throws IOException {
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+
+        try (BufferedWriter escritor = Files.newBufferedWriter(temporario, StandardCharsets.UTF_8)) {
+            escritor.write(CABECALHO);
+            escritor.newLine();
+            for (Entrada entrada : entradas.values()) {
+                escritor.write(escapar(entrada.caminho()) + "\t" + entrada.tamanho() + "\t"
+                        + entrada.mtimeMillis() + "\t" + entrada.hash() + "\t"
+                        + (entrada.removido() ? REMOVIDO : ATIVO));
+                escritor.newLine();
+            }
+        }
+
+        try {
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public Entrada obter(String caminho) {
+        return entradas.get(caminho);
+    }
+
+    public void registrar(Entrada entrada) {
+        entradas.put(entrada.caminho(), entrada);
+    }
+
+    public Collection<Entrada> entradas() {
+        return Collections.unmodifiableCollection(entradas.values());
+    }
+
+    public int tamanho() {
+        return entradas.size();
+    }
+
+    // =============================================
+    // MÉTODOS AUXILIARES
+    // =============================================
+
+    /**
+     * Caminho relativo à origem, com '/' em qualquer sistema operacional.
+     */
+    public static String caminhoRelativo(Path origem, Path arquivo) {
+        return origem.relativize(arquivo).toString().replace('\\', '/');
+    }
+
+    /**
+     * SHA-256 do conteúdo do arquivo, em hexadecimal.
+     */
+    public static String sha256(Path arquivo) throws IOException {
+        MessageDigest digest = novoSha256();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream entrada = Files.newInputStream(arquivo)) {
+            int lidos;
+            while ((lidos = entrada.read(buffer)) != -1) {
+                digest.update(buffer, 0, lidos);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static MessageDigest novoSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Toda JVM é obrigada a ter SHA-256
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private static String escapar(String texto) {
+        return texto.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n");
+    }
+
+    private static String desescapar(String texto) {
+        StringBuilder sb = new StringBuilder(texto.length());
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '\\' && i + 1 < texto.length()) {
+                char proximo = texto.charAt(++i);
+                sb.append(proximo == 't' ? '\t' : proximo == 'n' ? '\n' : proximo);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
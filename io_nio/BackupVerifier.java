@@ -0,0 +1,367 @@
+package io_nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * BackupVerifier.java - Verificação Paralela de Checksums do Backup
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Origem e destino em paralelo - cada lado de cada arquivo é uma tarefa do pool
+ * - CRC32C (rápido, intrínseco da CPU) ou SHA-256 (criptográfico)
+ * - Leitura sem cópia para o heap - arquivos grandes via FileChannel.map() em
+ *   janelas de 64 MB, pequenos via ByteBuffer direto reaproveitado por thread
+ * - Resultados em streaming - ExecutorCompletionService entrega cada arquivo
+ *   assim que os dois lados terminam, sempre na thread que chamou
+ * - Manifesto - com SHA-256, os digests podem ir para o BackupManifest; depois,
+ *   verificarContraManifesto() confere o backup sem reler a origem
+ */
+public class BackupVerifier {
+
+    public enum Algoritmo { CRC32C, SHA256 }
+
+    public enum Status { OK, DIVERGENTE, AUSENTE, ERRO }
+
+    private static final long LIMITE_MAPEAMENTO = 1024 * 1024;
+    private static final long JANELA_MAPEAMENTO = 64L * 1024 * 1024;
+    private static final int TAMANHO_BUFFER = 1024 * 1024;
+
+    private final Algoritmo algoritmo;
+    private final int threads;
+    private final ThreadLocal<ByteBuffer> buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(TAMANHO_BUFFER));
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== BACKUP VERIFIER ===\n");
+
+        Path origem = Files.createDirectories(Paths.get("teste-verificacao-origem"));
+        Path backup = Files.createDirectories(Paths.get("teste-verificacao-backup"));
+        for (int i = 0; i < 200; i++) {
+            byte[] conteudo = ("Arquivo " + i + " - conteúdo de teste\n").repeat(50).getBytes();
+            Files.write(origem.resolve("arquivo-" + i + ".txt"), conteudo);
+            Files.write(backup.resolve("arquivo-" + i + ".txt"), conteudo);
+        }
+        byte[] grande = new byte[32 * 1024 * 1024];
+        Files.write(origem.resolve("grande.bin"), grande);
+        Files.write(backup.resolve("grande.bin"), grande);
+
+        // Estraga o backup: um arquivo corrompido, outro que não chegou a ser copiado
+        Files.writeString(backup.resolve("arquivo-7.txt"), "corrompido");
+        Files.delete(backup.resolve("arquivo-42.txt"));
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (Algoritmo algoritmo : Algoritmo.values()) {
+            Relatorio relatorio = new BackupVerifier(algoritmo, threads).verificar(origem, backup, verificacao -> {
+                if (verificacao.status() != Status.OK) {
+                    System.out.println("  " + verificacao);
+                }
+            });
+            System.out.println("🔍 " + algoritmo + ": " + relatorio + "\n");
+        }
+
+        // Digests no manifesto: a conferência seguinte não precisa da origem
+        BackupManifest manifesto = new BackupManifest();
+        new BackupVerifier(Algoritmo.SHA256, threads).verificar(origem, backup, manifesto, verificacao -> { });
+        Files.writeString(backup.resolve("arquivo-3.txt"), "alterado depois do backup");
+        Relatorio relatorio = new BackupVerifier(Algoritmo.SHA256, threads).verificarContraManifesto(backup, manifesto,
+                verificacao -> {
+                    if (verificacao.status() != Status.OK) {
+                        System.out.println("  " + verificacao);
+                    }
+                });
+        System.out.println("📋 Contra o manifesto (" + manifesto.tamanho() + " entradas): " + relatorio);
+
+        new ParallelTreeDeleter().apagar(origem);
+        new ParallelTreeDeleter().apagar(backup);
+    }
+
+    /**
+     * Resultado de um arquivo. 'digestOrigem' é o do manifesto em verificarContraManifesto().
+     */
+    public record Verificacao(String caminho, Status status, String digestOrigem, String digestBackup,
+                              IOException erro) {
+
+        @Override
+        public String toString() {
+            return switch (status) {
+                case OK -> "✅ " + caminho;
+                case DIVERGENTE -> "❌ " + caminho + ": " + digestOrigem + " ≠ " + digestBackup;
+                case AUSENTE -> "🕳️ " + caminho + ": ausente no backup";
+                case ERRO -> "⚠️ " + caminho + ": " + erro.getMessage();
+            };
+        }
+    }
+
+    public record Relatorio(int arquivos, int ok, int divergentes, int ausentes, int erros, long bytesLidos,
+                            long duracaoNanos) {
+
+        public boolean integro() {
+            return ok == arquivos;
+        }
+
+        public double mbPorSegundo() {
+            return duracaoNanos == 0 ? 0 : bytesLidos / (1024.0 * 1024.0) / (duracaoNanos / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("📄 %d arquivos: ✅ %d, ❌ %d divergentes, 🕳️ %d ausentes, ⚠️ %d erros, ⚡ %.0f MB/s",
+                    arquivos, ok, divergentes, ausentes, erros, mbPorSegundo());
+        }
+    }
+
+    public BackupVerifier(Algoritmo algoritmo, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Threads deve ser positivo");
+        }
+        this.algoritmo = algoritmo;
+        this.threads = threads;
+    }
+
+    /**
+     * Compara cada arquivo de 'origem' com o correspondente em 'backup'.
+     * 'ouvinte' recebe cada resultado assim que fica pronto, na thread que chamou.
+     */
+    public Relatorio verificar(Path origem, Path backup, Consumer<Verificacao> ouvinte) throws IOException {
+        return verificar(origem, backup, null, ouvinte);
+    }
+
+    /**
+     * Igual a verificar(), registrando no 'manifesto' (se não for null) o SHA-256,
+     * tamanho e mtime de cada arquivo íntegro. Quem chama decide quando salvar.
+     */
+    public Relatorio verificar(Path origem, Path backup, BackupManifest manifesto, Consumer<Verificacao> ouvinte)
+            throws IOException {
+        if (manifesto != null && algoritmo != Algoritmo.SHA256) {
+            throw new IllegalArgumentException("O manifesto guarda SHA-256; use Algoritmo.SHA256");
+        }
+
+        List<ParallelDirectoryWalker.Entrada> arquivos = new ArrayList<>();
+        for (ParallelDirectoryWalker.Entrada entrada : new ParallelDirectoryWalker().listar(origem)) {
+            if (entrada.atributos().isRegularFile()) {
+                arquivos.add(entrada);
+            }
+        }
+
+        List<String> caminhos = new ArrayList<>(arquivos.size());
+        List<Path> lidosDaOrigem = new ArrayList<>(arquivos.size());
+        List<Path> lidosDoBackup = new ArrayList<>(arquivos.size());
+        for (ParallelDirectoryWalker.Entrada entrada : arquivos) {
+            String caminho = BackupManifest.caminhoRelativo(origem, entrada.caminho());
+            caminhos.add(caminho);
+            lidosDaOrigem.add(entrada.caminho());
+            lidosDoBackup.add(backup.resolve(origem.relativize(entrada.caminho())));
+        }
+
+        return executar(caminhos, lidosDaOrigem, null, lidosDoBackup, (indice, verificacao) -> {
+            if (manifesto != null && verificacao.status() == Status.OK) {
+                ParallelDirectoryWalker.Entrada entrada = arquivos.get(indice);
+                manifesto.registrar(new BackupManifest.Entrada(verificacao.caminho(), entrada.atributos().size(),
+                        entrada.atributos().lastModifiedTime().toMillis(), verificacao.digestOrigem(), false));
+            }
+            ouvinte.accept(verificacao);
+        });
+    }
+
+    /**
+     * Confere o backup contra os SHA-256 do manifesto (tombstones são ignorados).
+     * Só o backup é lido: a origem pode nem existir mais.
+     */
+    public Relatorio verificarContraManifesto(Path backup, BackupManifest manifesto, Consumer<Verificacao> ouvinte)
+            throws IOException {
+        if (algoritmo != Algoritmo.SHA256) {
+            throw new IllegalArgumentException("O manifesto guarda SHA-256; use Algoritmo.SHA256");
+        }
+
+        List<String> caminhos = new ArrayList<>();
+        List<String> esperados = new ArrayList<>();
+        List<Path> lidosDoBackup = new ArrayList<>();
+        for (BackupManifest.Entrada entrada : manifesto.entradas()) {
+            if (!entrada.removido()) {
+                caminhos.add(entrada.caminho());
+                esperados.add(entrada.hash());
+                lidosDoBackup.add(backup.resolve(entrada.caminho()));
+            }
+        }
+        return executar(caminhos, null, esperados, lidosDoBackup, (indice, verificacao) -> ouvinte.accept(verificacao));
+    }
+
+    // =============================================
+    // EXECUÇÃO PARALELA
+    // =============================================
+
+    private interface Entrega {
+        void aceitar(int indice, Verificacao verificacao);
+    }
+
+    /**
+     * Digest de um lado (origem ou backup) de um arquivo.
+     */
+    private record Lado(int indice, boolean origem, String digest, long bytes, IOException erro) {
+    }
+
+    /**
+     * Para cada índice, compara o digest do backup com o da origem (calculado
+     * aqui se 'origens' não for null) ou com o digest já conhecido em 'esperados'.
+     */
+    private Relatorio executar(List<String> caminhos, List<Path> origens, List<String> esperados,
+                               List<Path> backups, Entrega entrega) throws IOException {
+        long inicio = System.nanoTime();
+        int total = caminhos.size();
+        AtomicInteger contador = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "verificador-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        CompletionService<Lado> conclusoes = new ExecutorCompletionService<>(pool);
+
+        int tarefas = 0;
+        for (int i = 0; i < total; i++) {
+            int indice = i;
+            if (origens != null) {
+                conclusoes.submit(() -> calcularLado(indice, true, origens.get(indice)));
+                tarefas++;
+            }
+            conclusoes.submit(() -> calcularLado(indice, false, backups.get(indice)));
+            tarefas++;
+        }
+
+        // Só a thread que chamou mexe nestes arrays: nenhuma sincronização extra
+        Lado[] primeiroLado = new Lado[total];
+        int ok = 0, divergentes = 0, ausentes = 0, erros = 0;
+        long bytesLidos = 0;
+        try {
+            for (int n = 0; n < tarefas; n++) {
+                Lado lado = conclusoes.take().get();
+                bytesLidos += lado.bytes();
+
+                Lado doBackup;
+                Lado daOrigem;
+                if (origens == null) {
+                    doBackup = lado;
+                    daOrigem = new Lado(lado.indice(), true, esperados.get(lado.indice()), 0, null);
+                } else if (primeiroLado[lado.indice()] == null) {
+                    primeiroLado[lado.indice()] = lado;
+                    continue;
+                } else {
+                    Lado outro = primeiroLado[lado.indice()];
+                    primeiroLado[lado.indice()] = null;
+                    doBackup = lado.origem() ? outro : lado;
+                    daOrigem = lado.origem() ? lado : outro;
+                }
+
+                Verificacao verificacao = comparar(caminhos.get(lado.indice()), daOrigem, doBackup);
+                switch (verificacao.status()) {
+                    case OK -> ok++;
+                    case DIVERGENTE -> divergentes++;
+                    case AUSENTE -> ausentes++;
+                    case ERRO -> erros++;
+                }
+                entrega.aceitar(lado.indice(), verificacao);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Verificação interrompida", e);
+        } catch (ExecutionException e) {
+            // calcularLado() já converte IOException em resultado; aqui só sobra bug
+            throw new IllegalStateException("Falha inesperada na verificação", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Relatorio(total, ok, divergentes, ausentes, erros, bytesLidos, System.nanoTime() - inicio);
+    }
+
+    private static Verificacao comparar(String caminho, Lado daOrigem, Lado doBackup) {
+        if (daOrigem.erro() != null) {
+            return new Verificacao(caminho, Status.ERRO, null, doBackup.digest(), daOrigem.erro());
+        }
+        if (doBackup.erro() instanceof NoSuchFileException) {
+            return new Verificacao(caminho, Status.AUSENTE, daOrigem.digest(), null, doBackup.erro());
+        }
+        if (doBackup.erro() != null) {
+            return new Verificacao(caminho, Status.ERRO, daOrigem.digest(), null, doBackup.erro());
+        }
+        Status status = daOrigem.digest().equals(doBackup.digest()) ? Status.OK : Status.DIVERGENTE;
+        return new Verificacao(caminho, status, daOrigem.digest(), doBackup.digest(), null);
+    }
+
+    private Lado calcularLado(int indice, boolean origem, Path arquivo) {
+        try {
+            long[] bytes = new long[1];
+            String digest = digest(arquivo, bytes);
+            return new Lado(indice, origem, digest, bytes[0], null);
+        } catch (IOException e) {
+            return new Lado(indice, origem, null, 0, e);
+        }
+    }
+
+    // =============================================
+    // DIGEST
+    // =============================================
+
+    /**
+     * CRC32C ou SHA-256 do arquivo, em hexadecimal.
+     */
+    public String digest(Path arquivo) throws IOException {
+        return digest(arquivo, new long[1]);
+    }
+
+    private String digest(Path arquivo, long[] bytesLidos) throws IOException {
+        CRC32C crc = algoritmo == Algoritmo.CRC32C ? new CRC32C() : null;
+        MessageDigest sha = algoritmo == Algoritmo.SHA256 ? BackupManifest.novoSha256() : null;
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            long lidos = 0;
+            if (tamanho >= LIMITE_MAPEAMENTO) {
+                for (long posicao = 0; posicao < tamanho; posicao += JANELA_MAPEAMENTO) {
+                    MappedByteBuffer janela = canal.map(FileChannel.MapMode.READ_ONLY, posicao,
+                            Math.min(JANELA_MAPEAMENTO, tamanho - posicao));
+                    lidos += janela.remaining();
+                    atualizar(crc, sha, janela);
+                }
+            } else {
+                ByteBuffer buffer = buffers.get();
+                buffer.clear();
+                while (canal.read(buffer) != -1) {
+                    buffer.flip();
+                    lidos += buffer.remaining();
+                    atualizar(crc, sha, buffer);
+                    buffer.clear();
+                }
+            }
+            bytesLidos[0] = lidos;
+        }
+
+        return crc != null
+                ? String.format("%08x", crc.getValue())
+                : HexFormat.of().formatHex(sha.digest());
+    }
+
+    private static void atualizar(CRC32C crc, MessageDigest sha, ByteBuffer dados) {
+        if (crc != null) {
+            crc.update(dados);
+        } else {
+            sha.update(dados);
+        }
+    }
+}
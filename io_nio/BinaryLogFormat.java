@@ -0,0 +1,156 @@
+package io_nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * BinaryLogFormat.java - Formato Binário de Log (Registros com Prefixo de Tamanho)
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Prefixo de tamanho - o leitor pula um registro inteiro sem olhar a mensagem
+ * - Campos fixos antes da mensagem - timestamp e nível ficam em offsets conhecidos
+ * - Timestamp em epoch millis (8 bytes) - sem formatar nem parsear datas
+ * - Nível em 1 byte - o código fixo do LogLevel (não o ordinal, que muda se o enum mudar)
+ * - Cabeçalho com número mágico - um .log de texto nunca é confundido com binário
+ *
+ * Layout (big-endian, o padrão do ByteBuffer):
+ *   arquivo  = "JTBL" versão(1) reservado(3) registro*
+ *   registro = tamanho(int, bytes que vêm depois dele) timestamp(long) nível(byte) mensagem(UTF-8)
+ *
+ * Uma linha de texto "yyyy-MM-dd HH:mm:ss [INFO] " gasta 27 bytes antes da
+ * mensagem; o registro binário gasta 13.
+ */
+public final class BinaryLogFormat {
+
+    public static final int VERSAO = 1;
+    public static final int TAMANHO_CABECALHO = 8;
+
+    /** tamanho(4) + timestamp(8) + nível(1) */
+    public static final int TAMANHO_FIXO_REGISTRO = 13;
+
+    /** Bytes contados no campo 'tamanho' além da mensagem: timestamp + nível. */
+    static final int TAMANHO_CORPO_FIXO = 9;
+
+    private static final byte[] MAGICO = "JTBL".getBytes(StandardCharsets.US_ASCII);
+
+    private BinaryLogFormat() {
+    }
+
+    /**
+     * Tamanho total do registro no arquivo, incluindo o prefixo.
+     */
+    public static int tamanhoRegistro(int tamanhoMensagem) {
+        return TAMANHO_FIXO_REGISTRO + tamanhoMensagem;
+    }
+
+    /**
+     * Escreve um registro no buffer (precisa de tamanhoRegistro(mensagem.length) bytes livres).
+     */
+    public static void escreverRegistro(ByteBuffer destino, long timestampMillis, LogLevel nivel, byte[] mensagem) {
+        destino.putInt(TAMANHO_CORPO_FIXO + mensagem.length)
+                .putLong(timestampMillis)
+                .put(nivel.codigo())
+                .put(mensagem);
+    }
+
+    public static void escreverCabecalho(ByteBuffer destino) {
+        destino.put(MAGICO).put((byte) VERSAO).put(new byte[TAMANHO_CABECALHO - MAGICO.length - 1]);
+    }
+
+    /**
+     * Arquivo vazio ganha cabeçalho; arquivo existente precisa ser um log binário desta versão.
+     * Um registro pela metade no fim (crash no meio da escrita) é cortado: sem isso, o
+     * próximo registro seria lido como o resto dele e o leitor perderia o alinhamento.
+     */
+    static void prepararCanal(FileChannel canal, Path arquivo) throws IOException {
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+        if (canal.size() == 0) {
+            escreverCabecalho(cabecalho);
+            cabecalho.flip();
+            while (cabecalho.hasRemaining()) {
+                canal.write(cabecalho);
+            }
+            return;
+        }
+
+        // O canal do appender é só de escrita (APPEND): o arquivo é lido por outro canal
+        try (FileChannel leitura = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            int lidos = 0;
+            while (cabecalho.hasRemaining() && lidos >= 0) {
+                lidos = leitura.read(cabecalho);
+            }
+            cabecalho.flip();
+            validarCabecalho(cabecalho, arquivo);
+
+            long tamanho = canal.size();
+            long fim = fimDosRegistrosCompletos(leitura, tamanho);
+            if (fim < tamanho) {
+                canal.truncate(fim);
+            }
+        }
+    }
+
+    /**
+     * Offset logo após o último registro completo (e com tamanho plausível).
+     * Lê só os prefixos de tamanho, em janelas de 64 KB.
+     */
+    static long fimDosRegistrosCompletos(FileChannel leitura, long tamanho) throws IOException {
+        ByteBuffer janela = ByteBuffer.allocate(64 * 1024);
+        long posicao = TAMANHO_CABECALHO;
+        while (tamanho - posicao >= Integer.BYTES) {
+            janela.clear();
+            janela.limit((int) Math.min(janela.capacity(), tamanho - posicao));
+            while (janela.hasRemaining() && leitura.read(janela, posicao + janela.position()) >= 0) {
+                // lê a janela inteira
+            }
+            janela.flip();
+            if (janela.remaining() < Integer.BYTES) {
+                return posicao; // arquivo encolheu durante a leitura
+            }
+
+            while (janela.remaining() >= Integer.BYTES) {
+                int corpo = janela.getInt(janela.position());
+                if (corpo < TAMANHO_CORPO_FIXO || corpo > tamanho - posicao - Integer.BYTES) {
+                    return posicao;
+                }
+                posicao += Integer.BYTES + corpo;
+                if (Integer.BYTES + corpo > janela.remaining()) {
+                    break; // registro passa do fim da janela: a próxima começa depois dele
+                }
+                janela.position(janela.position() + Integer.BYTES + corpo);
+            }
+        }
+        return posicao;
+    }
+
+    /**
+     * Confere número mágico e versão; consome os bytes do cabeçalho.
+     */
+    static void validarCabecalho(ByteBuffer origem, Path arquivo) throws IOException {
+        if (origem.remaining() < TAMANHO_CABECALHO) {
+            throw new IOException("Não é um log binário (cabeçalho incompleto): " + arquivo);
+        }
+        byte[] magico = new byte[MAGICO.length];
+        origem.get(magico);
+        if (!Arrays.equals(magico, MAGICO)) {
+            throw new IOException("Não é um log binário: " + arquivo);
+        }
+        int versao = origem.get();
+        if (versao != VERSAO) {
+            throw new IOException("Versão " + versao + " de log binário não suportada: " + arquivo);
+        }
+        origem.position(origem.position() + TAMANHO_CABECALHO - MAGICO.length - 1);
+    }
+
+    /**
+     * Nível a partir do byte gravado; null se o byte não é um código conhecido.
+     */
+    static LogLevel nivel(byte codigo) {
+        return LogLevel.deCodigo(codigo);
+    }
+}
@@ -0,0 +1,336 @@
+package io_nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * BinaryLogReader.java - Leitor Rápido do Log Binário
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Cursor - proximo() avança um registro; timestamp e nível são lidos
+ *   direto do arquivo mapeado, a mensagem só é decodificada se pedida
+ * - Filtro por nível e intervalo - registros recusados são pulados pelo
+ *   prefixo de tamanho, sem nenhum byte da mensagem ser tocado
+ * - FileChannel.map() em janelas - posições em long, arquivos maiores que 2 GB
+ * - Conversão para texto - mensagem copiada em bytes, sem virar String
+ * - Registro incompleto no fim (queda no meio da escrita) - tratado como fim do arquivo
+ *
+ * Formato descrito em BinaryLogFormat.
+ */
+public class BinaryLogReader implements AutoCloseable {
+
+    public static final long TAMANHO_JANELA_PADRAO = 64L * 1024 * 1024;
+
+    private static final byte[] QUEBRA_LINHA = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ABRE_NIVEL = " [".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FECHA_NIVEL = "] ".getBytes(StandardCharsets.US_ASCII);
+
+    private final Path arquivo;
+    private final FileChannel canal;
+    private final long tamanhoArquivo;
+    private final long tamanhoJanela;
+
+    private MappedByteBuffer janela;
+    private long inicioJanela;
+    private long proximoRegistro = BinaryLogFormat.TAMANHO_CABECALHO;
+
+    // Registro atual
+    private long offsetAtual = -1;
+    private long timestampAtual;
+    private LogLevel nivelAtual;
+    private int inicioMensagem;
+    private int tamanhoMensagem;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== BINARY LOG READER ===\n");
+
+        int entradas = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        Path texto = Paths.get("teste-binario.log");
+        Path binario = Paths.get("teste-binario.blog");
+        Path convertido = Paths.get("teste-binario-convertido.log");
+
+        // Mesmas entradas nos dois formatos
+        for (AsyncLogAppender.Formato formato : AsyncLogAppender.Formato.values()) {
+            Path destino = formato == AsyncLogAppender.Formato.TEXTO ? texto : binario;
+            try (AsyncLogAppender appender = new AsyncLogAppender(destino, AsyncLogAppender.CAPACIDADE_FILA_PADRAO,
+                    AsyncLogAppender.TAMANHO_BUFFER_PADRAO, AsyncLogAppender.PoliticaFlush.apenasNoFechamento(),
+                    null, false, formato)) {
+                for (int i = 0; i < entradas; i++) {
+                    LogLevel nivel = i % 100 == 0 ? LogLevel.ERROR : i % 10 == 0 ? LogLevel.WARN : LogLevel.INFO;
+                    appender.append(nivel.name(), "Pedido " + i + " processado pelo worker " + (i % 8));
+                }
+            }
+        }
+        System.out.printf("📄 Texto:   %,d bytes%n", Files.size(texto));
+        System.out.printf("📦 Binário: %,d bytes (%.0f%% do texto)%n", Files.size(binario),
+                Files.size(binario) * 100.0 / Files.size(texto));
+
+        // Contagem por nível: o texto precisa varrer as linhas; o binário lê 1 byte por registro
+        long inicio = System.nanoTime();
+        LogStatsAnalyzer.Estatisticas estatisticas = LogStatsAnalyzer.analisar(texto);
+        long nanosTexto = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        long erros;
+        try (BinaryLogReader leitor = abrir(binario)) {
+            erros = leitor.contar(Filtro.niveis(LogLevel.ERROR));
+        }
+        long nanosBinario = System.nanoTime() - inicio;
+        System.out.printf("🔍 ERROR no texto (LogStatsAnalyzer): %d em %.1f ms%n",
+                estatisticas.contagem(LogLevel.ERROR), nanosTexto / 1e6);
+        System.out.printf("🔍 ERROR no binário (sem decodificar): %d em %.1f ms%n", erros, nanosBinario / 1e6);
+
+        // Iteração com decodificação só do que passou no filtro
+        try (BinaryLogReader leitor = abrir(binario)) {
+            int[] mostrados = {0};
+            leitor.paraCada(Filtro.niveis(LogLevel.ERROR), registro -> {
+                if (mostrados[0]++ < 3) {
+                    System.out.println("  " + registro);
+                }
+            });
+        }
+
+        long linhas = converterParaTexto(binario, convertido, Filtro.todos());
+        System.out.printf("🔁 Convertido de volta para texto: %,d linhas, %,d bytes%n", linhas, Files.size(convertido));
+
+        Files.delete(texto);
+        Files.delete(binario);
+        Files.delete(convertido);
+    }
+
+    /**
+     * Quais registros interessam. 'ateMillis' é exclusivo.
+     */
+    public record Filtro(Set<LogLevel> niveis, long desdeMillis, long ateMillis) {
+
+        public static Filtro todos() {
+            return new Filtro(EnumSet.allOf(LogLevel.class), Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+
+        public static Filtro niveis(LogLevel primeiro, LogLevel... outros) {
+            return new Filtro(EnumSet.of(primeiro, outros), Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+
+        public Filtro entre(long desdeMillis, long ateMillis) {
+            return new Filtro(niveis, desdeMillis, ateMillis);
+        }
+
+        public boolean aceita(LogLevel nivel, long timestampMillis) {
+            return timestampMillis >= desdeMillis && timestampMillis < ateMillis && niveis.contains(nivel);
+        }
+    }
+
+    public record Registro(long timestampMillis, LogLevel nivel, String mensagem) {
+
+        @Override
+        public String toString() {
+            return new String(new CachedTimestampFormatter().bytes(timestampMillis), StandardCharsets.US_ASCII)
+                    + " [" + nivel + "] " + mensagem;
+        }
+    }
+
+    public static BinaryLogReader abrir(Path arquivo) throws IOException {
+        return new BinaryLogReader(arquivo, TAMANHO_JANELA_PADRAO);
+    }
+
+    public BinaryLogReader(Path arquivo, long tamanhoJanela) throws IOException {
+        if (tamanhoJanela <= 0 || tamanhoJanela > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Tamanho de janela inválido: " + tamanhoJanela);
+        }
+        this.arquivo = arquivo;
+        this.tamanhoJanela = tamanhoJanela;
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+        try {
+            this.tamanhoArquivo = canal.size();
+            if (!garantir(0, BinaryLogFormat.TAMANHO_CABECALHO)) {
+                throw new IOException("Não é um log binário (cabeçalho incompleto): " + arquivo);
+            }
+            BinaryLogFormat.validarCabecalho(janela.duplicate().position(0), arquivo);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    // =============================================
+    // CURSOR
+    // =============================================
+
+    /**
+     * Avança para o próximo registro. Retorna false no fim do arquivo.
+     */
+    public boolean proximo() throws IOException {
+        if (!garantir(proximoRegistro, 4)) {
+            return false;
+        }
+        int relativo = (int) (proximoRegistro - inicioJanela);
+        int tamanho = janela.getInt(relativo);
+        if (tamanho < BinaryLogFormat.TAMANHO_CORPO_FIXO) {
+            throw new IOException("Registro corrompido em " + arquivo + ", offset " + proximoRegistro);
+        }
+        if (!garantir(proximoRegistro, 4L + tamanho)) {
+            // Registro pela metade no fim: escrita interrompida ou ainda em andamento
+            return false;
+        }
+
+        relativo = (int) (proximoRegistro - inicioJanela);
+        offsetAtual = proximoRegistro;
+        timestampAtual = janela.getLong(relativo + 4);
+        nivelAtual = BinaryLogFormat.nivel(janela.get(relativo + 12));
+        if (nivelAtual == null) {
+            throw new IOException("Nível inválido em " + arquivo + ", offset " + proximoRegistro);
+        }
+        inicioMensagem = relativo + BinaryLogFormat.TAMANHO_FIXO_REGISTRO;
+        tamanhoMensagem = tamanho - BinaryLogFormat.TAMANHO_CORPO_FIXO;
+        proximoRegistro += 4L + tamanho;
+        return true;
+    }
+
+    /**
+     * Avança até o próximo registro aceito pelo filtro. As mensagens dos
+     * registros pulados nunca são lidas.
+     */
+    public boolean proximo(Filtro filtro) throws IOException {
+        while (proximo()) {
+            if (filtro.aceita(nivelAtual, timestampAtual)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long offset() {
+        return offsetAtual;
+    }
+
+    public long timestampMillis() {
+        return timestampAtual;
+    }
+
+    public LogLevel nivel() {
+        return nivelAtual;
+    }
+
+    public int tamanhoMensagem() {
+        return tamanhoMensagem;
+    }
+
+    /**
+     * Decodifica a mensagem do registro atual (único ponto que cria String).
+     */
+    public String mensagem() {
+        byte[] bytes = new byte[tamanhoMensagem];
+        janela.get(inicioMensagem, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copia os bytes UTF-8 da mensagem atual para o buffer, sem decodificar.
+     */
+    public void copiarMensagem(ByteBuffer destino) {
+        destino.put(janela.slice(inicioMensagem, tamanhoMensagem));
+    }
+
+    public Registro registro() {
+        return new Registro(timestampAtual, nivelAtual, mensagem());
+    }
+
+    // =============================================
+    // CONVENIÊNCIAS
+    // =============================================
+
+    public void paraCada(Filtro filtro, Consumer<Registro> consumidor) throws IOException {
+        while (proximo(filtro)) {
+            consumidor.accept(registro());
+        }
+    }
+
+    public long contar(Filtro filtro) throws IOException {
+        long total = 0;
+        while (proximo(filtro)) {
+            total++;
+        }
+        return total;
+    }
+
+    /**
+     * Gera o texto no formato do escreverLog(): "yyyy-MM-dd HH:mm:ss [NIVEL] mensagem".
+     * Retorna o número de linhas escritas.
+     */
+    public static long converterParaTexto(Path binario, Path texto, Filtro filtro) throws IOException {
+        CachedTimestampFormatter timestamps = new CachedTimestampFormatter();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+        long linhas = 0;
+
+        try (BinaryLogReader leitor = abrir(binario);
+             FileChannel saida = FileChannel.open(texto, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (leitor.proximo(filtro)) {
+                byte[] nivel = leitor.nivel().bytes();
+                int tamanhoLinha = CachedTimestampFormatter.TAMANHO + ABRE_NIVEL.length + nivel.length
+                        + FECHA_NIVEL.length + leitor.tamanhoMensagem() + QUEBRA_LINHA.length;
+                if (tamanhoLinha > buffer.remaining()) {
+                    esvaziar(buffer, saida);
+                }
+                ByteBuffer destino = tamanhoLinha <= buffer.capacity() ? buffer : ByteBuffer.allocate(tamanhoLinha);
+                timestamps.escrever(leitor.timestampMillis(), destino);
+                destino.put(ABRE_NIVEL).put(nivel).put(FECHA_NIVEL);
+                leitor.copiarMensagem(destino);
+                destino.put(QUEBRA_LINHA);
+                if (destino != buffer) {
+                    esvaziar(destino, saida);
+                }
+                linhas++;
+            }
+            esvaziar(buffer, saida);
+        }
+        return linhas;
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    // =============================================
+    // MÉTODOS AUXILIARES
+    // =============================================
+
+    /**
+     * Garante que [posicao, posicao + bytes) está na janela mapeada, remapeando
+     * a partir de 'posicao' se preciso. False se passar do fim do arquivo.
+     */
+    private boolean garantir(long posicao, long bytes) throws IOException {
+        if (posicao + bytes > tamanhoArquivo) {
+            return false;
+        }
+        if (janela != null && posicao >= inicioJanela && posicao + bytes <= inicioJanela + janela.capacity()) {
+            return true;
+        }
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Registro grande demais em " + arquivo + ", offset " + posicao);
+        }
+        long tamanho = Math.min(Math.max(tamanhoJanela, bytes), tamanhoArquivo - posicao);
+        janela = canal.map(FileChannel.MapMode.READ_ONLY, posicao, tamanho);
+        inicioJanela = posicao;
+        return true;
+    }
+
+    private static void esvaziar(ByteBuffer buffer, FileChannel saida) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            saida.write(buffer);
+        }
+        buffer.clear();
+    }
+}
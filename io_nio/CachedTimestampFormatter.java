@@ -0,0 +1,154 @@
+package io_nio;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * CachedTimestampFormatter.java - Timestamp de Log Formatado Uma Vez por Segundo
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Cache do segundo atual - milhares de linhas no mesmo segundo reaproveitam
+ *   os mesmos 19 bytes "yyyy-MM-dd HH:mm:ss"
+ * - Bytes ASCII prontos - vão direto para o ByteBuffer, sem String no caminho
+ * - Fuso horário resolvido a cada segundo novo - horário de verão continua certo
+ * - Uma thread só - feito para a thread escritora do AsyncLogAppender (sem locks)
+ *
+ * O main() compara três caminhos: o escreverLog() original (formatter criado a
+ * cada linha + String.format), a montagem com String e o cache em bytes.
+ */
+public class CachedTimestampFormatter {
+
+    public static final int TAMANHO = "yyyy-MM-dd HH:mm:ss".length();
+
+    private static final DateTimeFormatter FORMATO = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final ZoneId fuso;
+
+    private long segundoEmCache = Long.MIN_VALUE;
+    private byte[] bytesEmCache;
+    private LocalDateTime momentoEmCache;
+
+    public static void main(String[] args) {
+        System.out.println("=== CACHED TIMESTAMP FORMATTER (benchmark) ===\n");
+
+        int iteracoes = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        String mensagem = "Pedido 12345 processado em 12 ms";
+
+        // Aquecimento: deixa o JIT compilar os três caminhos antes de medir
+        for (int rodada = 0; rodada < 3; rodada++) {
+            caminhoOriginal(iteracoes / 10, mensagem);
+            caminhoString(iteracoes / 10, mensagem);
+            caminhoEmCache(iteracoes / 10, mensagem);
+        }
+
+        medir("escreverLog() original (ofPattern + String.format)", iteracoes,
+                () -> caminhoOriginal(iteracoes, mensagem));
+        medir("Formatter estático + concatenação + getBytes", iteracoes,
+                () -> caminhoString(iteracoes, mensagem));
+        medir("CachedTimestampFormatter + bytes no ByteBuffer", iteracoes,
+                () -> caminhoEmCache(iteracoes, mensagem));
+    }
+
+    public CachedTimestampFormatter() {
+        this(ZoneId.systemDefault());
+    }
+
+    public CachedTimestampFormatter(ZoneId fuso) {
+        this.fuso = fuso;
+    }
+
+    /**
+     * Os 19 bytes ASCII do segundo que contém 'epochMillis'.
+     * O array é compartilhado: não modifique.
+     */
+    public byte[] bytes(long epochMillis) {
+        atualizar(epochMillis);
+        return bytesEmCache;
+    }
+
+    /**
+     * Escreve o timestamp no buffer (precisa de TAMANHO bytes livres).
+     */
+    public void escrever(long epochMillis, ByteBuffer destino) {
+        destino.put(bytes(epochMillis));
+    }
+
+    /**
+     * Data/hora local do segundo, para quem precisa dos campos (ex.: chave do índice).
+     */
+    public LocalDateTime momento(long epochMillis) {
+        atualizar(epochMillis);
+        return momentoEmCache;
+    }
+
+    private void atualizar(long epochMillis) {
+        long segundo = Math.floorDiv(epochMillis, 1000);
+        if (segundo != segundoEmCache) {
+            // Só aqui há alocação e formatação: no máximo uma vez por segundo
+            momentoEmCache = LocalDateTime.ofInstant(Instant.ofEpochSecond(segundo), fuso);
+            bytesEmCache = momentoEmCache.format(FORMATO).getBytes(StandardCharsets.US_ASCII);
+            segundoEmCache = segundo;
+        }
+    }
+
+    // =============================================
+    // BENCHMARK
+    // =============================================
+
+    private static long sumidouro;
+
+    private static void medir(String nome, int iteracoes, Runnable caminho) {
+        long inicio = System.nanoTime();
+        caminho.run();
+        long duracao = System.nanoTime() - inicio;
+        System.out.printf("⏱️ %-52s %6.1f ns/linha  (%,.0f linhas/s)%n", nome,
+                (double) duracao / iteracoes, iteracoes * 1_000_000_000.0 / duracao);
+    }
+
+    /**
+     * O escreverLog() original, sem a parte de I/O.
+     */
+    private static void caminhoOriginal(int iteracoes, String mensagem) {
+        long total = 0;
+        for (int i = 0; i < iteracoes; i++) {
+            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+            String linha = String.format("%s [%s] %s%n", timestamp, "INFO", mensagem);
+            total += linha.getBytes(StandardCharsets.UTF_8).length;
+        }
+        sumidouro += total;
+    }
+
+    private static void caminhoString(int iteracoes, String mensagem) {
+        ZoneId fuso = ZoneId.systemDefault();
+        long total = 0;
+        for (int i = 0; i < iteracoes; i++) {
+            LocalDateTime momento = LocalDateTime.ofInstant(Instant.ofEpochMilli(System.currentTimeMillis()), fuso);
+            byte[] linha = (momento.format(FORMATO) + " [" + "INFO" + "] " + mensagem + "\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            total += linha.length;
+        }
+        sumidouro += total;
+    }
+
+    private static void caminhoEmCache(int iteracoes, String mensagem) {
+        CachedTimestampFormatter formatter = new CachedTimestampFormatter();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        byte[] nivel = LogLevel.INFO.bytes();
+        long total = 0;
+        for (int i = 0; i < iteracoes; i++) {
+            if (buffer.remaining() < 256) {
+                total += buffer.position();
+                buffer.clear();
+            }
+            formatter.escrever(System.currentTimeMillis(), buffer);
+            buffer.put((byte) ' ').put((byte) '[').put(nivel).put((byte) ']').put((byte) ' ');
+            buffer.put(mensagem.getBytes(StandardCharsets.UTF_8));
+            buffer.put((byte) '\n');
+        }
+        sumidouro += total + buffer.position();
+    }
+}
@@ -0,0 +1,345 @@
+package io_nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * CharsetTranscoder.java - Conversão de Encoding em Streaming
+ *
+ * CONCEITOS IMPORTANTES:
+ * - CharsetDecoder / CharsetEncoder - bytes → chars → bytes, em pedaços,
+ *   sem nunca montar uma String com o arquivo inteiro
+ * - Buffers reutilizáveis - alocados uma vez por instância; são de heap
+ *   porque os coders do JDK só usam o laço rápido quando origem e destino
+ *   têm array (com ByteBuffer direto a conversão caiu de ~140 para ~95 MB/s)
+ * - Caminho rápido ASCII - bytes < 0x80 valem o mesmo em UTF-8, ASCII,
+ *   ISO-8859-x e windows-125x: são copiados sem decodificar
+ * - Memória constante - o arquivo pode ter qualquer tamanho
+ *
+ * Uma instância reaproveita buffers e coders: NÃO é thread-safe.
+ */
+public class CharsetTranscoder {
+
+    public static final int TAMANHO_BUFFER_PADRAO = 256 * 1024;
+
+    /**
+     * Trechos ASCII menores que isso ficam com o decoder: alternar entre os
+     * dois caminhos a cada acento custaria mais do que decodificar.
+     */
+    private static final int TRECHO_ASCII_MINIMO = 32;
+
+    private static final long MASCARA_ASCII = 0x8080_8080_8080_8080L;
+
+    private final CharsetDecoder decoder;
+    private final CharsetEncoder encoder;
+    private final boolean caminhoRapido;
+
+    private final ByteBuffer entrada;
+    private final CharBuffer chars;
+    private final ByteBuffer saida;
+
+    private WritableByteChannel destinoAtual;
+    private long bytesEscritos;
+    private long bytesAscii;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== CHARSET TRANSCODER ===\n");
+
+        int megabytes = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        Path latin1 = Paths.get("teste-transcoder-latin1.txt");
+        Path utf8 = Paths.get("teste-transcoder-utf8.txt");
+        Path volta = Paths.get("teste-transcoder-volta.txt");
+
+        // Exportação típica: a maioria das linhas é ASCII puro, uma em cada dez tem acentos
+        byte[] ascii = "2024-03-15;SAO PAULO;PEDIDO 000123;R$ 1.234,56;cliente=ACME LTDA;status=OK\n"
+                .getBytes(StandardCharsets.ISO_8859_1);
+        byte[] acentuada = "2024-03-15;São Paulo;Ação concluída;R$ 1.234,56;cliente=João;status=OK\n"
+                .getBytes(StandardCharsets.ISO_8859_1);
+        try (FileChannel canal = FileChannel.open(latin1, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer bloco = ByteBuffer.allocate(1024 * 1024);
+            long alvo = (long) megabytes * 1024 * 1024;
+            long linhas = 0;
+            for (long escrito = 0; escrito < alvo; escrito += bloco.capacity()) {
+                bloco.clear();
+                while (bloco.remaining() >= Math.max(ascii.length, acentuada.length)) {
+                    bloco.put(linhas++ % 10 == 0 ? acentuada : ascii);
+                }
+                bloco.flip();
+                while (bloco.hasRemaining()) {
+                    canal.write(bloco);
+                }
+            }
+        }
+        System.out.println("📄 Gerado " + latin1 + " (" + Files.size(latin1) / (1024 * 1024) + " MB, ISO-8859-1)");
+
+        Relatorio ida = new CharsetTranscoder(StandardCharsets.ISO_8859_1, StandardCharsets.UTF_8)
+                .transcodificar(latin1, utf8);
+        System.out.println("➡️ ISO-8859-1 → UTF-8: " + ida);
+
+        Relatorio retorno = new CharsetTranscoder(StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1)
+                .transcodificar(utf8, volta);
+        System.out.println("⬅️ UTF-8 → ISO-8859-1: " + retorno);
+        System.out.println("🔍 Ida e volta idênticas? " + (Files.mismatch(latin1, volta) == -1));
+
+        Files.delete(latin1);
+        Files.delete(utf8);
+        Files.delete(volta);
+    }
+
+    public record Relatorio(long bytesLidos, long bytesEscritos, long bytesAscii, long duracaoNanos) {
+
+        public double mbPorSegundo() {
+            return duracaoNanos == 0 ? 0 : bytesLidos / (1024.0 * 1024.0) / (duracaoNanos / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("📥 %d bytes → 📤 %d bytes, ⚡ %.0f MB/s, 🚀 %.0f%% pelo caminho rápido ASCII",
+                    bytesLidos, bytesEscritos, mbPorSegundo(),
+                    bytesLidos == 0 ? 0 : bytesAscii * 100.0 / bytesLidos);
+        }
+    }
+
+    /**
+     * Erros de codificação (bytes inválidos, caractere sem representação no
+     * destino) lançam CharacterCodingException.
+     */
+    public CharsetTranscoder(Charset origem, Charset destino) {
+        this(origem, destino, TAMANHO_BUFFER_PADRAO, CodingErrorAction.REPORT);
+    }
+
+    /**
+     * @param acaoErro REPORT para falhar, REPLACE para trocar por '?'/U+FFFD, IGNORE para descartar
+     */
+    public CharsetTranscoder(Charset origem, Charset destino, int tamanhoBuffer, CodingErrorAction acaoErro) {
+        if (tamanhoBuffer < 1024) {
+            throw new IllegalArgumentException("Buffer deve ter pelo menos 1 KB");
+        }
+        this.decoder = origem.newDecoder()
+                .onMalformedInput(acaoErro)
+                .onUnmappableCharacter(acaoErro);
+        this.encoder = destino.newEncoder()
+                .onMalformedInput(acaoErro)
+                .onUnmappableCharacter(acaoErro);
+        this.caminhoRapido = compativelComAscii(origem) && compativelComAscii(destino);
+
+        this.entrada = ByteBuffer.allocate(tamanhoBuffer);
+        this.chars = CharBuffer.allocate(tamanhoBuffer);
+        this.saida = ByteBuffer.allocate(tamanhoBuffer);
+    }
+
+    /**
+     * Charsets sem estado em que os bytes 0x00-0x7F são exatamente os
+     * caracteres ASCII (e nunca aparecem no meio de um caractere multibyte).
+     */
+    public static boolean compativelComAscii(Charset charset) {
+        String nome = charset.name();
+        return charset.equals(StandardCharsets.US_ASCII)
+                || charset.equals(StandardCharsets.UTF_8)
+                || nome.startsWith("ISO-8859-")
+                || nome.startsWith("windows-125");
+    }
+
+    public Relatorio transcodificar(Path origem, Path destino) throws IOException {
+        try (FileChannel leitura = FileChannel.open(origem, StandardOpenOption.READ);
+             FileChannel escrita = FileChannel.open(destino, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            return transcodificar(leitura, escrita);
+        }
+    }
+
+    /**
+     * Lê tudo de 'origem' e escreve convertido em 'destino'. Os canais não são fechados.
+     */
+    public Relatorio transcodificar(ReadableByteChannel origem, WritableByteChannel destino) throws IOException {
+        long inicio = System.nanoTime();
+        decoder.reset();
+        encoder.reset();
+        entrada.clear();
+        chars.clear();
+        saida.clear();
+        destinoAtual = destino;
+        bytesEscritos = 0;
+        bytesAscii = 0;
+        long bytesLidos = 0;
+
+        try {
+            boolean fim = false;
+            while (!fim) {
+                int lidos = origem.read(entrada);
+                if (lidos == -1) {
+                    fim = true;
+                } else {
+                    bytesLidos += lidos;
+                }
+                entrada.flip();
+                processar(fim);
+                // Sobra = sequência multibyte incompleta; completa na próxima leitura
+                entrada.compact();
+            }
+
+            // O decoder precisa ver endOfInput mesmo se o último trecho foi ASCII;
+            // depois, flush dos dois coders: estado interno pendente vira bytes
+            entrada.flip();
+            decodificar(true);
+            CoderResult resultado;
+            while ((resultado = decoder.flush(chars)).isOverflow()) {
+                encodar(false);
+            }
+            verificar(resultado);
+            encodar(true);
+            while ((resultado = encoder.flush(saida)).isOverflow()) {
+                descarregar();
+            }
+            verificar(resultado);
+            descarregar();
+        } finally {
+            destinoAtual = null;
+        }
+
+        return new Relatorio(bytesLidos, bytesEscritos, bytesAscii, System.nanoTime() - inicio);
+    }
+
+    // =============================================
+    // LAÇO PRINCIPAL
+    // =============================================
+
+    /**
+     * Consome 'entrada' alternando entre trechos ASCII longos (cópia direta)
+     * e trechos mistos (decoder + encoder).
+     */
+    private void processar(boolean fim) throws IOException {
+        int limite = entrada.limit();
+        while (entrada.hasRemaining()) {
+            int posicao = entrada.position();
+
+            if (caminhoRapido && chars.position() == 0) {
+                int fimAscii = fimTrechoAscii(posicao, limite);
+                if (fimAscii - posicao >= TRECHO_ASCII_MINIMO || (fimAscii == limite && fimAscii > posicao)) {
+                    copiarAscii(fimAscii);
+                    continue;
+                }
+            }
+
+            // Trecho misto: vai até o próximo trecho ASCII longo (ou o fim do buffer)
+            // (nunca vazio: com chars pendentes o caminho rápido pode ter sido pulado num trecho ASCII)
+            int fimMisto = caminhoRapido ? Math.max(inicioProximoTrechoAscii(posicao, limite), posicao + 1) : limite;
+            entrada.limit(fimMisto);
+            boolean ultimoPedaco = fim && fimMisto == limite;
+            decodificar(ultimoPedaco);
+            int parou = entrada.position();
+            entrada.limit(limite);
+            if (parou < fimMisto) {
+                // Só acontece no fim do buffer com caractere cortado: espera mais bytes
+                break;
+            }
+        }
+    }
+
+    /**
+     * Primeira posição a partir de 'inicio' com byte >= 0x80. Testa 8 bytes por vez.
+     */
+    private int fimTrechoAscii(int inicio, int limite) {
+        int i = inicio;
+        while (i + 8 <= limite && (entrada.getLong(i) & MASCARA_ASCII) == 0) {
+            i += 8;
+        }
+        while (i < limite && entrada.get(i) >= 0) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Início do próximo trecho com TRECHO_ASCII_MINIMO bytes ASCII, procurado
+     * de 8 em 8 bytes (trechos um pouco maiores que o mínimo sempre são achados).
+     * Um byte < 0x80 sempre começa um caractere nesses charsets, então cortar
+     * ali nunca parte um caractere multibyte.
+     */
+    private int inicioProximoTrechoAscii(int inicio, int limite) {
+        int palavrasAscii = 0;
+        for (int i = inicio; i + 8 <= limite; i += 8) {
+            if ((entrada.getLong(i) & MASCARA_ASCII) != 0) {
+                palavrasAscii = 0;
+            } else if (++palavrasAscii == TRECHO_ASCII_MINIMO / 8) {
+                return i + 8 - TRECHO_ASCII_MINIMO;
+            }
+        }
+        return limite;
+    }
+
+    private void copiarAscii(int fimAscii) throws IOException {
+        int limite = entrada.limit();
+        while (entrada.position() < fimAscii) {
+            if (!saida.hasRemaining()) {
+                descarregar();
+            }
+            int quantidade = Math.min(fimAscii - entrada.position(), saida.remaining());
+            entrada.limit(entrada.position() + quantidade);
+            saida.put(entrada);
+            entrada.limit(limite);
+            bytesAscii += quantidade;
+        }
+    }
+
+    private void decodificar(boolean fim) throws IOException {
+        while (true) {
+            CoderResult resultado = decoder.decode(entrada, chars, fim);
+            verificar(resultado);
+            encodar(false);
+            if (resultado.isUnderflow()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Passa os chars acumulados pelo encoder, descarregando a saída quando encher.
+     */
+    private void encodar(boolean fim) throws IOException {
+        chars.flip();
+        try {
+            while (true) {
+                CoderResult resultado = encoder.encode(chars, saida, fim);
+                verificar(resultado);
+                if (resultado.isOverflow()) {
+                    descarregar();
+                    continue;
+                }
+                return;
+            }
+        } finally {
+            chars.compact();
+        }
+    }
+
+    private void descarregar() throws IOException {
+        saida.flip();
+        while (saida.hasRemaining()) {
+            bytesEscritos += destinoAtual.write(saida);
+        }
+        saida.clear();
+    }
+
+    private static void verificar(CoderResult resultado) throws CharacterCodingException {
+        if (resultado.isError()) {
+            resultado.throwException();
+        }
+    }
+}
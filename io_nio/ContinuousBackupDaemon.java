@@ -0,0 +1,425 @@
+package io_nio;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * ContinuousBackupDaemon.java - Backup Contínuo com WatchService
+ *
+ * CONCEITOS IMPORTANTES:
+ * - WatchService - o sistema operacional avisa quando algo muda na pasta
+ * - Um registro por diretório - o WatchService não é recursivo, então cada
+ *   subpasta (inclusive as criadas depois) é registrada
+ * - Debounce - rajadas de eventos do mesmo arquivo viram UMA cópia, feita
+ *   quando o arquivo fica quieto por 'debounceMillis'
+ * - OVERFLOW - eventos foram perdidos; reescaneia só o diretório afetado
+ * - Pool limitado - fila cheia faz o agendador copiar ele mesmo (backpressure)
+ *
+ * Arquivos apagados na origem NÃO são apagados no backup: a última versão
+ * salva continua disponível.
+ */
+public class ContinuousBackupDaemon implements AutoCloseable {
+
+    public static final long DEBOUNCE_PADRAO_MILLIS = 500;
+    public static final int CAPACIDADE_FILA_PADRAO = 1024;
+
+    private final Path origem;
+    private final Path destino;
+    private final long debounceMillis;
+
+    private final WatchService watcher;
+    private final Map<WatchKey, Path> diretorios = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Path, Pendencia> pendentes = new ConcurrentHashMap<>();
+    private final Set<Path> emCopia = ConcurrentHashMap.newKeySet();
+
+    private final ThreadPoolExecutor copiadores;
+    private final ScheduledExecutorService agendador;
+    private final Thread observador;
+    private volatile boolean rodando;
+
+    // Métricas
+    private final AtomicLong copiados = new AtomicLong();
+    private final AtomicLong bytesCopiados = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+    private final AtomicLong atrasoUltimoMillis = new AtomicLong();
+    private final AtomicLong atrasoMaximoMillis = new AtomicLong();
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        System.out.println("=== BACKUP CONTÍNUO (WATCHSERVICE) ===\n");
+
+        Path origem = Files.createDirectories(Paths.get("teste-continuo-origem"));
+        Path destino = Paths.get("teste-continuo-backup");
+        Files.writeString(origem.resolve("existente.txt"), "Criado antes do daemon");
+
+        try (ContinuousBackupDaemon daemon = new ContinuousBackupDaemon(origem, destino, 2, CAPACIDADE_FILA_PADRAO, 200)) {
+            daemon.iniciar();
+            System.out.println("👀 Observando " + origem + " → " + destino);
+
+            // Rajada: 50 escritas no mesmo arquivo devem virar poucas cópias
+            for (int i = 1; i <= 50; i++) {
+                Files.writeString(origem.resolve("rascunho.txt"), "Versão " + i);
+            }
+            // Subpasta nova: é registrada na hora e reescaneada
+            Path subpasta = Files.createDirectories(origem.resolve("fotos/2024"));
+            Files.writeString(subpasta.resolve("praia.jpg"), "bytes da foto");
+
+            System.out.println("📊 Logo após as escritas: " + daemon.metricas());
+            Thread.sleep(2000);
+            System.out.println("📊 Após o debounce:       " + daemon.metricas());
+        }
+
+        try (Stream<Path> arquivos = Files.walk(destino)) {
+            arquivos.filter(Files::isRegularFile).sorted().forEach(arquivo -> {
+                try {
+                    System.out.println("  ✅ " + destino.relativize(arquivo) + " = " + Files.readString(arquivo));
+                } catch (IOException e) {
+                    System.out.println("  ❌ " + arquivo + ": " + e.getMessage());
+                }
+            });
+        }
+
+        // Limpar
+        for (Path pasta : new Path[]{origem, destino}) {
+            try (Stream<Path> arquivos = Files.walk(pasta)) {
+                for (Path arquivo : arquivos.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(arquivo);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fotografia das métricas do daemon.
+     *
+     * @param pendentes          arquivos alterados aguardando o debounce
+     * @param filaCopia          cópias aguardando um copiador livre
+     * @param atrasoAtualMillis  idade da alteração mais antiga ainda não salva
+     * @param atrasoUltimoMillis do primeiro evento à cópia concluída, na última cópia
+     * @param atrasoMaximoMillis pior atraso observado desde o início
+     */
+    public record Metricas(int pendentes, int filaCopia, long copiados, long bytesCopiados, long falhas,
+                           long overflows, long atrasoAtualMillis, long atrasoUltimoMillis,
+                           long atrasoMaximoMillis) {
+        @Override
+        public String toString() {
+            return String.format("⏳ pendentes=%d 📥 fila=%d 📄 copiados=%d (%d bytes) ❌ falhas=%d ⚠️ overflows=%d"
+                            + " ⏱️ atraso atual/último/máx=%d/%d/%d ms",
+                    pendentes, filaCopia, copiados, bytesCopiados, falhas, overflows,
+                    atrasoAtualMillis, atrasoUltimoMillis, atrasoMaximoMillis);
+        }
+    }
+
+    /**
+     * Rajada de eventos de um arquivo: quando começou e o evento mais recente.
+     */
+    private record Pendencia(long primeiroEventoMillis, long ultimoEventoMillis) {
+    }
+
+    /**
+     * Daemon com uma thread de cópia por núcleo e debounce padrão.
+     */
+    public ContinuousBackupDaemon(Path origem, Path destino) throws IOException {
+        this(origem, destino, Runtime.getRuntime().availableProcessors(), CAPACIDADE_FILA_PADRAO,
+                DEBOUNCE_PADRAO_MILLIS);
+    }
+
+    /**
+     * @param threads        copiadores simultâneos
+     * @param capacidadeFila cópias que podem esperar por um copiador
+     * @param debounceMillis silêncio exigido antes de copiar um arquivo alterado
+     */
+    public ContinuousBackupDaemon(Path origem, Path destino, int threads, int capacidadeFila, long debounceMillis)
+            throws IOException {
+        if (threads <= 0 || capacidadeFila <= 0 || debounceMillis < 0) {
+            throw new IllegalArgumentException("Threads e capacidade devem ser positivos, debounce não negativo");
+        }
+        this.origem = origem.toAbsolutePath().normalize();
+        this.destino = destino.toAbsolutePath().normalize();
+        this.debounceMillis = debounceMillis;
+        this.watcher = origem.getFileSystem().newWatchService();
+
+        AtomicInteger contador = new AtomicInteger();
+        this.copiadores = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila), r -> {
+            Thread t = new Thread(r, "backup-copiador-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "backup-agendador");
+            t.setDaemon(true);
+            return t;
+        });
+        this.observador = new Thread(this::loopObservador, "backup-observador");
+        this.observador.setDaemon(true);
+    }
+
+    /**
+     * Registra a árvore, começa a observar e agenda um rescan completo para
+     * salvar o que mudou enquanto o daemon estava parado.
+     */
+    public void iniciar() throws IOException {
+        if (rodando) {
+            throw new IllegalStateException("Daemon já iniciado");
+        }
+        Files.createDirectories(destino);
+        // Registrar ANTES do rescan: o que mudar durante o rescan gera evento
+        registrarArvore(origem);
+        rodando = true;
+        observador.start();
+
+        long intervalo = Math.max(10, debounceMillis / 4);
+        agendador.scheduleWithFixedDelay(this::despacharMaduros, intervalo, intervalo, TimeUnit.MILLISECONDS);
+        agendador.execute(() -> reescanear(origem));
+    }
+
+    public Metricas metricas() {
+        long agora = System.currentTimeMillis();
+        long maisAntigo = agora;
+        for (Pendencia pendencia : pendentes.values()) {
+            maisAntigo = Math.min(maisAntigo, pendencia.primeiroEventoMillis());
+        }
+        return new Metricas(pendentes.size(), copiadores.getQueue().size(), copiados.get(), bytesCopiados.get(),
+                falhas.get(), overflows.get(), agora - maisAntigo, atrasoUltimoMillis.get(), atrasoMaximoMillis.get());
+    }
+
+    /**
+     * Para de observar e salva tudo o que ainda estava pendente, sem esperar o debounce.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!rodando) {
+            watcher.close();
+            copiadores.shutdownNow();
+            agendador.shutdownNow();
+            return;
+        }
+        rodando = false;
+        watcher.close();
+        try {
+            observador.join();
+            agendador.shutdown();
+            agendador.awaitTermination(1, TimeUnit.MINUTES);
+
+            for (Path arquivo : pendentes.keySet()) {
+                Pendencia pendencia = pendentes.remove(arquivo);
+                if (pendencia != null) {
+                    copiadores.execute(() -> copiar(arquivo, pendencia));
+                }
+            }
+            copiadores.shutdown();
+            if (!copiadores.awaitTermination(1, TimeUnit.MINUTES)) {
+                copiadores.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            agendador.shutdownNow();
+            copiadores.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // =============================================
+    // OBSERVAÇÃO
+    // =============================================
+
+    private void loopObservador() {
+        while (rodando) {
+            WatchKey chave;
+            try {
+                chave = watcher.take();
+            } catch (ClosedWatchServiceException | InterruptedException e) {
+                return;
+            }
+
+            Path diretorio = diretorios.get(chave);
+            for (WatchEvent<?> evento : chave.pollEvents()) {
+                WatchEvent.Kind<?> tipo = evento.kind();
+                if (tipo == StandardWatchEventKinds.OVERFLOW) {
+                    // Eventos perdidos: só o diretório dessa chave precisa ser conferido
+                    overflows.incrementAndGet();
+                    Path alvo = diretorio != null ? diretorio : origem;
+                    agendador.execute(() -> reescanear(alvo));
+                    continue;
+                }
+                if (diretorio == null || tipo == StandardWatchEventKinds.ENTRY_DELETE) {
+                    continue;
+                }
+
+                Path caminho = diretorio.resolve((Path) evento.context());
+                if (tipo == StandardWatchEventKinds.ENTRY_CREATE
+                        && Files.isDirectory(caminho, LinkOption.NOFOLLOW_LINKS)) {
+                    // Pasta nova: registrar e reescanear, porque arquivos podem ter
+                    // sido criados nela antes do registro
+                    agendador.execute(() -> reescanear(caminho));
+                } else {
+                    marcar(caminho);
+                }
+            }
+
+            if (!chave.reset()) {
+                // Diretório apagado ou inacessível
+                diretorios.remove(chave);
+            }
+        }
+    }
+
+    private void registrarArvore(Path raiz) throws IOException {
+        Files.walkFileTree(raiz, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path diretorio, BasicFileAttributes atributos) throws IOException {
+                if (diretorio.startsWith(destino)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                WatchKey chave = diretorio.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                diretorios.put(chave, diretorio);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path arquivo, IOException erro) {
+                // Sumiu durante o registro: nada a observar
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Confere a subárvore contra o backup e marca o que está diferente.
+     * Roda no agendador, fora da thread que consome eventos.
+     */
+    private void reescanear(Path raiz) {
+        try {
+            registrarArvore(raiz);
+            new ParallelDirectoryWalker().percorrer(raiz, (arquivo, atributos) -> {
+                if (atributos.isRegularFile() && desatualizado(arquivo, atributos)) {
+                    marcar(arquivo);
+                }
+            });
+        } catch (NoSuchFileException e) {
+            // A pasta sumiu antes do rescan
+        } catch (IOException | ClosedWatchServiceException e) {
+            if (rodando) {
+                falhas.incrementAndGet();
+                System.err.println("❌ Rescan de " + raiz + " falhou: " + e.getMessage());
+            }
+        }
+    }
+
+    private boolean desatualizado(Path arquivo, BasicFileAttributes atributos) {
+        try {
+            BasicFileAttributes copia = Files.readAttributes(copiaDe(arquivo), BasicFileAttributes.class);
+            return copia.size() != atributos.size()
+                    || !copia.lastModifiedTime().equals(atributos.lastModifiedTime());
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    // =============================================
+    // DEBOUNCE E CÓPIA
+    // =============================================
+
+    /**
+     * Junta eventos do mesmo caminho: mantém o início da rajada e atualiza o último evento.
+     */
+    private void marcar(Path caminho) {
+        if (caminho.startsWith(destino)) {
+            return;
+        }
+        long agora = System.currentTimeMillis();
+        pendentes.merge(caminho, new Pendencia(agora, agora),
+                (anterior, nova) -> new Pendencia(anterior.primeiroEventoMillis(), agora));
+    }
+
+    /**
+     * Envia para cópia os arquivos quietos há pelo menos 'debounceMillis'.
+     */
+    private void despacharMaduros() {
+        long agora = System.currentTimeMillis();
+        for (Map.Entry<Path, Pendencia> entrada : pendentes.entrySet()) {
+            Path arquivo = entrada.getKey();
+            Pendencia pendencia = entrada.getValue();
+            // Arquivo ainda sendo copiado continua pendente: evita duas cópias concorrentes
+            if (agora - pendencia.ultimoEventoMillis() < debounceMillis || emCopia.contains(arquivo)) {
+                continue;
+            }
+            // remove(chave, valor) falha se chegou evento novo nesse meio-tempo
+            if (pendentes.remove(arquivo, pendencia)) {
+                emCopia.add(arquivo);
+                copiadores.execute(() -> copiar(arquivo, pendencia));
+            }
+        }
+    }
+
+    private void copiar(Path arquivo, Pendencia pendencia) {
+        try {
+            BasicFileAttributes atributos = Files.readAttributes(arquivo, BasicFileAttributes.class,
+                    LinkOption.NOFOLLOW_LINKS);
+            if (!atributos.isRegularFile()) {
+                return;
+            }
+
+            // Cópia num temporário + move atômico: o backup nunca fica pela metade
+            Path copia = copiaDe(arquivo);
+            Files.createDirectories(copia.getParent());
+            Path temporario = Files.createTempFile(copia.getParent(), copia.getFileName().toString(), ".tmp");
+            try {
+                Files.copy(arquivo, temporario, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.COPY_ATTRIBUTES);
+                try {
+                    Files.move(temporario, copia, StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporario, copia, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporario);
+            }
+
+            copiados.incrementAndGet();
+            bytesCopiados.addAndGet(atributos.size());
+            long atraso = System.currentTimeMillis() - pendencia.primeiroEventoMillis();
+            atrasoUltimoMillis.set(atraso);
+            atrasoMaximoMillis.accumulateAndGet(atraso, Math::max);
+        } catch (NoSuchFileException e) {
+            // Apagado entre o evento e a cópia: não há o que salvar
+        } catch (IOException e) {
+            falhas.incrementAndGet();
+            System.err.println("❌ Falha ao copiar " + arquivo + ": " + e.getMessage());
+        } finally {
+            emCopia.remove(arquivo);
+        }
+    }
+
+    private Path copiaDe(Path arquivo) {
+        return destino.resolve(origem.relativize(arquivo));
+    }
+}
@@ -0,0 +1,357 @@
+package io_nio;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * DedupBackupStore.java - Backup com Deduplicação por Chunks de Conteúdo
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Content-defined chunking - os cortes dependem do CONTEÚDO (rolling hash),
+ *   então inserir alguns bytes só muda os chunks ao redor da alteração
+ * - Gear hash - h = (h << 1) + TABELA[byte], corta quando (h & mascara) == 0
+ * - Chunk store - cada chunk é gravado uma única vez, com o SHA-256 como nome
+ * - Receita - arquivo de texto pequeno com a lista ordenada de chunks
+ *
+ * Estrutura no disco:
+ *   raiz/chunks/ab/abcdef...     (conteúdo do chunk)
+ *   raiz/receitas/NOME/caminho/arquivo.receita
+ */
+public class DedupBackupStore {
+
+    public static final int TAMANHO_MINIMO_PADRAO = 16 * 1024;
+    public static final int TAMANHO_MEDIO_PADRAO = 64 * 1024;
+    public static final int TAMANHO_MAXIMO_PADRAO = 256 * 1024;
+
+    private static final String EXTENSAO_RECEITA = ".receita";
+    private static final String CABECALHO_RECEITA = "# java-toolbox dedup recipe v1";
+    private static final int TAMANHO_LEITURA = 1024 * 1024;
+
+    /** Tabela fixa do gear hash: a mesma semente gera os mesmos cortes em qualquer execução. */
+    private static final long[] GEAR = new long[256];
+
+    static {
+        Random random = new Random(0x5EED_C0DEL);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    private final Path raiz;
+    private final Path pastaChunks;
+    private final Path pastaReceitas;
+    private final int tamanhoMinimo;
+    private final int tamanhoMaximo;
+    private final long mascara;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== DEDUP BACKUP STORE ===\n");
+
+        Path origem = Files.createDirectories(Paths.get("teste-dedup-origem"));
+        Path restaurado = Paths.get("teste-dedup-restaurado");
+        DedupBackupStore store = new DedupBackupStore(Paths.get("teste-dedup-store"));
+
+        // Um "disco de VM" de 8 MB aleatório
+        byte[] imagem = new byte[8 * 1024 * 1024];
+        new Random(42).nextBytes(imagem);
+        Files.write(origem.resolve("vm.img"), imagem);
+
+        System.out.println("1º backup: " + store.salvar(origem, "backup-1"));
+
+        // Alterar 10 bytes no meio e inserir 3 bytes: quase todos os chunks se repetem
+        for (int i = 0; i < 10; i++) {
+            imagem[4_000_000 + i] ^= 0x7F;
+        }
+        byte[] comInsercao = new byte[imagem.length + 3];
+        System.arraycopy(imagem, 0, comInsercao, 0, 1_000_000);
+        System.arraycopy(imagem, 1_000_000, comInsercao, 1_000_003, imagem.length - 1_000_000);
+        Files.write(origem.resolve("vm.img"), comInsercao);
+
+        System.out.println("2º backup: " + store.salvar(origem, "backup-2"));
+
+        // Restaurar e conferir
+        store.restaurar("backup-2", restaurado);
+        boolean igual = Arrays.equals(comInsercao, Files.readAllBytes(restaurado.resolve("vm.img")));
+        System.out.println("\n♻️ Restauração confere com o original: " + (igual ? "✅" : "❌"));
+
+        // Limpar (filhos antes dos pais)
+        for (Path pasta : new Path[]{origem, restaurado, Paths.get("teste-dedup-store")}) {
+            try (Stream<Path> caminhos = Files.walk(pasta)) {
+                for (Path caminho : caminhos.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(caminho);
+                }
+            }
+        }
+    }
+
+    /**
+     * Estatísticas de um backup. 'bytesGravados' é o que realmente foi para
+     * o chunk store; o resto foi deduplicado.
+     */
+    public record Relatorio(int arquivos, long bytesLidos, long chunksNovos,
+                            long chunksReaproveitados, long bytesGravados) {
+
+        public double taxaDeduplicacao() {
+            return bytesLidos == 0 ? 0 : 1.0 - (double) bytesGravados / bytesLidos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("📄 %d arquivos, 📊 %d bytes lidos, 🧩 %d chunks novos / %d reaproveitados, "
+                            + "💾 %d bytes gravados (%.1f%% deduplicado)",
+                    arquivos, bytesLidos, chunksNovos, chunksReaproveitados, bytesGravados,
+                    taxaDeduplicacao() * 100);
+        }
+    }
+
+    public DedupBackupStore(Path raiz) {
+        this(raiz, TAMANHO_MINIMO_PADRAO, TAMANHO_MEDIO_PADRAO, TAMANHO_MAXIMO_PADRAO);
+    }
+
+    /**
+     * @param tamanhoMedio precisa ser potência de 2 - vira a máscara do gear hash
+     */
+    public DedupBackupStore(Path raiz, int tamanhoMinimo, int tamanhoMedio, int tamanhoMaximo) {
+        if (Integer.bitCount(tamanhoMedio) != 1) {
+            throw new IllegalArgumentException("Tamanho médio deve ser potência de 2: " + tamanhoMedio);
+        }
+        if (tamanhoMinimo <= 0 || tamanhoMinimo > tamanhoMedio || tamanhoMedio > tamanhoMaximo) {
+            throw new IllegalArgumentException("Esperado 0 < mínimo <= médio <= máximo");
+        }
+        this.raiz = raiz;
+        this.pastaChunks = raiz.resolve("chunks");
+        this.pastaReceitas = raiz.resolve("receitas");
+        this.tamanhoMinimo = tamanhoMinimo;
+        this.tamanhoMaximo = tamanhoMaximo;
+        // Bits altos do hash são os mais "misturados" pelo shift
+        this.mascara = (tamanhoMedio - 1L) << (64 - Integer.numberOfTrailingZeros(tamanhoMedio));
+    }
+
+    /**
+     * Faz o backup de toda a árvore de 'origem' com o nome dado.
+     * Arquivos são processados em paralelo; o chunk store aceita escritas concorrentes.
+     */
+    public Relatorio salvar(Path origem, String nomeBackup) throws IOException {
+        Path pastaBackup = pastaReceitas.resolve(nomeBackup);
+        if (Files.exists(pastaBackup)) {
+            throw new FileAlreadyExistsException(pastaBackup.toString(), null, "Backup já existe");
+        }
+        Files.createDirectories(pastaChunks);
+
+        List<ParallelDirectoryWalker.Entrada> arquivos = new ArrayList<>();
+        for (ParallelDirectoryWalker.Entrada entrada : new ParallelDirectoryWalker().listar(origem)) {
+            if (entrada.atributos().isRegularFile()) {
+                arquivos.add(entrada);
+            }
+        }
+
+        Contadores contadores = new Contadores();
+        ExecutorService workers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<Future<Void>> futuros = new ArrayList<>();
+            for (ParallelDirectoryWalker.Entrada entrada : arquivos) {
+                Path receita = pastaBackup.resolve(BackupManifest.caminhoRelativo(origem, entrada.caminho())
+                        + EXTENSAO_RECEITA);
+                futuros.add(workers.submit(() -> {
+                    salvarArquivo(entrada.caminho(), receita, contadores);
+                    return null;
+                }));
+            }
+            aguardar(futuros);
+        } finally {
+            workers.shutdown();
+        }
+
+        return new Relatorio(arquivos.size(), contadores.bytesLidos.get(), contadores.chunksNovos.get(),
+                contadores.chunksReaproveitados.get(), contadores.bytesGravados.get());
+    }
+
+    /**
+     * Restaura todos os arquivos de um backup para 'destino'.
+     */
+    public void restaurar(String nomeBackup, Path destino) throws IOException {
+        Path pastaBackup = pastaReceitas.resolve(nomeBackup);
+        for (ParallelDirectoryWalker.Entrada entrada : new ParallelDirectoryWalker().listar(pastaBackup)) {
+            String relativo = BackupManifest.caminhoRelativo(pastaBackup, entrada.caminho());
+            if (relativo.endsWith(EXTENSAO_RECEITA)) {
+                String original = relativo.substring(0, relativo.length() - EXTENSAO_RECEITA.length());
+                restaurarArquivo(entrada.caminho(), destino.resolve(original));
+            }
+        }
+    }
+
+    /**
+     * Recompõe um arquivo lendo seus chunks em ordem, e confere o SHA-256 final.
+     */
+    public void restaurarArquivo(Path receita, Path destino) throws IOException {
+        Path pai = destino.getParent();
+        if (pai != null) {
+            Files.createDirectories(pai);
+        }
+
+        MessageDigest digest = BackupManifest.novoSha256();
+        String hashEsperado = null;
+
+        try (BufferedReader leitor = Files.newBufferedReader(receita, StandardCharsets.UTF_8);
+             OutputStream saida = Files.newOutputStream(destino)) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                if (linha.startsWith("#") || linha.isEmpty()) {
+                    continue;
+                }
+                if (linha.startsWith("sha256 ")) {
+                    hashEsperado = linha.substring(7);
+                    continue;
+                }
+                String hashChunk = linha.substring(0, linha.indexOf(' '));
+                byte[] chunk = Files.readAllBytes(caminhoChunk(hashChunk));
+                digest.update(chunk);
+                saida.write(chunk);
+            }
+        }
+
+        String hashObtido = HexFormat.of().formatHex(digest.digest());
+        if (!hashObtido.equals(hashEsperado)) {
+            throw new IOException("Arquivo restaurado não confere com a receita: " + receita);
+        }
+    }
+
+    // =============================================
+    // CHUNKING
+    // =============================================
+
+    private void salvarArquivo(Path arquivo, Path receita, Contadores contadores) throws IOException {
+        Files.createDirectories(receita.getParent());
+
+        MessageDigest digestArquivo = BackupManifest.novoSha256();
+        MessageDigest digestChunk = BackupManifest.novoSha256();
+        byte[] leitura = new byte[TAMANHO_LEITURA];
+        byte[] chunk = new byte[tamanhoMaximo];
+        int tamanhoChunk = 0;
+        long hash = 0;
+        List<String> linhas = new ArrayList<>();
+
+        try (InputStream entrada = Files.newInputStream(arquivo)) {
+            int lidos;
+            while ((lidos = entrada.read(leitura)) != -1) {
+                digestArquivo.update(leitura, 0, lidos);
+                contadores.bytesLidos.addAndGet(lidos);
+
+                for (int i = 0; i < lidos; i++) {
+                    byte b = leitura[i];
+                    chunk[tamanhoChunk++] = b;
+                    hash = (hash << 1) + GEAR[b & 0xFF];
+
+                    boolean corte = tamanhoChunk >= tamanhoMinimo && (hash & mascara) == 0;
+                    if (corte || tamanhoChunk == tamanhoMaximo) {
+                        linhas.add(gravarChunk(chunk, tamanhoChunk, digestChunk, contadores));
+                        tamanhoChunk = 0;
+                        hash = 0;
+                    }
+                }
+            }
+        }
+        if (tamanhoChunk > 0) {
+            linhas.add(gravarChunk(chunk, tamanhoChunk, digestChunk, contadores));
+        }
+
+        try (BufferedWriter escritor = Files.newBufferedWriter(receita, StandardCharsets.UTF_8)) {
+            escritor.write(CABECALHO_RECEITA);
+            escritor.newLine();
+            escritor.write("sha256 " + HexFormat.of().formatHex(digestArquivo.digest()));
+            escritor.newLine();
+            for (String linha : linhas) {
+                escritor.write(linha);
+                escritor.newLine();
+            }
+        }
+    }
+
+    /**
+     * Grava o chunk se ainda não existir e devolve a linha da receita ("hash tamanho").
+     */
+    private String gravarChunk(byte[] dados, int tamanho, MessageDigest digest, Contadores contadores)
+            throws IOException {
+        digest.reset();
+        digest.update(dados, 0, tamanho);
+        String hash = HexFormat.of().formatHex(digest.digest());
+        Path destino = caminhoChunk(hash);
+
+        if (Files.exists(destino)) {
+            contadores.chunksReaproveitados.incrementAndGet();
+        } else {
+            Files.createDirectories(destino.getParent());
+            // Escreve num temporário único e renomeia: duas threads com o mesmo chunk não se atrapalham
+            Path temporario = Files.createTempFile(destino.getParent(), hash, ".tmp");
+            try {
+                try (OutputStream saida = Files.newOutputStream(temporario)) {
+                    saida.write(dados, 0, tamanho);
+                }
+                Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+                contadores.chunksNovos.incrementAndGet();
+                contadores.bytesGravados.addAndGet(tamanho);
+            } finally {
+                Files.deleteIfExists(temporario);
+            }
+        }
+        return hash + " " + tamanho;
+    }
+
+    // =============================================
+    // MÉTODOS AUXILIARES
+    // =============================================
+
+    private Path caminhoChunk(String hash) {
+        return pastaChunks.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    public Path raiz() {
+        return raiz;
+    }
+
+    private static void aguardar(List<Future<Void>> futuros) throws IOException {
+        for (Future<Void> futuro : futuros) {
+            try {
+                futuro.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Backup interrompido");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                throw new IllegalStateException("Falha inesperada no backup", e.getCause());
+            }
+        }
+    }
+
+    private static final class Contadores {
+        final AtomicLong bytesLidos = new AtomicLong();
+        final AtomicLong chunksNovos = new AtomicLong();
+        final AtomicLong chunksReaproveitados = new AtomicLong();
+        final AtomicLong bytesGravados = new AtomicLong();
+    }
+}
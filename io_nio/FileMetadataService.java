@@ -0,0 +1,316 @@
+package io_nio;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FileMetadataService.java - Metadados em Lote com Cache
+ *
+ * CONCEITOS IMPORTANTES:
+ * - readAttributes(path, "posix:*") - TODOS os atributos numa chamada só,
+ *   em vez de Files.size + getLastModifiedTime + isDirectory (um stat cada)
+ * - Cache LRU limitado - LinkedHashMap em ordem de acesso + removeEldestEntry
+ * - Invalidação por mtime - entrada do cache só vale se o mtime não mudou
+ * - Snapshot colunar - arrays primitivos (long[] tamanhos, long[] mtimes) e
+ *   caminhos como UTF-8 num único byte[], em vez de um objeto por arquivo
+ *
+ * Em sistemas sem a view "posix" (Windows) cai para "basic:*"; dono e
+ * permissões ficam null.
+ */
+public class FileMetadataService {
+
+    public static final int CAPACIDADE_CACHE_PADRAO = 10_000;
+
+    private final boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    private final String atributos = posix ? "posix:*" : "basic:*";
+    private final Map<Path, Metadados> cache;
+
+    private final AtomicLong acertos = new AtomicLong();
+    private final AtomicLong faltas = new AtomicLong();
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== FILE METADATA SERVICE ===\n");
+
+        FileMetadataService servico = new FileMetadataService();
+
+        // 1. Um arquivo: uma chamada traz tudo
+        Path arquivo = Paths.get("teste-metadados.txt");
+        Files.writeString(arquivo, "Primeira versão");
+        System.out.println("📄 " + servico.obter(arquivo));
+        servico.obter(arquivo);
+        System.out.println("🎯 Segunda consulta (cache): acertos=" + servico.acertos() + " faltas=" + servico.faltas());
+
+        // Mudou o mtime: o cache percebe e relê
+        Files.writeString(arquivo, "Segunda versão, maior");
+        Files.setLastModifiedTime(arquivo, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+        System.out.println("🔄 Após alterar: " + servico.obter(arquivo).tamanho() + " bytes, acertos="
+                + servico.acertos() + " faltas=" + servico.faltas());
+        Files.delete(arquivo);
+
+        // 2. Uma árvore: snapshot colunar
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        Path raiz = Files.createDirectories(Paths.get("teste-metadados-arvore"));
+        for (int i = 0; i < quantidade; i++) {
+            Path pasta = Files.createDirectories(raiz.resolve("pasta-" + (i % 100)));
+            Files.writeString(pasta.resolve("arquivo-" + i + ".txt"), "x".repeat(i % 1000));
+        }
+
+        long inicio = System.nanoTime();
+        Snapshot snapshot = servico.escanear(raiz);
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        System.out.println("\n🌳 Snapshot de " + raiz + ": " + snapshot.tamanho() + " arquivos em " + duracaoMs + " ms");
+        System.out.println("📊 Total: " + snapshot.totalBytes() + " bytes");
+        System.out.printf("🧠 Heap do snapshot: ~%d KB (%.0f bytes por arquivo)%n",
+                snapshot.bytesEstimados() / 1024, (double) snapshot.bytesEstimados() / snapshot.tamanho());
+        System.out.println("🔎 Primeira entrada: " + snapshot.caminhoRelativo(0) + " - "
+                + snapshot.tamanho(0) + " bytes - " + FileTime.fromMillis(snapshot.mtimeMillis(0)));
+
+        new ParallelTreeDeleter().apagar(raiz);
+    }
+
+    /**
+     * Todos os metadados de um arquivo, lidos de uma vez.
+     *
+     * @param dono        null se o sistema não tiver a view "posix"
+     * @param permissoes  null se o sistema não tiver a view "posix"
+     */
+    public record Metadados(Path caminho, long tamanho, FileTime modificado, FileTime acessado, FileTime criado,
+                            boolean arquivo, boolean diretorio, boolean link, UserPrincipal dono,
+                            Set<PosixFilePermission> permissoes) {
+        @Override
+        public String toString() {
+            return String.format("%s - %d bytes - modificado %s - %s%s", caminho.getFileName(), tamanho, modificado,
+                    diretorio ? "diretório" : link ? "link" : arquivo ? "arquivo" : "outro",
+                    permissoes == null ? "" : " - " + dono.getName() + " " + PosixFilePermissions.toString(permissoes));
+        }
+    }
+
+    public FileMetadataService() {
+        this(CAPACIDADE_CACHE_PADRAO);
+    }
+
+    public FileMetadataService(int capacidadeCache) {
+        if (capacidadeCache <= 0) {
+            throw new IllegalArgumentException("Capacidade do cache deve ser positiva");
+        }
+        // accessOrder = true: o mais antigo é o menos usado recentemente (LRU)
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Metadados> maisAntiga) {
+                return size() > capacidadeCache;
+            }
+        };
+    }
+
+    // =============================================
+    // UM ARQUIVO
+    // =============================================
+
+    /**
+     * Lê todos os atributos do arquivo numa única chamada, sem passar pelo cache.
+     * Links simbólicos não são seguidos.
+     */
+    @SuppressWarnings("unchecked")
+    public Metadados ler(Path caminho) throws IOException {
+        Map<String, Object> mapa = Files.readAttributes(caminho, atributos, LinkOption.NOFOLLOW_LINKS);
+        return new Metadados(caminho,
+                (Long) mapa.get("size"),
+                (FileTime) mapa.get("lastModifiedTime"),
+                (FileTime) mapa.get("lastAccessTime"),
+                (FileTime) mapa.get("creationTime"),
+                (Boolean) mapa.get("isRegularFile"),
+                (Boolean) mapa.get("isDirectory"),
+                (Boolean) mapa.get("isSymbolicLink"),
+                posix ? (UserPrincipal) mapa.get("owner") : null,
+                posix ? (Set<PosixFilePermission>) mapa.get("permissions") : null);
+    }
+
+    /**
+     * Metadados do cache, validados com o mtime atual do arquivo (um stat barato);
+     * se o mtime mudou, relê tudo.
+     */
+    public Metadados obter(Path caminho) throws IOException {
+        return obter(caminho, Files.getLastModifiedTime(caminho, LinkOption.NOFOLLOW_LINKS));
+    }
+
+    /**
+     * Variante sem nenhum stat quando o chamador já conhece o mtime
+     * (de um walk ou de um evento do WatchService, por exemplo).
+     */
+    public Metadados obter(Path caminho, FileTime mtimeAtual) throws IOException {
+        Metadados emCache;
+        synchronized (cache) {
+            emCache = cache.get(caminho);
+        }
+        if (emCache != null && emCache.modificado().equals(mtimeAtual)) {
+            acertos.incrementAndGet();
+            return emCache;
+        }
+
+        faltas.incrementAndGet();
+        Metadados lido = ler(caminho);
+        synchronized (cache) {
+            cache.put(caminho, lido);
+        }
+        return lido;
+    }
+
+    public void invalidar(Path caminho) {
+        synchronized (cache) {
+            cache.remove(caminho);
+        }
+    }
+
+    public long acertos() {
+        return acertos.get();
+    }
+
+    public long faltas() {
+        return faltas.get();
+    }
+
+    // =============================================
+    // ÁRVORE INTEIRA (SNAPSHOT COLUNAR)
+    // =============================================
+
+    /**
+     * Varre a árvore em paralelo e devolve caminho, tamanho e mtime de cada
+     * arquivo. Os atributos vêm do próprio walk: nenhuma chamada extra por arquivo.
+     * A ordem das entradas é a da varredura (não ordenada).
+     */
+    public Snapshot escanear(Path raiz) throws IOException {
+        Coletor coletor = new Coletor(raiz);
+        ParallelDirectoryWalker.Relatorio relatorio = new ParallelDirectoryWalker().percorrer(raiz, coletor::adicionar);
+        if (!relatorio.falhas().isEmpty()) {
+            ParallelDirectoryWalker.Falha primeira = relatorio.falhas().get(0);
+            throw new IOException("Falha ao escanear " + primeira.caminho(), primeira.erro());
+        }
+        return coletor.snapshot();
+    }
+
+    /**
+     * Metadados de uma árvore em colunas. Cada arquivo custa ~20 bytes de
+     * arrays mais o tamanho do caminho relativo em UTF-8 — contra algumas
+     * centenas de bytes de um Path + BasicFileAttributes por arquivo.
+     */
+    public static final class Snapshot {
+        private final Path raiz;
+        private final byte[] caminhos;
+        private final int[] inicios;
+        private final long[] tamanhos;
+        private final long[] mtimes;
+
+        private Snapshot(Path raiz, byte[] caminhos, int[] inicios, long[] tamanhos, long[] mtimes) {
+            this.raiz = raiz;
+            this.caminhos = caminhos;
+            this.inicios = inicios;
+            this.tamanhos = tamanhos;
+            this.mtimes = mtimes;
+        }
+
+        public int tamanho() {
+            return tamanhos.length;
+        }
+
+        /**
+         * Caminho relativo à raiz, sempre com '/'.
+         */
+        public String caminhoRelativo(int i) {
+            return new String(caminhos, inicios[i], inicios[i + 1] - inicios[i], StandardCharsets.UTF_8);
+        }
+
+        public Path caminho(int i) {
+            return raiz.resolve(caminhoRelativo(i));
+        }
+
+        public long tamanho(int i) {
+            return tamanhos[i];
+        }
+
+        public long mtimeMillis(int i) {
+            return mtimes[i];
+        }
+
+        public long totalBytes() {
+            long total = 0;
+            for (long tamanho : tamanhos) {
+                total += tamanho;
+            }
+            return total;
+        }
+
+        /**
+         * Memória ocupada pelos arrays (sem os cabeçalhos de objeto).
+         */
+        public long bytesEstimados() {
+            return caminhos.length + 4L * inicios.length + 8L * tamanhos.length + 8L * mtimes.length;
+        }
+    }
+
+    /**
+     * Acumula as colunas em arrays que crescem sob demanda. O walker chama de
+     * várias threads; o trabalho dentro do lock é só copiar bytes.
+     */
+    private static final class Coletor {
+        private final Path raiz;
+        private byte[] caminhos = new byte[64 * 1024];
+        private int bytesUsados;
+        private int[] inicios = new int[1024];
+        private long[] tamanhos = new long[1024];
+        private long[] mtimes = new long[1024];
+        private int quantidade;
+
+        Coletor(Path raiz) {
+            this.raiz = raiz;
+        }
+
+        void adicionar(Path arquivo, BasicFileAttributes atributos) {
+            // Converter fora do lock
+            byte[] relativo = BackupManifest.caminhoRelativo(raiz, arquivo).getBytes(StandardCharsets.UTF_8);
+            long tamanho = atributos.size();
+            long mtime = atributos.lastModifiedTime().toMillis();
+
+            synchronized (this) {
+                if (quantidade + 1 >= inicios.length) {
+                    int novaCapacidade = inicios.length * 2;
+                    inicios = Arrays.copyOf(inicios, novaCapacidade);
+                    tamanhos = Arrays.copyOf(tamanhos, novaCapacidade);
+                    mtimes = Arrays.copyOf(mtimes, novaCapacidade);
+                }
+                if (bytesUsados + relativo.length > caminhos.length) {
+                    caminhos = Arrays.copyOf(caminhos, Math.max(caminhos.length * 2, bytesUsados + relativo.length));
+                }
+                inicios[quantidade] = bytesUsados;
+                System.arraycopy(relativo, 0, caminhos, bytesUsados, relativo.length);
+                bytesUsados += relativo.length;
+                tamanhos[quantidade] = tamanho;
+                mtimes[quantidade] = mtime;
+                quantidade++;
+            }
+        }
+
+        synchronized Snapshot snapshot() {
+            // inicios tem uma posição a mais: o fim do último caminho
+            int[] limites = Arrays.copyOf(inicios, quantidade + 1);
+            limites[quantidade] = bytesUsados;
+            return new Snapshot(raiz, Arrays.copyOf(caminhos, bytesUsados), limites,
+                    Arrays.copyOf(tamanhos, quantidade), Arrays.copyOf(mtimes, quantidade));
+        }
+    }
+}
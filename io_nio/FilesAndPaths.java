@@ -5,7 +5,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Stream;
 
 public class FilesAndPaths {
@@ -18,8 +22,42 @@ public class FilesAndPaths {
         demonstrarLeituraEscrita();
         demonstrarNavegacaoDiretorios();
         demonstrarMetadados();
-        sistemaBackupSimples();
+        sistemaBackupSimples(ModoBackup.COMPLETO);
+
+        // Modo incremental: só copia o que mudou desde o último manifesto
+        sistemaBackupSimples(ModoBackup.INCREMENTAL);
+
+        // Modo deduplicado: chunks por conteúdo, cada chunk gravado uma vez só
+        sistemaBackupSimples(ModoBackup.DEDUPLICADO);
+
+        // Modo contínuo: WatchService copia cada alteração poucos instantes depois
+        sistemaBackupSimples(ModoBackup.CONTINUO);
+
+        // Modo arquivo: tudo num único .zip/.tar, compressão paralela e escrita sequencial
+        sistemaBackupSimples(ModoBackup.ZIP);
+        sistemaBackupSimples(ModoBackup.TAR);
     }
+
+    /**
+     * Destinos possíveis do sistema de backup
+     */
+    private enum ModoBackup {
+        COMPLETO("", ""),
+        INCREMENTAL(" INCREMENTAL", "-incremental"),
+        DEDUPLICADO(" DEDUPLICADO", "-dedup"),
+        CONTINUO(" CONTÍNUO", "-continuo"),
+        ZIP(" EM ARQUIVO ZIP", ".zip"),
+        TAR(" EM ARQUIVO TAR", ".tar");
+
+        private final String titulo;
+        private final String sufixoPasta;
+
+        ModoBackup(String titulo, String sufixoPasta) {
+            this.titulo = titulo;
+            this.sufixoPasta = sufixoPasta;
+        }
+    }
+
     private static void demonstrarCriacaoPaths(){
         System.out.println("---CRIANDO PATHS:---");
 
@@ -102,22 +140,19 @@ public class FilesAndPaths {
                 Files.write(pasta.resolve("dados.json"), "{}".getBytes());
                 System.out.println("📄 Arquivos de teste criados");
 
-                // Listar todo o conteúdo
+                // Listar todo o conteúdo (recursivo, em paralelo, atributos inclusos)
                 System.out.println("\n📋 LISTANDO TODOS OS ARQUIVOS:");
-                try (Stream<Path> arquivos = Files.list(pasta)) {
-                    arquivos.forEach(arquivo ->
-                            System.out.println("  " + arquivo.getFileName())
-                    );
+                for (ParallelDirectoryWalker.Entrada entrada : new ParallelDirectoryWalker().listar(pasta)) {
+                    System.out.println("  " + entrada.caminho().getFileName()
+                            + " (" + entrada.atributos().size() + " bytes)");
                 }
 
-                // Filtrar apenas arquivos .txt
+                // Filtrar apenas arquivos .txt (glob de inclusão)
                 System.out.println("\n🔍 APENAS ARQUIVOS .TXT:");
-                try (Stream<Path> txtFiles = Files.list(pasta)) {
-                    txtFiles
-                            .filter(path -> path.toString().endsWith(".txt"))
-                            .forEach(arquivo ->
-                                    System.out.println("  " + arquivo.getFileName())
-                            );
+                ParallelDirectoryWalker apenasTxt = new ParallelDirectoryWalker(
+                        Runtime.getRuntime().availableProcessors(), List.of("*.txt"), List.of(), false);
+                for (ParallelDirectoryWalker.Entrada entrada : apenasTxt.listar(pasta)) {
+                    System.out.println("  " + entrada.caminho().getFileName());
                 }
 
                 // Limpar - deletar todos os arquivos e a pasta
@@ -142,37 +177,65 @@ public class FilesAndPaths {
         System.out.println("\n️METADADOS DE ARQUIVOS:");
 
         Path arquivo = Paths.get("teste-meta.txt");
+        FileMetadataService metadados = new FileMetadataService();
 
         try {
             // Criar arquivo com conteúdo
             Files.write(arquivo, "Testando metadados do arquivo!".getBytes());
 
-            // Metadados básicos
-            long tamanho = Files.size(arquivo);
-            FileTime modificado = Files.getLastModifiedTime(arquivo);
-            boolean isFile = Files.isRegularFile(arquivo);
-            boolean isDir = Files.isDirectory(arquivo);
+            // Metadados básicos: uma única chamada readAttributes("posix:*") traz tudo
+            FileMetadataService.Metadados meta = metadados.obter(arquivo);
 
             System.out.println("📄 Arquivo: " + arquivo.getFileName());
-            System.out.println("📊 Tamanho: " + tamanho + " bytes");
-            System.out.println("📅 Modificado: " + modificado);
-            System.out.println("📝 É arquivo: " + isFile);
-            System.out.println("📁 É diretório: " + isDir);
+            System.out.println("📊 Tamanho: " + meta.tamanho() + " bytes");
+            System.out.println("📅 Modificado: " + meta.modificado());
+            System.out.println("📝 É arquivo: " + meta.arquivo());
+            System.out.println("📁 É diretório: " + meta.diretorio());
+            if (meta.permissoes() != null) {
+                System.out.println("🔐 Dono/permissões: " + meta.dono().getName() + " "
+                        + PosixFilePermissions.toString(meta.permissoes()));
+            }
+
+            // Segunda consulta com o mesmo mtime vem do cache
+            metadados.obter(arquivo);
+            System.out.println("🎯 Cache: " + metadados.acertos() + " acerto(s), " + metadados.faltas() + " falta(s)");
 
             // Limpar
             Files.delete(arquivo);
+            metadados.invalidar(arquivo);
+
+            // Metadados de uma árvore inteira: snapshot colunar, atributos vindos do próprio walk
+            System.out.println("\n🌳 METADADOS DE UMA ÁRVORE:");
+            Path arvore = Paths.get("teste-meta-arvore");
+            Files.createDirectories(arvore.resolve("sub"));
+            Files.write(arvore.resolve("raiz.txt"), "Na raiz".getBytes());
+            Files.write(arvore.resolve("sub").resolve("interno.txt"), "Dentro da subpasta".getBytes());
+
+            FileMetadataService.Snapshot snapshot = metadados.escanear(arvore);
+            for (int i = 0; i < snapshot.tamanho(); i++) {
+                System.out.printf("  📄 %s - %d bytes - modificado %s%n", snapshot.caminhoRelativo(i),
+                        snapshot.tamanho(i), FileTime.fromMillis(snapshot.mtimeMillis(i)));
+            }
+            System.out.println("  📊 Total: " + snapshot.totalBytes() + " bytes em " + snapshot.tamanho() + " arquivos");
+
+            // Limpar (filhos antes dos pais)
+            new ParallelTreeDeleter().apagar(arvore);
 
         } catch (IOException e) {
             System.out.println("❌ Erro: " + e.getMessage());
         }
     }
-    private static void sistemaBackupSimples() {
-        System.out.println("\n--- CASO PRÁTICO - SISTEMA DE BACKUP ---");
+    private static void sistemaBackupSimples(ModoBackup modo) {
+        System.out.println("\n--- CASO PRÁTICO - SISTEMA DE BACKUP" + modo.titulo + " ---");
 
         // Pasta de origem (vamos criar arquivos de teste)
         Path origem = Paths.get("documentos");
-        // Pasta de backup com data
-        Path backup = Paths.get("backup-" + java.time.LocalDate.now());
+        // Pasta de backup com data (o modo deduplicado usa um chunk store fixo, compartilhado entre backups)
+        Path backup = modo == ModoBackup.DEDUPLICADO
+                ? Paths.get("backup" + modo.sufixoPasta)
+                : Paths.get("backup-" + java.time.LocalDate.now() + modo.sufixoPasta);
+        // Manifesto da última execução incremental (caminho, tamanho, mtime, hash)
+        Path manifesto = Paths.get("backup-manifesto.tsv");
 
         try {
             // 1. PREPARAR AMBIENTE DE TESTE
@@ -183,51 +246,147 @@ public class FilesAndPaths {
             Files.write(origem.resolve("relatorio.txt"), "Relatório anual de vendas...".getBytes());
             Files.write(origem.resolve("dados.json"), "{\"vendas\": 1000}".getBytes());
             Files.write(origem.resolve("config.properties"), "app.name=MeuApp".getBytes());
+            Files.createDirectories(origem.resolve("financeiro"));
+            Files.write(origem.resolve("financeiro").resolve("balanco.csv"), "ano;receita\n2024;1000".getBytes());
             System.out.println("📄 Arquivos de teste criados");
 
-            // 2. CRIAR PASTA DE BACKUP
-            Files.createDirectories(backup);
-            System.out.println("💾 Pasta backup criada: " + backup);
+            // 2. CRIAR PASTA DE BACKUP (os modos ZIP/TAR gravam um arquivo só)
+            if (modo != ModoBackup.ZIP && modo != ModoBackup.TAR) {
+                Files.createDirectories(backup);
+                System.out.println("💾 Pasta backup criada: " + backup);
+            }
 
             // 3. FAZER BACKUP COM RELATÓRIO
             System.out.println("\n🔄 INICIANDO BACKUP...");
 
-            int arquivosCopiados = 0;
-            long tamanhoTotal = 0;
+            if (modo == ModoBackup.ZIP || modo == ModoBackup.TAR) {
+                // Nenhum arquivo solto no destino: uma escrita sequencial para o .zip/.tar inteiro
+                BackupArchiveWriter escritor = modo == ModoBackup.ZIP
+                        ? BackupArchiveWriter.zip(BackupArchiveWriter.NIVEL_PADRAO, Runtime.getRuntime().availableProcessors())
+                        : BackupArchiveWriter.tar();
+                BackupArchiveWriter.Relatorio relatorio = escritor.arquivar(origem, backup);
+
+                System.out.println("\n📊 RELATÓRIO DO BACKUP EM ARQUIVO:");
+                System.out.println("  📁 Pasta origem: " + origem);
+                System.out.println("  📦 Arquivo: " + backup + " (" + escritor.formato() + ")");
+                System.out.println("  📄 Arquivos: " + relatorio.arquivos());
+                System.out.println("  📊 Tamanho: " + relatorio.bytesOriginais() + " → " + relatorio.bytesArquivo() + " bytes");
+                System.out.println("  ✅ Backup concluído com sucesso!");
+                return;
+            }
 
-            try (Stream<Path> arquivos = Files.list(origem)) {
-                for (Path arquivo : arquivos.toList()) {
-                    if (Files.isRegularFile(arquivo)) {
-                        // Copiar arquivo
-                        Path destino = backup.resolve(arquivo.getFileName());
-                        Files.copy(arquivo, destino);
+            if (modo == ModoBackup.DEDUPLICADO) {
+                // Cada execução vira um conjunto de receitas; chunks repetidos não são regravados
+                String nomeBackup = "backup-" + java.time.LocalDateTime.now()
+                        .format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss-SSS"));
+                DedupBackupStore.Relatorio relatorio = new DedupBackupStore(backup).salvar(origem, nomeBackup);
+
+                System.out.println("\n📊 RELATÓRIO DO BACKUP DEDUPLICADO:");
+                System.out.println("  📁 Pasta origem: " + origem);
+                System.out.println("  💾 Chunk store: " + backup);
+                System.out.println("  🏷️ Backup: " + nomeBackup);
+                System.out.println("  📄 Arquivos: " + relatorio.arquivos());
+                System.out.println("  🧩 Chunks novos: " + relatorio.chunksNovos()
+                        + " / reaproveitados: " + relatorio.chunksReaproveitados());
+                System.out.printf("  📊 Gravados: %d de %d bytes (%.1f%% deduplicado)%n",
+                        relatorio.bytesGravados(), relatorio.bytesLidos(), relatorio.taxaDeduplicacao() * 100);
+                System.out.println("  ✅ Backup concluído com sucesso!");
+                return;
+            }
 
-                        // Atualizar estatísticas
-                        long tamanho = Files.size(arquivo);
-                        arquivosCopiados++;
-                        tamanhoTotal += tamanho;
+            if (modo == ModoBackup.CONTINUO) {
+                // Em produção o daemon fica de pé indefinidamente; aqui observa por alguns segundos
+                try (ContinuousBackupDaemon daemon = new ContinuousBackupDaemon(origem, backup)) {
+                    daemon.iniciar();
+                    System.out.println("👀 Observando " + origem + " (Ctrl+C encerraria o daemon)");
 
-                        System.out.printf("✅ %s (%d bytes)%n",
-                                arquivo.getFileName(), tamanho);
+                    // Rajada de edições no mesmo arquivo: o debounce junta tudo em uma cópia
+                    for (int i = 1; i <= 10; i++) {
+                        Files.write(origem.resolve("relatorio.txt"), ("Relatório anual de vendas, revisão " + i).getBytes());
                     }
+                    System.out.println("✏️ relatorio.txt editado 10 vezes");
+
+                    Thread.sleep(2 * ContinuousBackupDaemon.DEBOUNCE_PADRAO_MILLIS + 1000);
+                    System.out.println("\n📊 MÉTRICAS DO BACKUP CONTÍNUO:");
+                    System.out.println("  " + daemon.metricas());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
                 }
+                System.out.println("  ✅ Daemon encerrado, pendências salvas");
+                return;
             }
 
+            if (modo == ModoBackup.INCREMENTAL) {
+                // Compara com o manifesto: copia só arquivos novos/alterados
+                IncrementalBackup.Relatorio relatorio = IncrementalBackup.executar(origem, backup, manifesto);
+
+                System.out.println("\n📊 RELATÓRIO DO BACKUP INCREMENTAL:");
+                System.out.println("  📁 Pasta origem: " + origem);
+                System.out.println("  💾 Pasta backup: " + backup);
+                System.out.println("  📋 Manifesto: " + manifesto);
+                System.out.println("  📄 Arquivos copiados: " + relatorio.copiados());
+                System.out.println("  ⏭️ Inalterados: " + relatorio.inalterados());
+                System.out.println("  🪦 Removidos (tombstones): " + relatorio.removidos());
+                System.out.println("  📊 Tamanho copiado: " + relatorio.bytesCopiados() + " bytes");
+                System.out.println("  ✅ Backup concluído com sucesso!");
+                return;
+            }
+
+            // Monta as tarefas percorrendo TODA a árvore (subpastas inclusas);
+            // o tamanho vem dos atributos que o próprio walk já leu
+            List<ParallelFileCopier.Tarefa> tarefas = new ArrayList<>();
+            for (ParallelDirectoryWalker.Entrada entrada : new ParallelDirectoryWalker().listar(origem)) {
+                if (entrada.atributos().isRegularFile()) {
+                    tarefas.add(new ParallelFileCopier.Tarefa(entrada.caminho(),
+                            backup.resolve(origem.relativize(entrada.caminho())), entrada.atributos().size()));
+                }
+            }
+
+            // Copiar em paralelo (transferTo para arquivos grandes, lotes para pequenos)
+            ParallelFileCopier.Resultado resultado;
+            try (ParallelFileCopier copiador = new ParallelFileCopier(Runtime.getRuntime().availableProcessors())) {
+                resultado = copiador.copiar(tarefas, ParallelFileCopier::imprimirProgresso, 1000);
+            }
+
+            Set<Path> falharam = new HashSet<>();
+            for (ParallelFileCopier.Falha falha : resultado.falhas()) {
+                falharam.add(falha.origem());
+                System.out.println("❌ " + falha.origem().getFileName() + ": " + falha.erro().getMessage());
+            }
+            for (ParallelFileCopier.Tarefa tarefa : tarefas) {
+                if (!falharam.contains(tarefa.origem())) {
+                    System.out.printf("✅ %s (%d bytes)%n",
+                            origem.relativize(tarefa.origem()), tarefa.tamanho());
+                }
+            }
+
+            int arquivosCopiados = resultado.arquivos();
+            long tamanhoTotal = resultado.bytes();
+
             // 4. RELATÓRIO FINAL
             System.out.println("\n📊 RELATÓRIO DO BACKUP:");
             System.out.println("  📁 Pasta origem: " + origem);
             System.out.println("  💾 Pasta backup: " + backup);
             System.out.println("  📄 Arquivos copiados: " + arquivosCopiados);
             System.out.println("  📊 Tamanho total: " + tamanhoTotal + " bytes");
-            System.out.println("  ✅ Backup concluído com sucesso!");
+            System.out.printf("  ⚡ Vazão: %.1f MB/s, %.0f arquivos/s%n",
+                    resultado.mbPorSegundo(), resultado.arquivosPorSegundo());
+            System.out.println(resultado.falhas().isEmpty()
+                    ? "  ✅ Backup concluído com sucesso!"
+                    : "  ⚠️ Backup concluído com " + resultado.falhas().size() + " falha(s)");
 
-            // 5. VERIFICAR BACKUP (listar arquivos copiados)
+            // 5. VERIFICAR BACKUP (SHA-256 da origem e da cópia, em paralelo)
             System.out.println("\n🔍 VERIFICANDO BACKUP:");
-            try (Stream<Path> backupFiles = Files.list(backup)) {
-                backupFiles.forEach(arquivo ->
-                        System.out.println("  ✓ " + arquivo.getFileName())
-                );
-            }
+            BackupManifest digests = new BackupManifest();
+            BackupVerifier.Relatorio verificacao = new BackupVerifier(BackupVerifier.Algoritmo.SHA256,
+                    Runtime.getRuntime().availableProcessors())
+                    .verificar(origem, backup, digests, resultadoArquivo -> System.out.println("  " + resultadoArquivo));
+            System.out.println("  " + verificacao);
+
+            // Com os digests salvos, uma restauração confere a cópia sem reler a origem
+            Path manifestoDigests = Paths.get(backup + "-manifesto.tsv");
+            digests.salvar(manifestoDigests);
+            System.out.println("  📋 Digests salvos em " + manifestoDigests);
 
             // 6. LIMPAR AMBIENTE (opcional - descomente se quiser)
             // limparAmbienteTeste(origem, backup);
@@ -241,22 +400,21 @@ public class FilesAndPaths {
     private static void limparAmbienteTeste(Path origem, Path backup) throws IOException {
         System.out.println("\n--- LIMPANDO AMBIENTE DE TESTE ---");
 
-        // Deletar arquivos das pastas
-        try (Stream<Path> files = Files.list(origem)) {
-            files.forEach(arquivo -> {
-                try { Files.delete(arquivo); } catch (IOException e) {}
-            });
+        // Remoção recursiva em paralelo: arquivos primeiro, cada pasta depois dos filhos
+        ParallelTreeDeleter deleter = new ParallelTreeDeleter();
+        List<ParallelTreeDeleter.Falha> falhas = new ArrayList<>();
+        for (Path pasta : List.of(origem, backup)) {
+            ParallelTreeDeleter.Relatorio relatorio = deleter.apagar(pasta);
+            System.out.println("🧹 " + pasta + ": " + relatorio);
+            falhas.addAll(relatorio.falhas());
         }
 
-        try (Stream<Path> files = Files.list(backup)) {
-            files.forEach(arquivo -> {
-                try { Files.delete(arquivo); } catch (IOException e) {}
-            });
+        if (!falhas.isEmpty()) {
+            for (ParallelTreeDeleter.Falha falha : falhas) {
+                System.out.println("❌ " + falha.caminho() + ": " + falha.erro());
+            }
+            throw new IOException("Limpeza incompleta: " + falhas.size() + " falha(s)", falhas.get(0).erro());
         }
-
-        // Deletar as pastas
-        Files.delete(origem);
-        Files.delete(backup);
         System.out.println("🧹 Ambiente limpo!");
     }
 
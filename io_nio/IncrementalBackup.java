@@ -0,0 +1,180 @@
+package io_nio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * IncrementalBackup.java - Backup Incremental Guiado por Manifesto
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Comparação barata primeiro - tamanho + mtime vêm dos atributos do walk
+ * - Hash só quando precisa - SHA-256 apenas se tamanho/mtime mudaram
+ * - DigestInputStream - arquivo novo é copiado e "hasheado" na mesma leitura
+ * - Tombstones - arquivos removidos da origem ficam registrados no manifesto
+ *
+ * Só arquivos novos ou com conteúdo diferente vão para a pasta de backup;
+ * o manifesto é a memória entre uma execução e a próxima.
+ */
+public class IncrementalBackup {
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== BACKUP INCREMENTAL ===\n");
+
+        Path origem = Files.createDirectories(Paths.get("teste-inc-origem"));
+        Path manifesto = Paths.get("teste-inc-manifesto.tsv");
+
+        Files.writeString(origem.resolve("a.txt"), "Arquivo A");
+        Files.writeString(origem.resolve("b.txt"), "Arquivo B");
+        Files.writeString(origem.resolve("c.txt"), "Arquivo C");
+
+        // 1ª execução: sem manifesto, tudo é novo
+        System.out.println("1ª execução: " + executar(origem, Paths.get("teste-inc-1"), manifesto));
+
+        // Alterar um, apagar outro, criar um novo
+        Files.writeString(origem.resolve("a.txt"), "Arquivo A - versão 2");
+        Files.delete(origem.resolve("b.txt"));
+        Files.writeString(origem.resolve("d.txt"), "Arquivo D");
+
+        // 2ª execução: só a.txt e d.txt são copiados, b.txt vira tombstone
+        System.out.println("2ª execução: " + executar(origem, Paths.get("teste-inc-2"), manifesto));
+
+        System.out.println("\n📋 Manifesto:");
+        Files.readAllLines(manifesto).forEach(linha -> System.out.println("  " + linha));
+
+        // Limpar
+        for (Path pasta : new Path[]{origem, Paths.get("teste-inc-1"), Paths.get("teste-inc-2")}) {
+            try (Stream<Path> arquivos = Files.list(pasta)) {
+                for (Path arquivo : arquivos.toList()) {
+                    Files.delete(arquivo);
+                }
+            }
+            Files.delete(pasta);
+        }
+        Files.delete(manifesto);
+    }
+
+    /**
+     * Resultado de uma execução incremental.
+     */
+    public record Relatorio(int copiados, int inalterados, int removidos, long bytesCopiados) {
+        @Override
+        public String toString() {
+            return String.format("📄 copiados=%d ⏭️ inalterados=%d 🪦 removidos=%d 📊 %d bytes",
+                    copiados, inalterados, removidos, bytesCopiados);
+        }
+    }
+
+    /**
+     * Copia para 'destino' apenas o que mudou desde o último manifesto e
+     * grava o manifesto atualizado.
+     */
+    public static Relatorio executar(Path origem, Path destino, Path arquivoManifesto) throws IOException {
+        BackupManifest manifesto = BackupManifest.carregar(arquivoManifesto);
+        Set<String> vistos = new HashSet<>();
+
+        int copiados = 0;
+        int inalterados = 0;
+        long bytesCopiados = 0;
+
+        Files.createDirectories(destino);
+
+        // Varredura recursiva em paralelo; o resto é sequencial porque o manifesto não é thread-safe
+        for (ParallelDirectoryWalker.Entrada encontrada : new ParallelDirectoryWalker().listar(origem)) {
+            Path arquivo = encontrada.caminho();
+            BasicFileAttributes atributos = encontrada.atributos();
+            if (!atributos.isRegularFile()) {
+                continue;
+            }
+
+            String caminho = BackupManifest.caminhoRelativo(origem, arquivo);
+            vistos.add(caminho);
+
+            long tamanho = atributos.size();
+            long mtime = atributos.lastModifiedTime().toMillis();
+            BackupManifest.Entrada anterior = manifesto.obter(caminho);
+            boolean existiaAntes = anterior != null && !anterior.removido();
+
+            // Caminho rápido: mesmo tamanho e mesmo mtime = mesmo arquivo
+            if (existiaAntes && anterior.tamanho() == tamanho && anterior.mtimeMillis() == mtime) {
+                inalterados++;
+                continue;
+            }
+
+            Path copia = destino.resolve(caminho);
+            String hash;
+            if (existiaAntes) {
+                // Metadados mudaram: o hash decide se o conteúdo mudou de verdade
+                hash = BackupManifest.sha256(arquivo);
+                if (hash.equals(anterior.hash())) {
+                    manifesto.registrar(new BackupManifest.Entrada(caminho, tamanho, mtime, hash, false));
+                    inalterados++;
+                    continue;
+                }
+                copiar(arquivo, copia);
+            } else {
+                hash = copiarCalculandoHash(arquivo, copia);
+            }
+
+            // Preserva o mtime para a cópia refletir a versão salva
+            Files.setLastModifiedTime(copia, FileTime.fromMillis(mtime));
+            manifesto.registrar(new BackupManifest.Entrada(caminho, tamanho, mtime, hash, false));
+            copiados++;
+            bytesCopiados += tamanho;
+        }
+
+        // Tudo que estava ativo no manifesto e não apareceu agora foi removido
+        int removidos = 0;
+        long agora = System.currentTimeMillis();
+        for (BackupManifest.Entrada entrada : manifesto.entradas().toArray(new BackupManifest.Entrada[0])) {
+            if (!entrada.removido() && !vistos.contains(entrada.caminho())) {
+                manifesto.registrar(entrada.comoRemovida(agora));
+                removidos++;
+            }
+        }
+
+        manifesto.salvar(arquivoManifesto);
+        return new Relatorio(copiados, inalterados, removidos, bytesCopiados);
+    }
+
+    // =============================================
+    // MÉTODOS AUXILIARES
+    // =============================================
+
+    private static void copiar(Path arquivo, Path copia) throws IOException {
+        criarPastaPai(copia);
+        Files.copy(arquivo, copia, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Copia e calcula o SHA-256 na mesma passada sobre o arquivo.
+     */
+    private static String copiarCalculandoHash(Path arquivo, Path copia) throws IOException {
+        criarPastaPai(copia);
+        MessageDigest digest = BackupManifest.novoSha256();
+        try (InputStream entrada = new DigestInputStream(Files.newInputStream(arquivo), digest);
+             OutputStream saida = Files.newOutputStream(copia)) {
+            entrada.transferTo(saida);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void criarPastaPai(Path arquivo) throws IOException {
+        Path pai = arquivo.getParent();
+        if (pai != null) {
+            Files.createDirectories(pai);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package io_nio;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * LogLevel.java - Níveis de Log Reconhecidos pelas Ferramentas de Log
+ *
+ * Cada nível guarda seu nome em bytes ASCII, para que leitores possam
+ * comparar direto nos bytes do arquivo sem criar Strings.
+ *
+ * O código de cada nível é o que vai para o log binário: é fixo e nunca muda,
+ * mesmo que constantes sejam adicionadas ou reordenadas (o ordinal mudaria).
+ */
+public enum LogLevel {
+    ERROR(0), WARN(1), INFO(2), DEBUG(3), TRACE(4);
+
+    private static final LogLevel[] VALORES = values();
+    private static final LogLevel[] POR_CODIGO = new LogLevel[Byte.MAX_VALUE + 1];
+
+    static {
+        for (LogLevel nivel : VALORES) {
+            if (POR_CODIGO[nivel.codigo] != null) {
+                throw new IllegalStateException("Código de nível repetido: " + nivel.codigo);
+            }
+            POR_CODIGO[nivel.codigo] = nivel;
+        }
+    }
+
+    private final byte codigo;
+    private final byte[] bytes = name().getBytes(StandardCharsets.US_ASCII);
+
+    LogLevel(int codigo) {
+        this.codigo = (byte) codigo;
+    }
+
+    /**
+     * Código estável do nível no log binário (0 a 127).
+     */
+    public byte codigo() {
+        return codigo;
+    }
+
+    /**
+     * Nível com este código; null se nenhum nível usa o código.
+     */
+    public static LogLevel deCodigo(byte codigo) {
+        return codigo >= 0 ? POR_CODIGO[codigo] : null;
+    }
+
+    /**
+     * Nome do nível em ASCII (sem colchetes). Não modifique o array retornado.
+     */
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    /**
+     * Procura o nível cujo nome é exatamente tag[0..tamanho).
+     * Retorna null se não for um nível conhecido.
+     */
+    public static LogLevel deBytes(byte[] tag, int tamanho) {
+        for (LogLevel nivel : VALORES) {
+            byte[] nome = nivel.bytes;
+            if (nome.length != tamanho) {
+                continue;
+            }
+            boolean igual = true;
+            for (int i = 0; i < tamanho; i++) {
+                if (nome[i] != tag[i]) {
+                    igual = false;
+                    break;
+                }
+            }
+            if (igual) {
+                return nivel;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,287 @@
+package io_nio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * LogRotator.java - Rotação de Log por Tamanho e Tempo
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Files.move() com ATOMIC_MOVE - o arquivo ativo vira segmento de uma vez
+ * - GZIPOutputStream - compressão do segmento numa thread de fundo
+ * - Retenção - só os N segmentos mais recentes ficam no disco
+ * - Nomes ordenáveis - "application-20240823-162703-000.log.gz", em UTC: a
+ *   mudança de horário de verão não faz um segmento novo ordenar antes dos antigos
+ * - Falha de compressão não para o log - fica em erroCompressao() e só é lançada no close()
+ *
+ * Usado pelo AsyncLogAppender: a thread escritora decide quando rotacionar,
+ * renomeia e reabre o arquivo; a compressão nunca roda no caminho de escrita.
+ */
+public class LogRotator implements AutoCloseable {
+
+    private static final DateTimeFormatter FORMATO_SEGMENTO =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final String EXTENSAO_GZIP = ".gz";
+
+    private final Path arquivoAtivo;
+    private final PoliticaRotacao politica;
+    private final String prefixo;
+    private final String extensao;
+    // Só os nomes que o próprio rotator gera: "application-20240823-162703-000.log[.gz]"
+    private final Pattern padraoSegmento;
+    private final ExecutorService compressor;
+
+    // Só a thread de compressão escreve: a primeira falha, com as seguintes como suppressed
+    private volatile IOException erroCompressao;
+
+    // Só a thread escritora lê e escreve: os nomes nunca voltam no tempo
+    private LocalDateTime ultimoMomento;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== LOG ROTATOR ===\n");
+
+        Path pasta = Files.createDirectories(Paths.get("teste-rotacao"));
+        Path logFile = pasta.resolve("application.log");
+
+        // Rotaciona a cada ~64 KB e mantém só os 3 segmentos mais recentes
+        PoliticaRotacao politica = PoliticaRotacao.porTamanho(64 * 1024, 3);
+
+        try (AsyncLogAppender appender = new AsyncLogAppender(logFile, AsyncLogAppender.CAPACIDADE_FILA_PADRAO,
+                AsyncLogAppender.TAMANHO_BUFFER_PADRAO, AsyncLogAppender.PoliticaFlush.aCadaEntradas(500),
+                politica)) {
+            for (int i = 0; i < 10_000; i++) {
+                appender.append("INFO", "Evento número " + i);
+            }
+        }
+
+        System.out.println("📋 Arquivos após a rotação:");
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(pasta)) {
+            for (Path arquivo : arquivos) {
+                System.out.printf("  %s (%d bytes)%n", arquivo.getFileName(), Files.size(arquivo));
+            }
+        }
+
+        // Limpar
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(pasta)) {
+            for (Path arquivo : arquivos) {
+                Files.delete(arquivo);
+            }
+        }
+        Files.delete(pasta);
+    }
+
+    /**
+     * Quando rotacionar e quantos segmentos guardar.
+     * Zero em tamanhoMaximoBytes ou intervalo null desliga o critério.
+     */
+    public record PoliticaRotacao(long tamanhoMaximoBytes, Duration intervalo, int retencao) {
+
+        public PoliticaRotacao {
+            if (tamanhoMaximoBytes < 0) {
+                throw new IllegalArgumentException("Tamanho máximo não pode ser negativo");
+            }
+            if (intervalo != null && (intervalo.isZero() || intervalo.isNegative())) {
+                throw new IllegalArgumentException("Intervalo de rotação deve ser positivo");
+            }
+            if (retencao < 1) {
+                throw new IllegalArgumentException("Retenção deve manter pelo menos 1 segmento");
+            }
+        }
+
+        public static PoliticaRotacao porTamanho(long bytes, int retencao) {
+            return new PoliticaRotacao(bytes, null, retencao);
+        }
+
+        public static PoliticaRotacao porTempo(Duration intervalo, int retencao) {
+            return new PoliticaRotacao(0, intervalo, retencao);
+        }
+
+        public static PoliticaRotacao porTamanhoOuTempo(long bytes, Duration intervalo, int retencao) {
+            return new PoliticaRotacao(bytes, intervalo, retencao);
+        }
+    }
+
+    public LogRotator(Path arquivoAtivo, PoliticaRotacao politica) {
+        this.arquivoAtivo = Objects.requireNonNull(arquivoAtivo, "Arquivo ativo não pode ser null");
+        this.politica = Objects.requireNonNull(politica, "Política de rotação não pode ser null");
+
+        String nome = arquivoAtivo.getFileName().toString();
+        int ponto = nome.lastIndexOf('.');
+        this.prefixo = (ponto > 0 ? nome.substring(0, ponto) : nome) + "-";
+        this.extensao = ponto > 0 ? nome.substring(ponto) : "";
+        this.padraoSegmento = Pattern.compile(Pattern.quote(prefixo) + "\\d{8}-\\d{6}-\\d{3}"
+                + Pattern.quote(extensao) + "(" + Pattern.quote(EXTENSAO_GZIP) + ")?");
+
+        this.compressor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "log-rotator-" + nome);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * @param tamanhoAtual bytes no arquivo ativo, incluindo o que ainda está no buffer
+     * @param abertoEmMillis quando o segmento ativo começou
+     * @param proximaEntrada tamanho da entrada que está para ser escrita
+     */
+    public boolean deveRotacionar(long tamanhoAtual, long abertoEmMillis, int proximaEntrada) {
+        if (tamanhoAtual == 0) {
+            return false;
+        }
+        if (politica.tamanhoMaximoBytes() > 0
+                && tamanhoAtual + proximaEntrada > politica.tamanhoMaximoBytes()) {
+            return true;
+        }
+        return politica.intervalo() != null
+                && System.currentTimeMillis() - abertoEmMillis >= politica.intervalo().toMillis();
+    }
+
+    /**
+     * Renomeia o arquivo ativo para um segmento com timestamp e agenda a
+     * compressão + limpeza. O chamador deve ter fechado o canal antes e
+     * reabrir o arquivo ativo depois. Uma falha de compressão anterior não
+     * impede a rotação (o segmento fica sem comprimir e ainda conta na retenção).
+     */
+    public Path rotacionar() throws IOException {
+        Path segmento = proximoNomeSegmento();
+        try {
+            Files.move(arquivoAtivo, segmento, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(arquivoAtivo, segmento);
+        }
+
+        compressor.execute(() -> comprimirEAplicarRetencao(segmento));
+        return segmento;
+    }
+
+    /**
+     * Primeira falha de compressão até agora (as seguintes vêm em getSuppressed()), ou null.
+     */
+    public IOException erroCompressao() {
+        return erroCompressao;
+    }
+
+    /**
+     * Espera as compressões pendentes e lança a falha de compressão, se houve alguma.
+     */
+    @Override
+    public void close() throws IOException {
+        compressor.shutdown();
+        try {
+            if (!compressor.awaitTermination(1, TimeUnit.MINUTES)) {
+                compressor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            compressor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        lancarErroSeHouver();
+    }
+
+    // =============================================
+    // THREAD DE FUNDO
+    // =============================================
+
+    private void comprimirEAplicarRetencao(Path segmento) {
+        Path destino = segmento.resolveSibling(segmento.getFileName() + EXTENSAO_GZIP);
+        Path temporario = segmento.resolveSibling(segmento.getFileName() + EXTENSAO_GZIP + ".tmp");
+
+        try {
+            try (InputStream entrada = Files.newInputStream(segmento);
+                 OutputStream saida = new GZIPOutputStream(Files.newOutputStream(temporario), 64 * 1024)) {
+                entrada.transferTo(saida);
+            }
+            // Só troca quando o .gz está completo: um crash nunca deixa .gz pela metade
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(segmento);
+
+            aplicarRetencao();
+        } catch (IOException e) {
+            if (erroCompressao == null) {
+                erroCompressao = e;
+            } else {
+                erroCompressao.addSuppressed(e);
+            }
+            try {
+                Files.deleteIfExists(temporario);
+            } catch (IOException ignorada) {
+                // O erro original é o que interessa
+            }
+        }
+    }
+
+    private void aplicarRetencao() throws IOException {
+        List<Path> segmentos = new ArrayList<>();
+        Path pasta = diretorio();
+        // Um glob "application-*.log*" pegaria também "application-old.log.bak" (e o apagaria)
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(pasta,
+                arquivo -> padraoSegmento.matcher(arquivo.getFileName().toString()).matches())) {
+            for (Path arquivo : arquivos) {
+                segmentos.add(arquivo);
+            }
+        }
+
+        // O timestamp no nome faz a ordem alfabética ser a ordem cronológica
+        Collections.sort(segmentos);
+        for (int i = 0; i < segmentos.size() - politica.retencao(); i++) {
+            Files.deleteIfExists(segmentos.get(i));
+        }
+    }
+
+    // =============================================
+    // MÉTODOS AUXILIARES
+    // =============================================
+
+    private Path proximoNomeSegmento() {
+        LocalDateTime momento = LocalDateTime.now(ZoneOffset.UTC);
+        // Relógio ajustado para trás (NTP): continua depois do último nome
+        if (ultimoMomento != null && !momento.isAfter(ultimoMomento)) {
+            momento = ultimoMomento.plus(Duration.ofMillis(1));
+        }
+        Path segmento = nomeSegmento(momento);
+
+        // Duas rotações no mesmo milissegundo: avança 1 ms para manter a ordem pelo nome
+        while (Files.exists(segmento) || Files.exists(segmento.resolveSibling(segmento.getFileName() + EXTENSAO_GZIP))) {
+            momento = momento.plus(Duration.ofMillis(1));
+            segmento = nomeSegmento(momento);
+        }
+        ultimoMomento = momento;
+        return segmento;
+    }
+
+    private Path nomeSegmento(LocalDateTime momento) {
+        return diretorio().resolve(prefixo + momento.format(FORMATO_SEGMENTO) + extensao);
+    }
+
+    private Path diretorio() {
+        Path pai = arquivoAtivo.toAbsolutePath().getParent();
+        return pai != null ? pai : Paths.get(".");
+    }
+
+    private void lancarErroSeHouver() throws IOException {
+        IOException falha = erroCompressao;
+        if (falha != null) {
+            throw new IOException("Falha ao comprimir segmento de log", falha);
+        }
+    }
+}
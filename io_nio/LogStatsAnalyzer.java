@@ -0,0 +1,169 @@
+package io_nio;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * LogStatsAnalyzer.java - Estatísticas de Log em Uma Única Passada
+ *
+ * CONCEITOS IMPORTANTES:
+ * - FileChannel.map() - memory-mapping do arquivo em segmentos
+ * - Posições em long - funciona com arquivos maiores que 2 GB
+ * - Varredura de bytes - fim de linha e nível achados sem criar Strings
+ * - Máquina de estados - uma linha pode atravessar dois segmentos
+ *
+ * Substitui o readAllLines() + três streams de contains() do sistemaLogSimples:
+ * o heap fica constante e o arquivo é lido uma vez só.
+ */
+public class LogStatsAnalyzer {
+
+    /** Tamanho padrão de cada janela mapeada (MappedByteBuffer é limitado a 2 GB). */
+    public static final long TAMANHO_SEGMENTO_PADRAO = 256L * 1024 * 1024;
+
+    /** Nomes de nível maiores que isso não são níveis conhecidos. */
+    private static final int TAMANHO_MAXIMO_TAG = 8;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== LOG STATS ANALYZER ===\n");
+
+        Path logFile = args.length > 0 ? Paths.get(args[0]) : Paths.get("application.log");
+        if (Files.notExists(logFile)) {
+            System.out.println("❌ Arquivo não encontrado: " + logFile);
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        Estatisticas estatisticas = analisar(logFile);
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        System.out.println("📄 Arquivo: " + logFile);
+        System.out.println("Total de logs: " + estatisticas.totalLinhas());
+        for (LogLevel nivel : LogLevel.values()) {
+            System.out.println(nivel + ": " + estatisticas.contagem(nivel));
+        }
+        System.out.println("Sem nível: " + estatisticas.semNivel());
+        System.out.println("Tamanho do arquivo: " + estatisticas.tamanhoBytes() + " bytes");
+        System.out.println("⏱️ Tempo: " + duracaoMs + " ms");
+    }
+
+    /**
+     * Resultado da análise. 'semNivel' conta linhas cujo primeiro [TAG]
+     * não é um nível conhecido (ou que não têm tag nenhuma).
+     */
+    public record Estatisticas(long totalLinhas, Map<LogLevel, Long> porNivel,
+                               long semNivel, long tamanhoBytes) {
+
+        public long contagem(LogLevel nivel) {
+            return porNivel.getOrDefault(nivel, 0L);
+        }
+    }
+
+    public static Estatisticas analisar(Path arquivo) throws IOException {
+        return analisar(arquivo, TAMANHO_SEGMENTO_PADRAO);
+    }
+
+    public static Estatisticas analisar(Path arquivo, long tamanhoSegmento) throws IOException {
+        if (tamanhoSegmento <= 0 || tamanhoSegmento > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Tamanho de segmento inválido: " + tamanhoSegmento);
+        }
+
+        Varredura varredura = new Varredura();
+        long tamanho;
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            tamanho = canal.size();
+            for (long posicao = 0; posicao < tamanho; posicao += tamanhoSegmento) {
+                long tamanhoJanela = Math.min(tamanhoSegmento, tamanho - posicao);
+                MappedByteBuffer janela = canal.map(FileChannel.MapMode.READ_ONLY, posicao, tamanhoJanela);
+                varredura.processar(janela, (int) tamanhoJanela);
+            }
+        }
+        varredura.finalizar();
+
+        Map<LogLevel, Long> porNivel = new EnumMap<>(LogLevel.class);
+        for (LogLevel nivel : LogLevel.values()) {
+            porNivel.put(nivel, varredura.contagens[nivel.ordinal()]);
+        }
+        return new Estatisticas(varredura.linhas, Collections.unmodifiableMap(porNivel),
+                varredura.semNivel, tamanho);
+    }
+
+    // =============================================
+    // MÁQUINA DE ESTADOS DA VARREDURA
+    // =============================================
+
+    /**
+     * Estado de uma linha: procurando '[' -> lendo a tag -> ignorando até '\n'.
+     * O estado sobrevive entre janelas, então não importa onde o segmento corta.
+     */
+    private static final class Varredura {
+        private static final int PROCURANDO = 0;
+        private static final int LENDO_TAG = 1;
+        private static final int IGNORANDO = 2;
+
+        final long[] contagens = new long[LogLevel.values().length];
+        long linhas = 0;
+        long semNivel = 0;
+
+        private final byte[] tag = new byte[TAMANHO_MAXIMO_TAG];
+        private int tamanhoTag = 0;
+        private int estado = PROCURANDO;
+        private LogLevel nivelDaLinha = null;
+        private boolean linhaAberta = false;
+
+        void processar(MappedByteBuffer janela, int limite) {
+            for (int i = 0; i < limite; i++) {
+                byte b = janela.get(i);
+
+                if (b == '\n') {
+                    fecharLinha();
+                    continue;
+                }
+                linhaAberta = true;
+
+                if (estado == PROCURANDO) {
+                    if (b == '[') {
+                        estado = LENDO_TAG;
+                        tamanhoTag = 0;
+                    }
+                } else if (estado == LENDO_TAG) {
+                    if (b == ']') {
+                        nivelDaLinha = LogLevel.deBytes(tag, tamanhoTag);
+                        estado = IGNORANDO;
+                    } else if (tamanhoTag == TAMANHO_MAXIMO_TAG) {
+                        estado = IGNORANDO;
+                    } else {
+                        tag[tamanhoTag++] = b;
+                    }
+                }
+            }
+        }
+
+        void finalizar() {
+            // Última linha sem '\n' no fim do arquivo
+            if (linhaAberta) {
+                fecharLinha();
+            }
+        }
+
+        private void fecharLinha() {
+            linhas++;
+            if (nivelDaLinha != null) {
+                contagens[nivelDaLinha.ordinal()]++;
+            } else {
+                semNivel++;
+            }
+            estado = PROCURANDO;
+            nivelDaLinha = null;
+            linhaAberta = false;
+        }
+    }
+}
@@ -0,0 +1,445 @@
+package io_nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * LogTimestampIndex.java - Índice Esparso de Timestamps para Logs
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Índice esparso - uma entrada (timestamp, offset) a cada N bytes de log
+ * - Arquivo sidecar - "application.log.idx", pares de long em binário
+ * - Busca binária - acha o offset inicial sem ler o log desde o começo
+ * - FileChannel.position() - leitura começa direto no meio do arquivo
+ *
+ * O timestamp "yyyy-MM-dd HH:mm:ss" é guardado como o long yyyyMMddHHmmss.
+ * É hora local de parede: no fim do horário de verão o relógio volta e as
+ * chaves do log também. Por isso o índice força chaves não decrescentes
+ * (uma chave menor que a anterior herda a anterior): a busca binária continua
+ * válida e nunca começa depois do intervalo pedido. Numa consulta dentro da
+ * hora repetida, vêm as linhas da primeira passagem (o texto é ambíguo).
+ * O AsyncLogAppender alimenta o índice enquanto escreve (indexar = true).
+ */
+public class LogTimestampIndex implements AutoCloseable {
+
+    public static final int INTERVALO_PADRAO = 64 * 1024;
+    public static final String EXTENSAO_INDICE = ".idx";
+
+    private static final int TAMANHO_TIMESTAMP = 19; // "yyyy-MM-dd HH:mm:ss"
+    private static final int TAMANHO_REGISTRO = 16;  // chave (long) + offset (long)
+    private static final int TAMANHO_LEITURA = 1024 * 1024;
+    private static final DateTimeFormatter FORMATO_SINTETICO =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Path log;
+    private final Path sidecar;
+    private final int intervaloBytes;
+    private final ByteBuffer registro = ByteBuffer.allocate(TAMANHO_REGISTRO);
+
+    private FileChannel canalIndice;
+    private long[] chaves = new long[1024];
+    private long[] offsets = new long[1024];
+    private int tamanho = 0;
+    private long ultimoOffsetIndexado = -1;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== LOG TIMESTAMP INDEX ===\n");
+
+        // Tamanho do log sintético em MB (use 5120 para o benchmark de 5 GB)
+        long tamanhoMb = args.length > 0 ? Long.parseLong(args[0]) : 64;
+        Path logFile = Paths.get("teste-indice.log");
+        Path sidecar = caminhoSidecar(logFile);
+
+        try {
+            // 1. ÍNDICE INCREMENTAL: o appender registra offsets enquanto escreve
+            System.out.println("--- ÍNDICE INCREMENTAL ---");
+            try (AsyncLogAppender appender = new AsyncLogAppender(logFile, AsyncLogAppender.CAPACIDADE_FILA_PADRAO,
+                    AsyncLogAppender.TAMANHO_BUFFER_PADRAO, AsyncLogAppender.PoliticaFlush.aCadaEntradas(1000),
+                    null, true)) {
+                for (int i = 0; i < 50_000; i++) {
+                    appender.append("INFO", "Evento número " + i);
+                }
+                appender.flush();
+                System.out.println("📇 Entradas no índice: " + appender.indice().entradas());
+            }
+            Files.delete(logFile);
+            Files.delete(sidecar);
+
+            // 2. BENCHMARK: consulta indexada x varredura completa
+            System.out.println("\n--- BENCHMARK (" + tamanhoMb + " MB) ---");
+            LocalDateTime base = LocalDateTime.of(2024, 8, 23, 0, 0, 0);
+            LocalDateTime fimLog = gerarLogSintetico(logFile, tamanhoMb * 1024 * 1024, base);
+            System.out.println("📄 Log sintético: " + Files.size(logFile) + " bytes");
+
+            // Janela de 10 segundos no meio do arquivo
+            long segundosTotais = Duration.between(base, fimLog).getSeconds();
+            LocalDateTime inicio = base.plusSeconds(segundosTotais / 2);
+            LocalDateTime fim = inicio.plusSeconds(10);
+
+            long t0 = System.nanoTime();
+            try (LogTimestampIndex indice = abrir(logFile)) {
+                long construcaoMs = (System.nanoTime() - t0) / 1_000_000;
+                System.out.println("📇 Índice construído: " + indice.entradas() + " entradas em " + construcaoMs + " ms");
+
+                long[] contador = new long[1];
+                t0 = System.nanoTime();
+                indice.consultar(inicio, fim, linha -> contador[0]++);
+                long indexadaUs = (System.nanoTime() - t0) / 1_000;
+                System.out.println("⚡ Consulta indexada: " + contador[0] + " linhas em " + indexadaUs + " µs");
+            }
+
+            long[] contador = new long[1];
+            t0 = System.nanoTime();
+            varrerIntervalo(logFile, 0, chave(inicio), chave(fim), linha -> contador[0]++);
+            long varreduraUs = (System.nanoTime() - t0) / 1_000;
+            System.out.println("🐢 Varredura completa: " + contador[0] + " linhas em " + varreduraUs + " µs");
+
+        } finally {
+            Files.deleteIfExists(logFile);
+            Files.deleteIfExists(sidecar);
+        }
+    }
+
+    /**
+     * Abre o índice do log. Se o sidecar não existir ou não bater com o log
+     * (ex.: log truncado), o índice é reconstruído varrendo o arquivo uma vez.
+     */
+    public static LogTimestampIndex abrir(Path log) throws IOException {
+        return abrir(log, INTERVALO_PADRAO);
+    }
+
+    public static LogTimestampIndex abrir(Path log, int intervaloBytes) throws IOException {
+        if (intervaloBytes <= 0) {
+            throw new IllegalArgumentException("Intervalo do índice deve ser positivo");
+        }
+        LogTimestampIndex indice = new LogTimestampIndex(log, intervaloBytes);
+        long tamanhoLog = Files.exists(log) ? Files.size(log) : 0;
+
+        if (!indice.carregarSidecar(tamanhoLog)) {
+            indice.reconstruir(tamanhoLog);
+        }
+        indice.canalIndice = FileChannel.open(indice.sidecar,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return indice;
+    }
+
+    public static Path caminhoSidecar(Path log) {
+        return log.resolveSibling(log.getFileName() + EXTENSAO_INDICE);
+    }
+
+    /**
+     * Chave ordenável de um instante: 2024-08-23 16:27:03 -> 20240823162703.
+     */
+    public static long chave(LocalDateTime momento) {
+        return momento.getYear() * 10_000_000_000L
+                + momento.getMonthValue() * 100_000_000L
+                + momento.getDayOfMonth() * 1_000_000L
+                + momento.getHour() * 10_000L
+                + momento.getMinute() * 100L
+                + momento.getSecond();
+    }
+
+    private LogTimestampIndex(Path log, int intervaloBytes) {
+        this.log = log;
+        this.sidecar = caminhoSidecar(log);
+        this.intervaloBytes = intervaloBytes;
+    }
+
+    /**
+     * Chamado para cada linha escrita. Só grava no índice quando já se
+     * passaram 'intervaloBytes' desde a última entrada indexada.
+     */
+    public synchronized void registrar(long chave, long offset) throws IOException {
+        if (!deveIndexar(offset)) {
+            return;
+        }
+        adicionar(chave, offset);
+
+        registro.clear();
+        registro.putLong(chaves[tamanho - 1]).putLong(offset).flip();
+        while (registro.hasRemaining()) {
+            canalIndice.write(registro);
+        }
+    }
+
+    /**
+     * Zera o índice - usado quando o log ativo é rotacionado e recomeça vazio.
+     */
+    public synchronized void reiniciar() throws IOException {
+        canalIndice.truncate(0);
+        tamanho = 0;
+        ultimoOffsetIndexado = -1;
+    }
+
+    public synchronized int entradas() {
+        return tamanho;
+    }
+
+    /**
+     * Entrega ao consumidor as linhas com timestamp em [inicio, fim], na ordem
+     * do arquivo. Linhas sem timestamp (continuações) seguem a linha anterior.
+     *
+     * @return quantidade de linhas entregues
+     */
+    public long consultar(LocalDateTime inicio, LocalDateTime fim, Consumer<String> destino) throws IOException {
+        long chaveInicio = chave(inicio);
+        return varrerIntervalo(log, offsetInicial(chaveInicio), chaveInicio, chave(fim), destino);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (canalIndice != null) {
+            canalIndice.close();
+        }
+    }
+
+    // =============================================
+    // BUSCA E LEITURA
+    // =============================================
+
+    /**
+     * Offset da última entrada com chave ESTRITAMENTE menor que o início:
+     * linhas do mesmo segundo podem começar antes da entrada indexada.
+     */
+    private synchronized long offsetInicial(long chaveInicio) {
+        int baixo = 0;
+        int alto = tamanho - 1;
+        long offset = 0;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (chaves[meio] < chaveInicio) {
+                offset = offsets[meio];
+                baixo = meio + 1;
+            } else {
+                alto = meio - 1;
+            }
+        }
+        return offset;
+    }
+
+    private static long varrerIntervalo(Path log, long offsetInicial, long chaveInicio, long chaveFim,
+                                        Consumer<String> destino) throws IOException {
+        long[] entregues = new long[1];
+        long[] chaveAtual = {Long.MIN_VALUE};
+
+        lerLinhas(log, offsetInicial, (offset, bytes, inicio, tamanho) -> {
+            long chave = chaveDeBytes(bytes, inicio, tamanho);
+            if (chave >= 0) {
+                if (chave > chaveFim) {
+                    return false;
+                }
+                chaveAtual[0] = chave;
+            }
+            if (chaveAtual[0] >= chaveInicio) {
+                int fimLinha = tamanho > 0 && bytes[inicio + tamanho - 1] == '\r' ? tamanho - 1 : tamanho;
+                destino.accept(new String(bytes, inicio, fimLinha, StandardCharsets.UTF_8));
+                entregues[0]++;
+            }
+            return true;
+        });
+        return entregues[0];
+    }
+
+    private boolean carregarSidecar(long tamanhoLog) throws IOException {
+        if (Files.notExists(sidecar)) {
+            return false;
+        }
+        byte[] conteudo = Files.readAllBytes(sidecar);
+        if (conteudo.length % TAMANHO_REGISTRO != 0) {
+            return false;
+        }
+
+        ByteBuffer leitura = ByteBuffer.wrap(conteudo);
+        while (leitura.hasRemaining()) {
+            long chave = leitura.getLong();
+            long offset = leitura.getLong();
+            if (offset >= tamanhoLog || offset <= ultimoOffsetIndexado) {
+                // Sidecar de outro log (ou de antes de uma truncagem): descartar
+                tamanho = 0;
+                ultimoOffsetIndexado = -1;
+                return false;
+            }
+            adicionar(chave, offset);
+        }
+        return true;
+    }
+
+    private void reconstruir(long tamanhoLog) throws IOException {
+        ByteBuffer saida = ByteBuffer.allocate(TAMANHO_REGISTRO * 4096);
+
+        try (FileChannel novo = FileChannel.open(sidecar, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (tamanhoLog > 0) {
+                lerLinhas(log, 0, (offset, bytes, inicio, tamanhoLinha) -> {
+                    if (deveIndexar(offset)) {
+                        long chave = chaveDeBytes(bytes, inicio, tamanhoLinha);
+                        if (chave >= 0) {
+                            adicionar(chave, offset);
+                            if (!saida.hasRemaining()) {
+                                gravar(novo, saida);
+                            }
+                            saida.putLong(chaves[tamanho - 1]).putLong(offset);
+                        }
+                    }
+                    return true;
+                });
+            }
+            gravar(novo, saida);
+        }
+    }
+
+    private boolean deveIndexar(long offset) {
+        return ultimoOffsetIndexado < 0 || offset - ultimoOffsetIndexado >= intervaloBytes;
+    }
+
+    private void adicionar(long chave, long offset) {
+        if (tamanho == chaves.length) {
+            chaves = Arrays.copyOf(chaves, tamanho * 2);
+            offsets = Arrays.copyOf(offsets, tamanho * 2);
+        }
+        // Relógio voltou (fim do horário de verão, ajuste de NTP): mantém a ordem
+        chaves[tamanho] = tamanho > 0 ? Math.max(chave, chaves[tamanho - 1]) : chave;
+        offsets[tamanho] = offset;
+        tamanho++;
+        ultimoOffsetIndexado = offset;
+    }
+
+    // =============================================
+    // MÉTODOS AUXILIARES
+    // =============================================
+
+    @FunctionalInterface
+    private interface VisitanteLinha {
+        /** @return false para parar a leitura */
+        boolean visitar(long offset, byte[] bytes, int inicio, int tamanho) throws IOException;
+    }
+
+    /**
+     * Lê o log a partir de 'offsetInicial' em blocos grandes e entrega cada
+     * linha (sem o '\n') com seu offset absoluto. Linhas maiores que o bloco
+     * fazem o buffer crescer.
+     */
+    private static void lerLinhas(Path log, long offsetInicial, VisitanteLinha visitante) throws IOException {
+        try (FileChannel canal = FileChannel.open(log, StandardOpenOption.READ)) {
+            canal.position(offsetInicial);
+            ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_LEITURA);
+            long offsetBuffer = offsetInicial; // offset absoluto de buffer[0]
+
+            while (true) {
+                int lidos = canal.read(buffer);
+                byte[] bytes = buffer.array();
+                int limite = buffer.position();
+                int inicioLinha = 0;
+
+                for (int i = 0; i < limite; i++) {
+                    if (bytes[i] == '\n') {
+                        if (!visitante.visitar(offsetBuffer + inicioLinha, bytes, inicioLinha, i - inicioLinha)) {
+                            return;
+                        }
+                        inicioLinha = i + 1;
+                    }
+                }
+
+                if (lidos < 0) {
+                    if (inicioLinha < limite) {
+                        visitante.visitar(offsetBuffer + inicioLinha, bytes, inicioLinha, limite - inicioLinha);
+                    }
+                    return;
+                }
+
+                // Move a linha incompleta para o começo do buffer
+                buffer.position(inicioLinha).limit(limite);
+                buffer.compact();
+                offsetBuffer += inicioLinha;
+                if (!buffer.hasRemaining()) {
+                    ByteBuffer maior = ByteBuffer.allocate(buffer.capacity() * 2);
+                    buffer.flip();
+                    maior.put(buffer);
+                    buffer = maior;
+                }
+            }
+        }
+    }
+
+    /**
+     * Lê "yyyy-MM-dd HH:mm:ss" no começo da linha. Retorna -1 se a linha
+     * não começar com um timestamp.
+     */
+    static long chaveDeBytes(byte[] bytes, int inicio, int tamanho) {
+        if (tamanho < TAMANHO_TIMESTAMP) {
+            return -1;
+        }
+        long chave = 0;
+        for (int i = 0; i < TAMANHO_TIMESTAMP; i++) {
+            byte b = bytes[inicio + i];
+            switch (i) {
+                case 4, 7 -> {
+                    if (b != '-') return -1;
+                }
+                case 10 -> {
+                    if (b != ' ') return -1;
+                }
+                case 13, 16 -> {
+                    if (b != ':') return -1;
+                }
+                default -> {
+                    if (b < '0' || b > '9') return -1;
+                    chave = chave * 10 + (b - '0');
+                }
+            }
+        }
+        return chave;
+    }
+
+    private static void gravar(FileChannel canal, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Gera um log ordenado com ~1 linha por milissegundo a partir de 'base'.
+     * Retorna o timestamp da última linha.
+     */
+    private static LocalDateTime gerarLogSintetico(Path destino, long bytesAlvo, LocalDateTime base) throws IOException {
+        String[] niveis = {"INFO", "DEBUG", "INFO", "WARN", "INFO", "ERROR"};
+        ByteBuffer buffer = ByteBuffer.allocateDirect(4 * 1024 * 1024);
+        LocalDateTime momento = base;
+        byte[] timestamp = momento.format(FORMATO_SINTETICO).getBytes(StandardCharsets.US_ASCII);
+        long escritos = 0;
+        long linha = 0;
+
+        try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (escritos < bytesAlvo) {
+                if (linha % 1000 == 0 && linha > 0) {
+                    momento = momento.plusSeconds(1);
+                    timestamp = momento.format(FORMATO_SINTETICO).getBytes(StandardCharsets.US_ASCII);
+                }
+                byte[] resto = (" [" + niveis[(int) (linha % niveis.length)] + "] Requisição " + linha
+                        + " processada\n").getBytes(StandardCharsets.UTF_8);
+                if (buffer.remaining() < timestamp.length + resto.length) {
+                    gravar(canal, buffer);
+                }
+                buffer.put(timestamp).put(resto);
+                escritos += timestamp.length + resto.length;
+                linha++;
+            }
+            gravar(canal, buffer);
+        }
+        return momento;
+    }
+}
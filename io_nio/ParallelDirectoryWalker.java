@@ -0,0 +1,262 @@
+package io_nio;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * ParallelDirectoryWalker.java - Varredura Recursiva e Paralela de Diretórios
+ *
+ * CONCEITOS IMPORTANTES:
+ * - ForkJoinPool + RecursiveAction - cada subdiretório vira uma tarefa
+ * - walkFileTree com maxDepth = 1 - entrega os atributos de cada entrada
+ *   junto com o Path, sem um segundo stat
+ * - PathMatcher com glob - filtros de inclusão e exclusão
+ * - fileKey() - detecta loops de links simbólicos ao segui-los
+ *
+ * Diferente de Files.list(), desce em todos os níveis da árvore.
+ *
+ * Regras dos globs: glob sem '/' compara com o nome do arquivo ("*.txt");
+ * glob com '/' compara com o caminho relativo à raiz ("logs/**").
+ * Inclusões valem para arquivos; exclusões valem também para diretórios
+ * (um diretório excluído não é visitado).
+ */
+public class ParallelDirectoryWalker {
+
+    private final int paralelismo;
+    private final List<PathMatcher> inclusoesNome = new ArrayList<>();
+    private final List<PathMatcher> inclusoesCaminho = new ArrayList<>();
+    private final List<PathMatcher> exclusoesNome = new ArrayList<>();
+    private final List<PathMatcher> exclusoesCaminho = new ArrayList<>();
+    private final boolean seguirLinks;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== PARALLEL DIRECTORY WALKER ===\n");
+
+        Path raiz = args.length > 0 ? Paths.get(args[0]) : Paths.get(".");
+
+        // Todos os .java, ignorando a pasta de build
+        ParallelDirectoryWalker walker = new ParallelDirectoryWalker(
+                Runtime.getRuntime().availableProcessors(), List.of("*.java"), List.of("target"), false);
+
+        AtomicLong bytes = new AtomicLong();
+        long inicio = System.nanoTime();
+        Relatorio relatorio = walker.percorrer(raiz, (arquivo, atributos) -> bytes.addAndGet(atributos.size()));
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        System.out.println("📁 Raiz: " + raiz.toAbsolutePath().normalize());
+        System.out.println("📄 Arquivos .java: " + relatorio.arquivos());
+        System.out.println("📂 Diretórios visitados: " + relatorio.diretorios());
+        System.out.println("📊 Bytes: " + bytes.get());
+        System.out.println("❌ Falhas: " + relatorio.falhas().size());
+        System.out.println("⏱️ Tempo: " + duracaoMs + " ms");
+    }
+
+    /**
+     * Uma entrada encontrada na varredura, com os atributos lidos pelo walk.
+     */
+    public record Entrada(Path caminho, BasicFileAttributes atributos) {
+    }
+
+    public record Falha(Path caminho, IOException erro) {
+    }
+
+    public record Relatorio(long arquivos, long diretorios, List<Falha> falhas) {
+    }
+
+    /**
+     * Walker sem filtros, sem seguir links, com uma thread por núcleo.
+     */
+    public ParallelDirectoryWalker() {
+        this(Runtime.getRuntime().availableProcessors(), List.of(), List.of(), false);
+    }
+
+    /**
+     * @param incluir globs de arquivos aceitos (lista vazia = todos)
+     * @param excluir globs de arquivos e diretórios ignorados
+     * @param seguirLinks se true, desce em links simbólicos para diretórios
+     */
+    public ParallelDirectoryWalker(int paralelismo, List<String> incluir, List<String> excluir, boolean seguirLinks) {
+        if (paralelismo <= 0) {
+            throw new IllegalArgumentException("Paralelismo deve ser positivo");
+        }
+        this.paralelismo = paralelismo;
+        this.seguirLinks = seguirLinks;
+
+        FileSystem fs = Paths.get("").getFileSystem();
+        for (String glob : incluir) {
+            (glob.contains("/") ? inclusoesCaminho : inclusoesNome).add(fs.getPathMatcher("glob:" + glob));
+        }
+        for (String glob : excluir) {
+            (glob.contains("/") ? exclusoesCaminho : exclusoesNome).add(fs.getPathMatcher("glob:" + glob));
+        }
+    }
+
+    /**
+     * Percorre a árvore e chama o visitante para cada arquivo (não-diretório)
+     * aceito pelos filtros. O visitante é chamado por VÁRIAS threads ao mesmo
+     * tempo e precisa ser thread-safe.
+     */
+    public Relatorio percorrer(Path raiz, BiConsumer<Path, BasicFileAttributes> visitante) throws IOException {
+        BasicFileAttributes atributosRaiz = seguirLinks
+                ? Files.readAttributes(raiz, BasicFileAttributes.class)
+                : Files.readAttributes(raiz, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        if (!atributosRaiz.isDirectory()) {
+            throw new IOException("Não é um diretório: " + raiz);
+        }
+
+        Estado estado = new Estado(raiz, visitante);
+        if (atributosRaiz.fileKey() != null) {
+            estado.visitados.add(atributosRaiz.fileKey());
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            pool.invoke(new VisitarDiretorio(raiz, estado));
+        } finally {
+            pool.shutdown();
+        }
+        return new Relatorio(estado.arquivos.get(), estado.diretorios.get(), List.copyOf(estado.falhas));
+    }
+
+    /**
+     * Conveniência: coleta todas as entradas, ordenadas pelo caminho.
+     */
+    public List<Entrada> listar(Path raiz) throws IOException {
+        ConcurrentLinkedQueue<Entrada> entradas = new ConcurrentLinkedQueue<>();
+        Relatorio relatorio = percorrer(raiz, (caminho, atributos) -> entradas.add(new Entrada(caminho, atributos)));
+        if (!relatorio.falhas().isEmpty()) {
+            Falha primeira = relatorio.falhas().get(0);
+            throw new IOException("Falha ao percorrer " + primeira.caminho(), primeira.erro());
+        }
+        List<Entrada> ordenadas = new ArrayList<>(entradas);
+        ordenadas.sort(Comparator.comparing(Entrada::caminho));
+        return ordenadas;
+    }
+
+    // =============================================
+    // TAREFA FORK/JOIN
+    // =============================================
+
+    /**
+     * Estado compartilhado por todas as tarefas de uma varredura.
+     */
+    private static final class Estado {
+        final Path raiz;
+        final BiConsumer<Path, BasicFileAttributes> visitante;
+        final Set<Object> visitados = ConcurrentHashMap.newKeySet();
+        final ConcurrentLinkedQueue<Falha> falhas = new ConcurrentLinkedQueue<>();
+        final AtomicLong arquivos = new AtomicLong();
+        final AtomicLong diretorios = new AtomicLong();
+
+        Estado(Path raiz, BiConsumer<Path, BasicFileAttributes> visitante) {
+            this.raiz = raiz;
+            this.visitante = visitante;
+        }
+    }
+
+    @SuppressWarnings("serial") // Tarefa do ForkJoin: nunca é serializada
+    private final class VisitarDiretorio extends RecursiveAction {
+        private final Path diretorio;
+        private final Estado estado;
+
+        VisitarDiretorio(Path diretorio, Estado estado) {
+            this.diretorio = diretorio;
+            this.estado = estado;
+        }
+
+        @Override
+        protected void compute() {
+            estado.diretorios.incrementAndGet();
+            List<VisitarDiretorio> subtarefas = new ArrayList<>();
+
+            EnumSet<FileVisitOption> opcoes = seguirLinks
+                    ? EnumSet.of(FileVisitOption.FOLLOW_LINKS)
+                    : EnumSet.noneOf(FileVisitOption.class);
+
+            try {
+                // maxDepth = 1: os filhos chegam em visitFile (inclusive subdiretórios),
+                // cada um com os atributos que o próprio walk já leu
+                Files.walkFileTree(diretorio, opcoes, 1, new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult visitFile(Path arquivo, BasicFileAttributes atributos) {
+                        if (atributos.isDirectory()) {
+                            if (!excluido(arquivo) && primeiraVisita(atributos)) {
+                                subtarefas.add(new VisitarDiretorio(arquivo, estado));
+                            }
+                        } else if (aceito(arquivo)) {
+                            estado.arquivos.incrementAndGet();
+                            estado.visitante.accept(arquivo, atributos);
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path arquivo, IOException erro) {
+                        estado.falhas.add(new Falha(arquivo, erro));
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException e) {
+                estado.falhas.add(new Falha(diretorio, e));
+            }
+
+            invokeAll(subtarefas);
+        }
+
+        private boolean primeiraVisita(BasicFileAttributes atributos) {
+            // Sem seguir links não há como voltar a um diretório já visitado
+            Object chave = atributos.fileKey();
+            return !seguirLinks || chave == null || estado.visitados.add(chave);
+        }
+
+        private boolean excluido(Path caminho) {
+            return corresponde(caminho, exclusoesNome, exclusoesCaminho);
+        }
+
+        private boolean aceito(Path caminho) {
+            if (excluido(caminho)) {
+                return false;
+            }
+            return (inclusoesNome.isEmpty() && inclusoesCaminho.isEmpty())
+                    || corresponde(caminho, inclusoesNome, inclusoesCaminho);
+        }
+
+        private boolean corresponde(Path caminho, List<PathMatcher> porNome, List<PathMatcher> porCaminho) {
+            Path nome = caminho.getFileName();
+            for (PathMatcher matcher : porNome) {
+                if (matcher.matches(nome)) {
+                    return true;
+                }
+            }
+            if (!porCaminho.isEmpty()) {
+                Path relativo = estado.raiz.relativize(caminho);
+                for (PathMatcher matcher : porCaminho) {
+                    if (matcher.matches(relativo)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package io_nio;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * ParallelFileCopier.java - Cópia Paralela de Arquivos com transferTo()
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Pool de threads configurável - várias cópias em voo ao mesmo tempo
+ * - FileChannel.transferTo() - cópia zero-copy feita pelo kernel
+ * - Arquivos grandes em blocos - cada bloco é uma tarefa independente
+ * - Arquivos pequenos em lotes - uma tarefa copia vários, diluindo o overhead
+ * - Vazão ao vivo - MB/s e arquivos/s amostrados por uma thread agendada
+ *
+ * Substitui o loop sequencial de Files.copy + Files.size do sistemaBackupSimples.
+ */
+public class ParallelFileCopier implements AutoCloseable {
+
+    public static final long LIMITE_ARQUIVO_GRANDE_PADRAO = 8L * 1024 * 1024;
+    public static final long TAMANHO_BLOCO_PADRAO = 64L * 1024 * 1024;
+
+    private static final int ARQUIVOS_POR_LOTE = 64;
+    private static final long BYTES_POR_LOTE = 8L * 1024 * 1024;
+
+    private final ExecutorService workers;
+    private final ScheduledExecutorService relator;
+    private final long limiteArquivoGrande;
+    private final long tamanhoBloco;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== PARALLEL FILE COPIER ===\n");
+
+        Path origem = Files.createDirectories(Paths.get("teste-copia-origem"));
+        Path destino = Paths.get("teste-copia-destino");
+
+        // 500 arquivos pequenos + 2 grandes
+        byte[] pequeno = new byte[4 * 1024];
+        for (int i = 0; i < 500; i++) {
+            Files.write(origem.resolve("pequeno-" + i + ".bin"), pequeno);
+        }
+        byte[] grande = new byte[32 * 1024 * 1024];
+        Files.write(origem.resolve("grande-1.bin"), grande);
+        Files.write(origem.resolve("grande-2.bin"), grande);
+
+        List<Tarefa> tarefas = new ArrayList<>();
+        try (Stream<Path> arquivos = Files.list(origem)) {
+            for (Path arquivo : arquivos.toList()) {
+                tarefas.add(new Tarefa(arquivo, destino.resolve(arquivo.getFileName()), Files.size(arquivo)));
+            }
+        }
+
+        try (ParallelFileCopier copiador = new ParallelFileCopier(Runtime.getRuntime().availableProcessors())) {
+            Resultado resultado = copiador.copiar(tarefas, ParallelFileCopier::imprimirProgresso, 200);
+            System.out.println("\n" + resultado);
+        }
+
+        // Limpar
+        for (Path pasta : new Path[]{origem, destino}) {
+            try (Stream<Path> arquivos = Files.list(pasta)) {
+                for (Path arquivo : arquivos.toList()) {
+                    Files.delete(arquivo);
+                }
+            }
+            Files.delete(pasta);
+        }
+    }
+
+    /**
+     * Um arquivo a copiar. O tamanho vem de quem listou os arquivos,
+     * para o copiador não precisar de outra chamada de stat.
+     */
+    public record Tarefa(Path origem, Path destino, long tamanho) {
+    }
+
+    public record Falha(Path origem, IOException erro) {
+    }
+
+    /**
+     * Amostra de vazão entregue periodicamente durante a cópia.
+     */
+    public record Progresso(int arquivos, long bytes, double mbPorSegundo, double arquivosPorSegundo) {
+    }
+
+    public record Resultado(int arquivos, long bytes, long duracaoNanos, List<Falha> falhas) {
+
+        public double mbPorSegundo() {
+            return duracaoNanos == 0 ? 0 : bytes / 1_048_576.0 / (duracaoNanos / 1e9);
+        }
+
+        public double arquivosPorSegundo() {
+            return duracaoNanos == 0 ? 0 : arquivos / (duracaoNanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("📄 %d arquivos, 📊 %d bytes em %d ms (%.1f MB/s, %.0f arquivos/s), ❌ %d falhas",
+                    arquivos, bytes, duracaoNanos / 1_000_000, mbPorSegundo(), arquivosPorSegundo(), falhas.size());
+        }
+    }
+
+    public ParallelFileCopier(int threads) {
+        this(threads, LIMITE_ARQUIVO_GRANDE_PADRAO, TAMANHO_BLOCO_PADRAO);
+    }
+
+    /**
+     * @param limiteArquivoGrande a partir deste tamanho o arquivo é copiado em blocos paralelos
+     * @param tamanhoBloco tamanho de cada bloco de transferTo()
+     */
+    public ParallelFileCopier(int threads, long limiteArquivoGrande, long tamanhoBloco) {
+        if (threads <= 0 || limiteArquivoGrande <= 0 || tamanhoBloco <= 0) {
+            throw new IllegalArgumentException("Threads, limite e bloco devem ser positivos");
+        }
+        this.limiteArquivoGrande = limiteArquivoGrande;
+        this.tamanhoBloco = tamanhoBloco;
+
+        AtomicInteger contador = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "copiador-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.relator = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "copiador-relator");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public Resultado copiar(List<Tarefa> tarefas) {
+        return copiar(tarefas, null, 0);
+    }
+
+    /**
+     * Copia todas as tarefas e só retorna quando terminarem.
+     * Destinos existentes são substituídos.
+     *
+     * @param aoProgredir recebe amostras de vazão (null para nenhuma)
+     * @param intervaloMillis intervalo entre amostras
+     */
+    public Resultado copiar(List<Tarefa> tarefas, Consumer<Progresso> aoProgredir, long intervaloMillis) {
+        Contadores contadores = new Contadores();
+        ConcurrentLinkedQueue<Falha> falhas = new ConcurrentLinkedQueue<>();
+        List<Future<?>> pendentes = new ArrayList<>();
+
+        long inicio = System.nanoTime();
+        ScheduledFuture<?> amostragem = null;
+        if (aoProgredir != null && intervaloMillis > 0) {
+            amostragem = relator.scheduleAtFixedRate(() -> aoProgredir.accept(contadores.amostrar()),
+                    intervaloMillis, intervaloMillis, TimeUnit.MILLISECONDS);
+        }
+
+        try {
+            List<Tarefa> lote = new ArrayList<>();
+            long bytesLote = 0;
+
+            for (Tarefa tarefa : tarefas) {
+                if (tarefa.tamanho() >= limiteArquivoGrande) {
+                    pendentes.addAll(submeterEmBlocos(tarefa, contadores, falhas));
+                    continue;
+                }
+                lote.add(tarefa);
+                bytesLote += tarefa.tamanho();
+                if (lote.size() == ARQUIVOS_POR_LOTE || bytesLote >= BYTES_POR_LOTE) {
+                    pendentes.add(submeterLote(lote, contadores, falhas));
+                    lote = new ArrayList<>();
+                    bytesLote = 0;
+                }
+            }
+            if (!lote.isEmpty()) {
+                pendentes.add(submeterLote(lote, contadores, falhas));
+            }
+
+            aguardar(pendentes);
+        } finally {
+            if (amostragem != null) {
+                amostragem.cancel(false);
+            }
+        }
+
+        return new Resultado(contadores.arquivos.get(), contadores.bytes.get(),
+                System.nanoTime() - inicio, List.copyOf(falhas));
+    }
+
+    /**
+     * Formato padrão para as amostras de vazão.
+     */
+    public static void imprimirProgresso(Progresso progresso) {
+        System.out.printf("  📈 %d arquivos, %.1f MB/s, %.0f arquivos/s%n",
+                progresso.arquivos(), progresso.mbPorSegundo(), progresso.arquivosPorSegundo());
+    }
+
+    @Override
+    public void close() {
+        relator.shutdownNow();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // =============================================
+    // TAREFAS DOS WORKERS
+    // =============================================
+
+    private Future<?> submeterLote(List<Tarefa> lote, Contadores contadores, ConcurrentLinkedQueue<Falha> falhas) {
+        return workers.submit(() -> {
+            for (Tarefa tarefa : lote) {
+                try {
+                    criarPastaPai(tarefa.destino());
+                    Files.copy(tarefa.origem(), tarefa.destino(), StandardCopyOption.REPLACE_EXISTING);
+                    contadores.bytes.addAndGet(tarefa.tamanho());
+                    contadores.arquivos.incrementAndGet();
+                } catch (IOException e) {
+                    falhas.add(new Falha(tarefa.origem(), e));
+                }
+            }
+        });
+    }
+
+    /**
+     * Divide um arquivo grande em blocos; cada bloco abre seus próprios canais
+     * e usa transferTo() posicional, então os blocos rodam em paralelo.
+     */
+    private List<Future<?>> submeterEmBlocos(Tarefa tarefa, Contadores contadores,
+                                             ConcurrentLinkedQueue<Falha> falhas) {
+        try {
+            // Cria/trunca o destino uma vez antes de os blocos começarem
+            criarPastaPai(tarefa.destino());
+            Files.write(tarefa.destino(), new byte[0]);
+        } catch (IOException e) {
+            falhas.add(new Falha(tarefa.origem(), e));
+            return List.of();
+        }
+
+        long quantidadeBlocos = Math.max(1, (tarefa.tamanho() + tamanhoBloco - 1) / tamanhoBloco);
+        AtomicLong blocosRestantes = new AtomicLong(quantidadeBlocos);
+        AtomicInteger falhou = new AtomicInteger();
+        List<Future<?>> futuros = new ArrayList<>();
+
+        for (long bloco = 0; bloco < quantidadeBlocos; bloco++) {
+            long posicao = bloco * tamanhoBloco;
+            long tamanho = Math.min(tamanhoBloco, tarefa.tamanho() - posicao);
+
+            futuros.add(workers.submit(() -> {
+                try {
+                    copiarBloco(tarefa, posicao, tamanho, contadores);
+                } catch (IOException e) {
+                    // Só a primeira falha do arquivo é registrada
+                    if (falhou.getAndIncrement() == 0) {
+                        falhas.add(new Falha(tarefa.origem(), e));
+                    }
+                }
+                if (blocosRestantes.decrementAndGet() == 0 && falhou.get() == 0) {
+                    contadores.arquivos.incrementAndGet();
+                }
+            }));
+        }
+        return futuros;
+    }
+
+    private static void copiarBloco(Tarefa tarefa, long posicao, long tamanho, Contadores contadores) throws IOException {
+        try (FileChannel origem = FileChannel.open(tarefa.origem(), StandardOpenOption.READ);
+             FileChannel destino = FileChannel.open(tarefa.destino(), StandardOpenOption.WRITE)) {
+            destino.position(posicao);
+            long copiados = 0;
+            while (copiados < tamanho) {
+                long n = origem.transferTo(posicao + copiados, tamanho - copiados, destino);
+                if (n <= 0) {
+                    throw new IOException("Origem encolheu durante a cópia: " + tarefa.origem());
+                }
+                copiados += n;
+                contadores.bytes.addAndGet(n);
+            }
+        }
+    }
+
+    // =============================================
+    // MÉTODOS AUXILIARES
+    // =============================================
+
+    private static void aguardar(List<Future<?>> pendentes) {
+        for (Future<?> futuro : pendentes) {
+            try {
+                futuro.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // Erros de I/O já viraram Falha; aqui só sobra erro de programação
+                throw new IllegalStateException("Falha inesperada na cópia", e.getCause());
+            }
+        }
+    }
+
+    private static void criarPastaPai(Path arquivo) throws IOException {
+        Path pai = arquivo.getParent();
+        if (pai != null) {
+            Files.createDirectories(pai);
+        }
+    }
+
+    /**
+     * Contadores compartilhados entre workers e a thread de amostragem.
+     */
+    private static final class Contadores {
+        final AtomicInteger arquivos = new AtomicInteger();
+        final AtomicLong bytes = new AtomicLong();
+
+        private long ultimoInstante = System.nanoTime();
+        private long ultimosBytes = 0;
+        private int ultimosArquivos = 0;
+
+        /** Chamado só pela thread do relator: vazão desde a amostra anterior. */
+        Progresso amostrar() {
+            long agora = System.nanoTime();
+            long bytesAgora = bytes.get();
+            int arquivosAgora = arquivos.get();
+            double segundos = Math.max(agora - ultimoInstante, 1) / 1e9;
+
+            Progresso progresso = new Progresso(arquivosAgora, bytesAgora,
+                    (bytesAgora - ultimosBytes) / 1_048_576.0 / segundos,
+                    (arquivosAgora - ultimosArquivos) / segundos);
+
+            ultimoInstante = agora;
+            ultimosBytes = bytesAgora;
+            ultimosArquivos = arquivosAgora;
+            return progresso;
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package io_nio;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ParallelLogGrep.java - Busca Paralela em Arquivos de Log Grandes
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Blocos alinhados em linhas - cada bloco começa logo após um '\n', então
+ *   nenhuma linha é dividida entre duas tarefas
+ * - Memory-mapping por bloco - cada tarefa mapeia só o seu pedaço (até 64 MB)
+ * - ForkJoinPool - os blocos são buscados em paralelo e juntados em ordem
+ * - Boyer-Moore-Horspool - busca literal em bytes que pula vários bytes por
+ *   comparação (tabela de saltos de 256 posições)
+ * - Regex por linha - linhas ASCII são vistas direto nos bytes mapeados;
+ *   só linhas com acentos viram String
+ * - Modo contagem - conta linhas sem montar Strings
+ *
+ * Como no grep, cada linha conta uma vez só, mesmo com várias ocorrências.
+ */
+public class ParallelLogGrep {
+
+    private static final long TAMANHO_MAXIMO_BLOCO = 64L * 1024 * 1024;
+    private static final long TAMANHO_MINIMO_BLOCO = 1024 * 1024;
+
+    private final byte[] literal;
+    private final int[] saltos;
+    private final Pattern padrao;
+    private final int paralelismo;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== PARALLEL LOG GREP ===\n");
+
+        int megabytes = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        Path logFile = Paths.get("teste-grep.log");
+
+        // Log sintético no formato do AsyncLogAppender
+        String[] niveis = {"INFO", "INFO", "INFO", "DEBUG", "WARN", "ERROR"};
+        try (FileChannel canal = FileChannel.open(logFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer bloco = ByteBuffer.allocate(1024 * 1024);
+            long alvo = (long) megabytes * 1024 * 1024;
+            long escrito = 0;
+            for (int i = 0; escrito < alvo; i++) {
+                byte[] linha = ("2024-03-15 10:" + String.format("%02d:%02d", (i / 60) % 60, i % 60) + " ["
+                        + niveis[i % niveis.length] + "] Pedido " + i
+                        + (i % 1000 == 7 ? " falhou: conexão recusada" : " processado em " + (i % 97) + " ms")
+                        + "\n").getBytes(StandardCharsets.UTF_8);
+                if (linha.length > bloco.remaining()) {
+                    bloco.flip();
+                    escrito += canal.write(bloco);
+                    bloco.clear();
+                }
+                bloco.put(linha);
+            }
+            bloco.flip();
+            canal.write(bloco);
+        }
+        System.out.println("📄 Log sintético: " + Files.size(logFile) / (1024 * 1024) + " MB\n");
+
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        Pattern falhas = Pattern.compile("Pedido \\d+ falhou: (.+)");
+
+        for (int paralelismo : new int[]{1, nucleos}) {
+            System.out.println("🧵 Paralelismo " + paralelismo + ":");
+            Resultado erros = literal("[ERROR]", paralelismo).contar(logFile);
+            System.out.println("  🔎 literal \"[ERROR]\" (contagem): " + erros);
+            Resultado recusadas = literal("conexão recusada", paralelismo).buscar(logFile);
+            System.out.println("  🔎 literal \"conexão recusada\": " + recusadas);
+            Resultado regex = regex(falhas, paralelismo).buscar(logFile);
+            System.out.println("  🔎 regex " + falhas + ": " + regex);
+            if (paralelismo == nucleos && !regex.ocorrencias().isEmpty()) {
+                Ocorrencia primeira = regex.ocorrencias().get(0);
+                System.out.println("  📌 Primeira: offset " + primeira.offset() + " → " + primeira.linha());
+            }
+        }
+
+        Files.delete(logFile);
+    }
+
+    /**
+     * Uma linha encontrada. 'offset' é a posição do início da linha no arquivo.
+     */
+    public record Ocorrencia(long offset, String linha) {
+    }
+
+    /**
+     * @param ocorrencias vazia no modo contagem; em ordem de arquivo no modo busca
+     */
+    public record Resultado(long linhas, List<Ocorrencia> ocorrencias, long bytesLidos, long duracaoNanos) {
+
+        public double mbPorSegundo() {
+            return duracaoNanos == 0 ? 0 : bytesLidos / (1024.0 * 1024.0) / (duracaoNanos / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d linhas em %d ms (%.0f MB/s)", linhas, duracaoNanos / 1_000_000, mbPorSegundo());
+        }
+    }
+
+    /**
+     * Busca literal (texto exato, comparado em bytes UTF-8) com uma thread por núcleo.
+     */
+    public static ParallelLogGrep literal(String texto) {
+        return literal(texto, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static ParallelLogGrep literal(String texto, int paralelismo) {
+        if (texto.isEmpty()) {
+            throw new IllegalArgumentException("Texto de busca vazio");
+        }
+        return new ParallelLogGrep(texto.getBytes(StandardCharsets.UTF_8), null, paralelismo);
+    }
+
+    /**
+     * Busca por expressão regular, avaliada linha a linha (como o grep).
+     */
+    public static ParallelLogGrep regex(Pattern padrao) {
+        return regex(padrao, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static ParallelLogGrep regex(Pattern padrao, int paralelismo) {
+        return new ParallelLogGrep(null, padrao, paralelismo);
+    }
+
+    private ParallelLogGrep(byte[] literal, Pattern padrao, int paralelismo) {
+        if (paralelismo <= 0) {
+            throw new IllegalArgumentException("Paralelismo deve ser positivo");
+        }
+        this.literal = literal;
+        this.padrao = padrao;
+        this.paralelismo = paralelismo;
+        this.saltos = literal != null ? tabelaDeSaltos(literal) : null;
+    }
+
+    /**
+     * Todas as linhas que casam, em ordem de arquivo.
+     */
+    public Resultado buscar(Path arquivo) throws IOException {
+        return executar(arquivo, true);
+    }
+
+    /**
+     * Só a quantidade de linhas que casam.
+     */
+    public Resultado contar(Path arquivo) throws IOException {
+        return executar(arquivo, false);
+    }
+
+    private Resultado executar(Path arquivo, boolean coletar) throws IOException {
+        long inicio = System.nanoTime();
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            long[] limites = limitesDosBlocos(canal);
+
+            List<BuscarBloco> tarefas = new ArrayList<>();
+            for (int i = 0; i + 1 < limites.length; i++) {
+                tarefas.add(new BuscarBloco(canal, limites[i], limites[i + 1], coletar));
+            }
+
+            ForkJoinPool pool = new ForkJoinPool(paralelismo);
+            long linhas = 0;
+            List<Ocorrencia> ocorrencias = new ArrayList<>();
+            try {
+                for (BuscarBloco tarefa : tarefas) {
+                    pool.execute(tarefa);
+                }
+                // join na ordem dos blocos = ocorrências em ordem de arquivo
+                for (BuscarBloco tarefa : tarefas) {
+                    Parcial parcial = tarefa.join();
+                    linhas += parcial.linhas;
+                    ocorrencias.addAll(parcial.ocorrencias);
+                }
+            } catch (UncheckedIOException e) {
+                throw new IOException("Falha na busca em " + arquivo, e);
+            } finally {
+                pool.shutdown();
+            }
+            return new Resultado(linhas, List.copyOf(ocorrencias), canal.size(), System.nanoTime() - inicio);
+        }
+    }
+
+    // =============================================
+    // DIVISÃO EM BLOCOS
+    // =============================================
+
+    /**
+     * Divide o arquivo em ~4 blocos por thread (no máximo 64 MB cada) e empurra
+     * cada fronteira para logo depois do próximo '\n'.
+     */
+    private long[] limitesDosBlocos(FileChannel canal) throws IOException {
+        long tamanho = canal.size();
+        long porBloco = Math.max(TAMANHO_MINIMO_BLOCO,
+                Math.min(TAMANHO_MAXIMO_BLOCO, tamanho / (paralelismo * 4L) + 1));
+
+        List<Long> limites = new ArrayList<>();
+        limites.add(0L);
+        ByteBuffer leitura = ByteBuffer.allocate(8 * 1024);
+        long proximo = porBloco;
+        while (proximo < tamanho) {
+            long fronteira = depoisDaQuebra(canal, proximo, leitura);
+            if (fronteira >= tamanho) {
+                break;
+            }
+            limites.add(fronteira);
+            proximo = fronteira + porBloco;
+        }
+        limites.add(tamanho);
+        return limites.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long depoisDaQuebra(FileChannel canal, long posicao, ByteBuffer leitura) throws IOException {
+        long atual = posicao;
+        while (true) {
+            leitura.clear();
+            int lidos = canal.read(leitura, atual);
+            if (lidos <= 0) {
+                return canal.size();
+            }
+            for (int i = 0; i < lidos; i++) {
+                if (leitura.get(i) == '\n') {
+                    return atual + i + 1;
+                }
+            }
+            atual += lidos;
+        }
+    }
+
+    // =============================================
+    // BUSCA EM UM BLOCO
+    // =============================================
+
+    private static final class Parcial {
+        long linhas;
+        final List<Ocorrencia> ocorrencias = new ArrayList<>();
+    }
+
+    @SuppressWarnings("serial") // Tarefa do ForkJoin: nunca é serializada
+    private final class BuscarBloco extends RecursiveTask<Parcial> {
+        private final FileChannel canal;
+        private final long inicio;
+        private final long fim;
+        private final boolean coletar;
+
+        BuscarBloco(FileChannel canal, long inicio, long fim, boolean coletar) {
+            this.canal = canal;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.coletar = coletar;
+        }
+
+        @Override
+        protected Parcial compute() {
+            Parcial parcial = new Parcial();
+            try {
+                MappedByteBuffer bytes = canal.map(FileChannel.MapMode.READ_ONLY, inicio, fim - inicio);
+                if (literal != null) {
+                    buscarLiteral(bytes, parcial);
+                } else {
+                    buscarRegex(bytes, parcial);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha lendo bloco " + inicio + "-" + fim, e);
+            }
+            return parcial;
+        }
+
+        /**
+         * Boyer-Moore-Horspool: compara o padrão de trás para frente e, se
+         * falhar, pula conforme o último byte da janela.
+         */
+        private void buscarLiteral(ByteBuffer bytes, Parcial parcial) {
+            int m = literal.length;
+            int limite = bytes.limit();
+            int i = 0;
+            while (i <= limite - m) {
+                int j = m - 1;
+                while (j >= 0 && bytes.get(i + j) == literal[j]) {
+                    j--;
+                }
+                if (j < 0) {
+                    int inicioLinha = inicioDaLinha(bytes, i);
+                    int fimLinha = fimDaLinha(bytes, i + m);
+                    registrar(bytes, inicioLinha, fimLinha, parcial);
+                    // Uma ocorrência por linha: continua na próxima
+                    i = fimLinha + 1;
+                } else {
+                    i += saltos[bytes.get(i + m - 1) & 0xFF];
+                }
+            }
+        }
+
+        private void buscarRegex(ByteBuffer bytes, Parcial parcial) {
+            VisaoAscii visao = new VisaoAscii(bytes);
+            Matcher matcher = padrao.matcher(visao);
+            int limite = bytes.limit();
+            int inicioLinha = 0;
+            while (inicioLinha < limite) {
+                int fimLinha = inicioLinha;
+                boolean ascii = true;
+                while (fimLinha < limite && bytes.get(fimLinha) != '\n') {
+                    ascii &= bytes.get(fimLinha) >= 0;
+                    fimLinha++;
+                }
+
+                boolean casou;
+                if (ascii) {
+                    // Bytes ASCII = chars: o matcher lê direto do buffer mapeado
+                    matcher.region(inicioLinha, fimLinha);
+                    casou = matcher.find();
+                } else {
+                    casou = padrao.matcher(texto(bytes, inicioLinha, fimLinha)).find();
+                }
+                if (casou) {
+                    registrar(bytes, inicioLinha, fimLinha, parcial);
+                }
+                inicioLinha = fimLinha + 1;
+            }
+        }
+
+        private void registrar(ByteBuffer bytes, int inicioLinha, int fimLinha, Parcial parcial) {
+            parcial.linhas++;
+            if (coletar) {
+                parcial.ocorrencias.add(new Ocorrencia(inicio + inicioLinha, texto(bytes, inicioLinha, fimLinha)));
+            }
+        }
+    }
+
+    // =============================================
+    // AUXILIARES
+    // =============================================
+
+    private static int[] tabelaDeSaltos(byte[] padrao) {
+        int[] saltos = new int[256];
+        Arrays.fill(saltos, padrao.length);
+        for (int i = 0; i < padrao.length - 1; i++) {
+            saltos[padrao[i] & 0xFF] = padrao.length - 1 - i;
+        }
+        return saltos;
+    }
+
+    private static int inicioDaLinha(ByteBuffer bytes, int posicao) {
+        int i = posicao;
+        while (i > 0 && bytes.get(i - 1) != '\n') {
+            i--;
+        }
+        return i;
+    }
+
+    private static int fimDaLinha(ByteBuffer bytes, int posicao) {
+        int i = posicao;
+        while (i < bytes.limit() && bytes.get(i) != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    private static String texto(ByteBuffer bytes, int inicio, int fim) {
+        int tamanho = fim - inicio;
+        if (tamanho > 0 && bytes.get(fim - 1) == '\r') {
+            tamanho--;
+        }
+        byte[] linha = new byte[tamanho];
+        bytes.get(inicio, linha);
+        return new String(linha, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Enxerga os bytes como chars (cada byte um char). Só é usada em linhas
+     * 100% ASCII, onde essa leitura é exata.
+     */
+    private static final class VisaoAscii implements CharSequence {
+        private final ByteBuffer bytes;
+
+        VisaoAscii(ByteBuffer bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int length() {
+            return bytes.limit();
+        }
+
+        @Override
+        public char charAt(int indice) {
+            return (char) bytes.get(indice);
+        }
+
+        @Override
+        public CharSequence subSequence(int inicio, int fim) {
+            byte[] trecho = new byte[fim - inicio];
+            bytes.get(inicio, trecho);
+            return new String(trecho, StandardCharsets.US_ASCII);
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length()).toString();
+        }
+    }
+}
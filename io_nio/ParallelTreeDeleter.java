@@ -0,0 +1,242 @@
+package io_nio;
+
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ParallelTreeDeleter.java - Remoção Recursiva e Paralela de Diretórios
+ *
+ * CONCEITOS IMPORTANTES:
+ * - Pós-ordem - um diretório só é apagado depois de todos os filhos
+ * - ForkJoinPool + RecursiveTask - cada subdiretório vira uma tarefa, e
+ *   pastas com muitos arquivos são divididas em lotes
+ * - Links simbólicos - o link é apagado, o alvo nunca é visitado
+ * - Falhas coletadas - nada é engolido; quem chama decide o que fazer
+ *
+ * Se algo dentro de um diretório falhar, o diretório é mantido (apagá-lo
+ * daria só um DirectoryNotEmptyException a mais no relatório).
+ */
+public class ParallelTreeDeleter {
+
+    /**
+     * Arquivos apagados por uma única tarefa antes de dividir o trabalho.
+     */
+    private static final int LOTE_ARQUIVOS = 256;
+
+    private final int paralelismo;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== PARALLEL TREE DELETER ===\n");
+
+        int pastas = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int arquivosPorPasta = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        // Árvore de teste: pastas aninhadas em dois níveis, cheias de arquivos pequenos
+        Path raiz = Files.createDirectories(Paths.get("teste-delete"));
+        for (int p = 0; p < pastas; p++) {
+            Path pasta = Files.createDirectories(raiz.resolve("nivel-" + (p % 10)).resolve("pasta-" + p));
+            for (int a = 0; a < arquivosPorPasta; a++) {
+                Files.writeString(pasta.resolve("arquivo-" + a + ".txt"), "conteúdo " + a);
+            }
+        }
+        System.out.println("📁 Criados " + (pastas * arquivosPorPasta) + " arquivos em " + raiz);
+
+        Relatorio relatorio = new ParallelTreeDeleter().apagar(raiz);
+        System.out.println("🧹 " + relatorio);
+        System.out.println("📁 Raiz ainda existe? " + Files.exists(raiz));
+    }
+
+    public record Falha(Path caminho, IOException erro) {
+    }
+
+    public record Relatorio(long arquivos, long diretorios, long duracaoNanos, List<Falha> falhas) {
+
+        public double arquivosPorSegundo() {
+            return duracaoNanos == 0 ? 0 : arquivos * 1_000_000_000.0 / duracaoNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("📄 arquivos=%d 📂 diretórios=%d ⏱️ %d ms ⚡ %.0f arquivos/s ❌ falhas=%d",
+                    arquivos, diretorios, duracaoNanos / 1_000_000, arquivosPorSegundo(), falhas.size());
+        }
+    }
+
+    /**
+     * Uma thread por núcleo.
+     */
+    public ParallelTreeDeleter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelTreeDeleter(int paralelismo) {
+        if (paralelismo <= 0) {
+            throw new IllegalArgumentException("Paralelismo deve ser positivo");
+        }
+        this.paralelismo = paralelismo;
+    }
+
+    /**
+     * Apaga 'raiz' e tudo abaixo dela. Raiz inexistente não é erro (relatório vazio);
+     * se 'raiz' for um arquivo ou link, apaga só ele.
+     */
+    public Relatorio apagar(Path raiz) {
+        Estado estado = new Estado();
+        long inicio = System.nanoTime();
+
+        BasicFileAttributes atributos;
+        try {
+            atributos = Files.readAttributes(raiz, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            return new Relatorio(0, 0, System.nanoTime() - inicio, List.of());
+        } catch (IOException e) {
+            return new Relatorio(0, 0, System.nanoTime() - inicio, List.of(new Falha(raiz, e)));
+        }
+
+        if (atributos.isDirectory()) {
+            ForkJoinPool pool = new ForkJoinPool(paralelismo);
+            try {
+                pool.invoke(new ApagarDiretorio(raiz, estado));
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            apagarFolha(raiz, estado);
+        }
+
+        return new Relatorio(estado.arquivos.get(), estado.diretorios.get(), System.nanoTime() - inicio,
+                List.copyOf(estado.falhas));
+    }
+
+    // =============================================
+    // TAREFAS FORK/JOIN
+    // =============================================
+
+    private static final class Estado {
+        final ConcurrentLinkedQueue<Falha> falhas = new ConcurrentLinkedQueue<>();
+        final AtomicLong arquivos = new AtomicLong();
+        final AtomicLong diretorios = new AtomicLong();
+    }
+
+    /**
+     * Apaga arquivo ou link; devolve false (e registra a falha) se não conseguir.
+     */
+    private static boolean apagarFolha(Path caminho, Estado estado) {
+        try {
+            Files.deleteIfExists(caminho);
+            estado.arquivos.incrementAndGet();
+            return true;
+        } catch (IOException e) {
+            estado.falhas.add(new Falha(caminho, e));
+            return false;
+        }
+    }
+
+    /**
+     * Esvazia o diretório em paralelo e, se tudo deu certo, apaga o próprio diretório.
+     * Resultado: true se o diretório foi removido.
+     */
+    @SuppressWarnings("serial") // Tarefa do ForkJoin: nunca é serializada
+    private static final class ApagarDiretorio extends RecursiveTask<Boolean> {
+        private final Path diretorio;
+        private final Estado estado;
+
+        ApagarDiretorio(Path diretorio, Estado estado) {
+            this.diretorio = diretorio;
+            this.estado = estado;
+        }
+
+        @Override
+        protected Boolean compute() {
+            List<Path> subdiretorios = new ArrayList<>();
+            List<Path> folhas = new ArrayList<>();
+
+            try {
+                // maxDepth = 1: os atributos do walk dizem o que é diretório sem seguir links
+                Files.walkFileTree(diretorio, EnumSet.noneOf(FileVisitOption.class), 1,
+                        new SimpleFileVisitor<>() {
+                            @Override
+                            public FileVisitResult visitFile(Path caminho, BasicFileAttributes atributos) {
+                                (atributos.isDirectory() ? subdiretorios : folhas).add(caminho);
+                                return FileVisitResult.CONTINUE;
+                            }
+
+                            @Override
+                            public FileVisitResult visitFileFailed(Path caminho, IOException erro) {
+                                // Inacessível para leitura de atributos: tenta apagar como folha
+                                folhas.add(caminho);
+                                return FileVisitResult.CONTINUE;
+                            }
+                        });
+            } catch (IOException e) {
+                estado.falhas.add(new Falha(diretorio, e));
+                return false;
+            }
+
+            List<RecursiveTask<Boolean>> subtarefas = new ArrayList<>();
+            for (Path subdiretorio : subdiretorios) {
+                subtarefas.add(new ApagarDiretorio(subdiretorio, estado));
+            }
+            // Pastas enormes: os arquivos além do primeiro lote vão para outras threads
+            for (int i = LOTE_ARQUIVOS; i < folhas.size(); i += LOTE_ARQUIVOS) {
+                subtarefas.add(new ApagarLote(folhas.subList(i, Math.min(i + LOTE_ARQUIVOS, folhas.size())), estado));
+            }
+            for (RecursiveTask<Boolean> subtarefa : subtarefas) {
+                subtarefa.fork();
+            }
+
+            boolean tudoApagado = new ApagarLote(folhas.subList(0, Math.min(LOTE_ARQUIVOS, folhas.size())), estado)
+                    .compute();
+            for (RecursiveTask<Boolean> subtarefa : subtarefas) {
+                tudoApagado &= subtarefa.join();
+            }
+
+            if (!tudoApagado) {
+                return false;
+            }
+            try {
+                Files.delete(diretorio);
+                estado.diretorios.incrementAndGet();
+                return true;
+            } catch (IOException e) {
+                estado.falhas.add(new Falha(diretorio, e));
+                return false;
+            }
+        }
+    }
+
+    @SuppressWarnings("serial") // Tarefa do ForkJoin: nunca é serializada
+    private static final class ApagarLote extends RecursiveTask<Boolean> {
+        private final List<Path> folhas;
+        private final Estado estado;
+
+        ApagarLote(List<Path> folhas, Estado estado) {
+            this.folhas = folhas;
+            this.estado = estado;
+        }
+
+        @Override
+        protected Boolean compute() {
+            boolean tudoApagado = true;
+            for (Path folha : folhas) {
+                tudoApagado &= apagarFolha(folha, estado);
+            }
+            return tudoApagado;
+        }
+    }
+}
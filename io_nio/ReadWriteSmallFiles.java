@@ -8,6 +8,10 @@ import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * ReadWriteSmallFiles.java - Leitura e Escrita de Arquivos Pequenos
@@ -16,8 +20,15 @@ import java.util.List;
  * - Files.readAllLines() / Files.readString() - Leitura completa
  * - Files.write() com diferentes opções - Escrita completa
  * - Charset e encoding - UTF-8, ASCII, etc.
+ * - CharsetTranscoder - conversão de encoding em streaming, memória constante
  * - StandardOpenOption - Controle de como escrever
  * - Try-with-resources para AutoCloseable
+ * - AsyncLogAppender - log com canal aberto e escrita em lote
+ * - LogRotator - rotação por tamanho/tempo com compressão em segundo plano
+ * - LogStatsAnalyzer - estatísticas em uma passada com memory-mapping
+ * - LogTailFollower - acompanha o log ao vivo, sobrevivendo à rotação
+ * - ParallelLogGrep - busca literal/regex em blocos paralelos
+ * - BinaryLogReader - log binário filtrado por nível/tempo sem decodificar mensagens
  */
 public class ReadWriteSmallFiles {
 
@@ -149,6 +160,17 @@ public class ReadWriteSmallFiles {
                 System.out.println("3. Erro ao ler em ASCII: caracteres especiais não suportados");
             }
 
+            // CONVERSÃO ENTRE ENCODINGS EM STREAMING (sem carregar o arquivo inteiro)
+            Path latin1 = Paths.get("teste-encoding-latin1.txt");
+            Path convertido = Paths.get("teste-encoding-convertido.txt");
+            Files.write(latin1, textoComAcentos.getBytes(StandardCharsets.ISO_8859_1));
+            CharsetTranscoder.Relatorio conversao = new CharsetTranscoder(StandardCharsets.ISO_8859_1,
+                    StandardCharsets.UTF_8).transcodificar(latin1, convertido);
+            System.out.println("4. ISO-8859-1 → UTF-8: " + conversao.bytesLidos() + " → "
+                    + conversao.bytesEscritos() + " bytes: " + Files.readString(convertido, StandardCharsets.UTF_8));
+            Files.delete(latin1);
+            Files.delete(convertido);
+
             // Mostrar informações sobre charsets
             System.out.println("\n--- CHARSETS DISPONÍVEIS ---");
             System.out.println("Charset padrão do sistema: " + Charset.defaultCharset());
@@ -174,31 +196,81 @@ public class ReadWriteSmallFiles {
         Path logFile = Paths.get("application.log");
 
         try {
-            // Método para escrever log
-            escreverLog(logFile, "INFO", "Sistema iniciado");
-            escreverLog(logFile, "DEBUG", "Carregando configurações");
-            escreverLog(logFile, "WARN", "Configuração padrão utilizada");
-            escreverLog(logFile, "INFO", "Sistema pronto para uso");
-            escreverLog(logFile, "ERROR", "Falha na conexão com banco de dados");
-
-            // Ler e exibir logs
+            // Appender mantém o arquivo aberto; fechar garante que tudo foi gravado.
+            // Rotação embutida: novo segmento a cada 10 MB ou 1 dia, guardando 7 .gz
+            LogRotator.PoliticaRotacao rotacao = LogRotator.PoliticaRotacao.porTamanhoOuTempo(
+                    10L * 1024 * 1024, java.time.Duration.ofDays(1), 7);
+            // Follower: acompanha o log ao vivo (como "tail -f"), a partir do fim atual
+            CountDownLatch recebidas = new CountDownLatch(5);
+            try (LogTailFollower follower = new LogTailFollower(logFile, false)) {
+                follower.assinar(lote -> {
+                    for (String linha : lote) {
+                        System.out.println("📡 ao vivo: " + linha);
+                        recebidas.countDown();
+                    }
+                });
+                follower.iniciar();
+
+                try (AsyncLogAppender appender = new AsyncLogAppender(logFile,
+                        AsyncLogAppender.CAPACIDADE_FILA_PADRAO, AsyncLogAppender.TAMANHO_BUFFER_PADRAO,
+                        AsyncLogAppender.PoliticaFlush.aCadaMillis(1000), rotacao)) {
+                    escreverLog(appender, "INFO", "Sistema iniciado");
+                    escreverLog(appender, "DEBUG", "Carregando configurações");
+                    escreverLog(appender, "WARN", "Configuração padrão utilizada");
+                    escreverLog(appender, "INFO", "Sistema pronto para uso");
+                    escreverLog(appender, "ERROR", "Falha na conexão com banco de dados");
+                }
+
+                if (!recebidas.await(5, TimeUnit.SECONDS)) {
+                    System.out.println("⚠️ Follower não recebeu todas as linhas a tempo");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            // Ler e exibir logs (Files.lines lê sob demanda, sem carregar tudo no heap)
             System.out.println("\n--- CONTEÚDO DO LOG ---");
-            List<String> logs = Files.readAllLines(logFile);
-            logs.forEach(linha -> System.out.println(linha));
+            try (Stream<String> linhas = Files.lines(logFile)) {
+                linhas.forEach(linha -> System.out.println(linha));
+            }
 
-            // Estatísticas do log
+            // Estatísticas do log: uma passada sobre os bytes mapeados em memória
             System.out.println("\n--- ESTATÍSTICAS ---");
-            long totalLinhas = logs.size();
-            long errors = logs.stream().filter(linha -> linha.contains("[ERROR]")).count();
-            long warnings = logs.stream().filter(linha -> linha.contains("[WARN]")).count();
-            long infos = logs.stream().filter(linha -> linha.contains("[INFO]")).count();
+            LogStatsAnalyzer.Estatisticas estatisticas = LogStatsAnalyzer.analisar(logFile);
+
+            System.out.println("Total de logs: " + estatisticas.totalLinhas());
+            System.out.println("Errors: " + estatisticas.contagem(LogLevel.ERROR));
+            System.out.println("Warnings: " + estatisticas.contagem(LogLevel.WARN));
+            System.out.println("Infos: " + estatisticas.contagem(LogLevel.INFO));
+            System.out.println("Debugs: " + estatisticas.contagem(LogLevel.DEBUG));
 
-            System.out.println("Total de logs: " + totalLinhas);
-            System.out.println("Errors: " + errors);
-            System.out.println("Warnings: " + warnings);
-            System.out.println("Infos: " + infos);
+            System.out.println("Tamanho do arquivo: " + estatisticas.tamanhoBytes() + " bytes");
 
-            System.out.println("Tamanho do arquivo: " + Files.size(logFile) + " bytes");
+            // Busca no log: blocos alinhados em linhas, varridos em paralelo
+            System.out.println("\n--- BUSCA (GREP) ---");
+            for (ParallelLogGrep.Ocorrencia ocorrencia : ParallelLogGrep.literal("[ERROR]").buscar(logFile).ocorrencias()) {
+                System.out.println("🔎 offset " + ocorrencia.offset() + ": " + ocorrencia.linha());
+            }
+            ParallelLogGrep.Resultado configuracoes = ParallelLogGrep.regex(Pattern.compile("(?i)configura")).contar(logFile);
+            System.out.println("🔎 Linhas sobre configuração: " + configuracoes.linhas());
+
+            // Log binário: mesmas entradas, sem texto para re-parsear depois
+            System.out.println("\n--- LOG BINÁRIO ---");
+            Path logBinario = Paths.get("application.blog");
+            try (AsyncLogAppender appender = new AsyncLogAppender(logBinario,
+                    AsyncLogAppender.CAPACIDADE_FILA_PADRAO, AsyncLogAppender.TAMANHO_BUFFER_PADRAO,
+                    AsyncLogAppender.PoliticaFlush.aCadaMillis(1000), null, false, AsyncLogAppender.Formato.BINARIO)) {
+                escreverLog(appender, "INFO", "Sistema iniciado");
+                escreverLog(appender, "WARN", "Configuração padrão utilizada");
+                escreverLog(appender, "ERROR", "Falha na conexão com banco de dados");
+            }
+            try (BinaryLogReader leitor = BinaryLogReader.abrir(logBinario)) {
+                // Só as mensagens que passam no filtro são decodificadas
+                leitor.paraCada(BinaryLogReader.Filtro.niveis(LogLevel.ERROR, LogLevel.WARN),
+                        registro -> System.out.println("📦 " + registro));
+            }
+            System.out.println("Tamanho do arquivo binário: " + Files.size(logBinario) + " bytes");
+            Files.delete(logBinario);
 
             // Limpar (descomente se quiser)
             // Files.delete(logFile);
@@ -210,16 +282,12 @@ public class ReadWriteSmallFiles {
 
     /**
      * Método auxiliar para escrever log com timestamp
+     *
+     * O timestamp e o formato "%s [%s] %s%n" são aplicados pelo appender,
+     * numa thread dedicada que mantém o FileChannel aberto e grava em lote
+     * (antes: um Files.write com open/close para cada linha).
      */
-    private static void escreverLog(Path logFile, String nivel, String mensagem) throws IOException {
-        String timestamp = java.time.LocalDateTime.now().format(
-                java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
-        );
-
-        String logEntry = String.format("%s [%s] %s%n", timestamp, nivel, mensagem);
-
-        // Usar APPEND para adicionar ao final (CREATE se não existir)
-        Files.write(logFile, logEntry.getBytes(StandardCharsets.UTF_8),
-                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    private static void escreverLog(AsyncLogAppender appender, String nivel, String mensagem) throws IOException {
+        appender.append(nivel, mensagem);
     }
 }
\ No newline at end of file